@@ -1,6 +1,7 @@
 package com.dburyak.vertx.gcp.pubsub;
 
-import com.dburyak.vertx.core.executor.VertxCtxMinimalStrictScheduledExecutorService;
+import com.dburyak.vertx.core.AsyncCloseable;
+import com.dburyak.vertx.core.executor.VertxCtxExecutorServiceRegistry;
 import com.dburyak.vertx.gcp.ProjectIdProvider;
 import com.dburyak.vertx.gcp.pubsub.config.PubSubProperties;
 import com.google.api.core.ApiFuture;
@@ -10,11 +11,11 @@ import com.google.cloud.pubsub.v1.Subscriber;
 import com.google.protobuf.ByteString;
 import com.google.pubsub.v1.PubsubMessage;
 import io.micronaut.context.annotation.Requires;
+import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.exceptions.CompositeException;
-import io.vertx.rxjava3.core.Vertx;
-import jakarta.annotation.PreDestroy;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,6 +25,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
@@ -38,12 +40,12 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Singleton
 @Requires(missingBeans = PubSub.class)
 @Slf4j
-public class PubSubImpl implements PubSub {
+public class PubSubImpl implements PubSub, AsyncCloseable {
 
-    private final Vertx vertx;
     private final PubSubProperties cfg;
     private final String projectId;
     private final PubSubUtil pubSubUtil;
+    private final VertxCtxExecutorServiceRegistry executorServiceRegistry;
 
     private final ConcurrentMap<String, Publisher> publishers = new ConcurrentHashMap<>();
     private final ConcurrentMap<Thread, ScheduledExecutorService> vertxCtxExecutors = new ConcurrentHashMap<>();
@@ -51,11 +53,12 @@ public class PubSubImpl implements PubSub {
     private final ConcurrentMap<String, String> canonicalTopics = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, String> canonicalSubscriptions = new ConcurrentHashMap<>();
 
-    public PubSubImpl(Vertx vertx, PubSubProperties cfg, ProjectIdProvider projectIdProvider, PubSubUtil pubSubUtil) {
-        this.vertx = vertx;
+    public PubSubImpl(PubSubProperties cfg, ProjectIdProvider projectIdProvider, PubSubUtil pubSubUtil,
+            VertxCtxExecutorServiceRegistry executorServiceRegistry) {
         this.cfg = cfg;
         this.projectId = projectIdProvider.getProjectId();
         this.pubSubUtil = pubSubUtil;
+        this.executorServiceRegistry = executorServiceRegistry;
     }
 
     @Override
@@ -119,7 +122,24 @@ public class PubSubImpl implements PubSub {
                 });
     }
 
-    @PreDestroy
+    /**
+     * Stop all subscribers and publishers. Is done before executor services of vertx contexts that they use are shut
+     * down by {@link VertxCtxExecutorServiceRegistry}, so in-flight messages are still delivered. Subscribers and
+     * publishers are stopped with blocking calls, so it is done on a blocking thread.
+     *
+     * @return completable that completes when all subscribers and publishers are stopped
+     */
+    @Override
+    public Completable closeAsync() {
+        return Completable.fromAction(this::destroy).subscribeOn(Schedulers.io());
+    }
+
+    @Override
+    public Optional<Duration> closeTimeout() {
+        return Optional.of(cfg.getSubscriberProperties().getShutdownTimeout()
+                .plus(cfg.getPublisherProperties().getShutdownTimeout()));
+    }
+
     public void destroy() {
         // TODO: parallelize waiting for shutdown
 
@@ -218,7 +238,7 @@ public class PubSubImpl implements PubSub {
 
     private ScheduledExecutorService currentVertxCtxExecutor() {
         return vertxCtxExecutors.computeIfAbsent(Thread.currentThread(),
-                t -> new VertxCtxMinimalStrictScheduledExecutorService(vertx));
+                t -> executorServiceRegistry.newScheduledExecutorService());
     }
 
     private String fqnTopic(String topic) {
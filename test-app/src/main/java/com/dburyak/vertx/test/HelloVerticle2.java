@@ -5,7 +5,6 @@ import io.micronaut.context.annotation.Bean;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.disposables.Disposable;
-import io.vertx.rxjava3.core.eventbus.EventBus;
 import io.vertx.rxjava3.core.eventbus.Message;
 import io.vertx.rxjava3.core.eventbus.MessageConsumer;
 import jakarta.inject.Inject;
@@ -18,10 +17,9 @@ import java.util.concurrent.TimeUnit;
 public class HelloVerticle2 extends AbstractDiVerticle {
     private SampleEventLoopBean sampleEventLoopBean;
     private SampleVerticleBean sampleVerticleBean;
-    private EventBus eventBus;
 
     private Disposable ticker;
-    private MessageConsumer echoMsgConsumer;
+    private MessageConsumer<Object> echoMsgConsumer;
 
     @Override
     public Completable startup() {
@@ -35,7 +33,7 @@ public class HelloVerticle2 extends AbstractDiVerticle {
                         sampleVerticleBean.hello();
                     })
                     .subscribe();
-            echoMsgConsumer = eventBus.consumer("com.dburyak.vertx.test.HelloVerticle2", this::echo);
+            echoMsgConsumer = consumer("com.dburyak.vertx.test.HelloVerticle2", this::echo);
             new Thread(() -> {
                 var bean = appCtx.getBean(SampleThreadLocalBean.class);
                 log.info("thread local bean injected: bean={}", bean);
@@ -62,11 +60,6 @@ public class HelloVerticle2 extends AbstractDiVerticle {
         this.sampleVerticleBean = sampleVerticleBean;
     }
 
-    @Inject
-    public void setEventBus(EventBus eventBus) {
-        this.eventBus = eventBus;
-    }
-
     private void echo(Message<Object> msg) {
         log.info("got echo message: {}", msg.body());
     }
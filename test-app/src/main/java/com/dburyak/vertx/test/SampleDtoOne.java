@@ -1,5 +1,7 @@
 package com.dburyak.vertx.test;
 
+import com.dburyak.vertx.eventbus.EventBusMessage;
+import com.dburyak.vertx.eventbus.kryo.LocalAwareKryoUnsafeMessageCodec;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,6 +9,7 @@ import lombok.Data;
 @Data
 @AllArgsConstructor
 @Builder(toBuilder = true)
+@EventBusMessage(codec = LocalAwareKryoUnsafeMessageCodec.class)
 public class SampleDtoOne {
     private String strValue;
     private int intValue;
@@ -0,0 +1,39 @@
+package com.dburyak.vertx.benchmarks;
+
+import io.vertx.rxjava3.core.Context;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs batches of benchmarked operations on vertx context. Many of the tools are bound to vertx threads (scopes, kryo
+ * instances, etc.), so the measured operations can't run on JMH threads directly. Operations are submitted in big
+ * batches, so the cost of a single hop to the vertx thread is negligible compared to the measured work. Benchmarks are
+ * expected to declare {@link org.openjdk.jmh.annotations.OperationsPerInvocation} equal to the batch size.
+ */
+public final class OnVertxContext {
+
+    private OnVertxContext() {
+    }
+
+    /**
+     * Run batch on the vertx context and wait for the result on the calling (JMH) thread.
+     *
+     * @param vertxCtx vertx context to run the batch on
+     * @param batch batch of operations
+     * @param <T> result type
+     *
+     * @return result of the batch, should be consumed by JMH blackhole
+     */
+    public static <T> T run(Context vertxCtx, Supplier<T> batch) {
+        var result = new CompletableFuture<T>();
+        vertxCtx.runOnContext(ignr -> {
+            try {
+                result.complete(batch.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result.join();
+    }
+}
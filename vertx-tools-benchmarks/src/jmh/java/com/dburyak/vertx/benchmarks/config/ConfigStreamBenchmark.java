@@ -0,0 +1,123 @@
+package com.dburyak.vertx.benchmarks.config;
+
+import com.dburyak.vertx.config.ConfigService;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.vertx.config.ConfigChange;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.rxjava3.config.ConfigRetriever;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Filtering of config changes by {@link ConfigService#streamForPrefixes(Set)} over large flat configs. Config changes
+ * are pushed synchronously through a stub config retriever, so only the filtering work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class ConfigStreamBenchmark {
+    private static final Set<String> PREFIXES = Set.of("app.db.", "app.http.", "app.cache.", "vertx.event-bus.",
+            "gcp.pubsub.");
+
+    @Param({"100", "10000"})
+    private int numKeys;
+
+    @Param({"true", "false"})
+    private boolean changeMatchesPrefix;
+
+    private StubConfigRetriever retriever;
+    private ConfigService configService;
+    private Disposable subscription;
+    private ConfigChange change;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        var prev = new JsonObject();
+        for (var i = 0; i < numKeys; i++) {
+            prev.put("app.generic.option-" + i, "value-" + i);
+        }
+        PREFIXES.forEach(prefix -> prev.put(prefix + "option", "value"));
+        var next = prev.copy();
+        if (changeMatchesPrefix) {
+            next.put("app.cache.option", "updated");
+        } else {
+            next.put("app.generic.option-0", "updated");
+        }
+        change = new ConfigChange(prev, next);
+        retriever = new StubConfigRetriever(prev);
+        configService = new ConfigService(ConfigRetriever.newInstance(retriever));
+        subscription = configService.streamForPrefixes(PREFIXES).subscribe(bh::consume);
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscription.dispose();
+        configService.close();
+    }
+
+    @Benchmark
+    public void streamForPrefixes() {
+        retriever.listener.handle(change);
+    }
+
+    private static final class StubConfigRetriever implements io.vertx.config.ConfigRetriever {
+        private final JsonObject config;
+        private volatile Handler<ConfigChange> listener;
+
+        private StubConfigRetriever(JsonObject config) {
+            this.config = config;
+        }
+
+        @Override
+        public Future<JsonObject> getConfig() {
+            return Future.succeededFuture(config);
+        }
+
+        @Override
+        public Future<Void> close() {
+            return Future.succeededFuture();
+        }
+
+        @Override
+        public JsonObject getCachedConfig() {
+            return config;
+        }
+
+        @Override
+        public void listen(Handler<ConfigChange> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public io.vertx.config.ConfigRetriever setBeforeScanHandler(Handler<Void> handler) {
+            return this;
+        }
+
+        @Override
+        public io.vertx.config.ConfigRetriever setConfigurationProcessor(
+                Function<JsonObject, JsonObject> processor) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> configStream() {
+            throw new UnsupportedOperationException("not supported by stub");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.dburyak.vertx.benchmarks.di;
+
+import com.dburyak.vertx.benchmarks.OnVertxContext;
+import com.dburyak.vertx.core.di.EventLoopScopeImpl;
+import com.dburyak.vertx.core.di.ThreadLocalScopeImpl;
+import com.dburyak.vertx.core.di.VerticleScopeImpl;
+import com.dburyak.vertx.core.di.VertxThreadScopeImpl;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.scope.AbstractConcurrentCustomScope;
+import io.micronaut.context.scope.BeanCreationContext;
+import io.micronaut.context.scope.CreatedBean;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.inject.BeanIdentifier;
+import io.vertx.rxjava3.core.AbstractVerticle;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Resolution of already created beans in vertx tools DI scopes. This is what happens on every scoped bean lookup in
+ * message handlers, so it's measured on the vertx thread the scope is bound to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class ScopeBeanResolutionBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"vertx-thread", "event-loop", "verticle", "thread-local"})
+    private String scope;
+
+    @Param({"1", "32"})
+    private int numBeans;
+
+    private ApplicationContext appCtx;
+    private Context vertxCtx;
+    private AbstractConcurrentCustomScope<?> scopeImpl;
+    private BeanCreationContext<?>[] beans;
+
+    @Setup
+    public void setup() {
+        appCtx = ApplicationContext.run();
+        var vertx = appCtx.getBean(Vertx.class);
+        scopeImpl = switch (scope) {
+            case "vertx-thread" -> appCtx.getBean(VertxThreadScopeImpl.class);
+            case "event-loop" -> appCtx.getBean(EventLoopScopeImpl.class);
+            case "verticle" -> appCtx.getBean(VerticleScopeImpl.class);
+            case "thread-local" -> appCtx.getBean(ThreadLocalScopeImpl.class);
+            default -> throw new IllegalArgumentException("unknown scope: " + scope);
+        };
+        vertxCtx = scope.equals("verticle") ? deployedVerticleCtx(vertx) : vertx.getOrCreateContext();
+        beans = new BeanCreationContext<?>[numBeans];
+        for (var i = 0; i < numBeans; i++) {
+            beans[i] = new BenchBeanCreationContext("bench-bean-" + i);
+        }
+        // create all the beans upfront, only resolution of existing beans is measured
+        OnVertxContext.run(vertxCtx, this::resolveBatch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        appCtx.getBean(Vertx.class).rxClose().blockingAwait();
+        appCtx.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object resolve() {
+        return OnVertxContext.run(vertxCtx, this::resolveBatch);
+    }
+
+    private Object resolveBatch() {
+        Object last = null;
+        var numBeansRef = beans.length;
+        for (var i = 0; i < BATCH_SIZE; i++) {
+            last = scopeImpl.getOrCreate(beans[i % numBeansRef]);
+        }
+        return last;
+    }
+
+    private static Context deployedVerticleCtx(Vertx vertx) {
+        var ctxRef = new AtomicReference<Context>();
+        vertx.rxDeployVerticle(new AbstractVerticle() {
+                    @Override
+                    public void start() {
+                        ctxRef.set(Vertx.currentContext());
+                    }
+                })
+                .blockingGet();
+        return ctxRef.get();
+    }
+
+    private record BenchBeanCreationContext(BeanIdentifier id) implements BeanCreationContext<Object> {
+
+        BenchBeanCreationContext(String id) {
+            this(BeanIdentifier.of(id));
+        }
+
+        @Override
+        public BeanDefinition<Object> definition() {
+            return null;
+        }
+
+        @Override
+        public CreatedBean<Object> create() {
+            var bean = new Object();
+            return new CreatedBean<>() {
+                @Override
+                public BeanDefinition<Object> definition() {
+                    return null;
+                }
+
+                @Override
+                public Object bean() {
+                    return bean;
+                }
+
+                @Override
+                public BeanIdentifier id() {
+                    return id;
+                }
+
+                @Override
+                public void close() {
+                    // nothing to close
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dburyak.vertx.benchmarks.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typical event bus message DTO: mutable POJO with copy-constructor, as expected by copying codecs.
+ */
+public class BenchmarkDto {
+    private String id;
+    private long timestamp;
+    private int counter;
+    private String payload;
+    private List<String> tags;
+
+    public BenchmarkDto() {
+    }
+
+    public BenchmarkDto(BenchmarkDto from) {
+        this.id = from.id;
+        this.timestamp = from.timestamp;
+        this.counter = from.counter;
+        this.payload = from.payload;
+        this.tags = from.tags != null ? new ArrayList<>(from.tags) : null;
+    }
+
+    public static BenchmarkDto of(int payloadSize) {
+        var dto = new BenchmarkDto();
+        dto.setId("a8098c1a-f86e-11da-bd1a-00112444be1e");
+        dto.setTimestamp(1_700_000_000_000L);
+        dto.setCounter(42);
+        dto.setPayload("x".repeat(payloadSize));
+        dto.setTags(List.of("tag-one", "tag-two", "tag-three"));
+        return dto;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getCounter() {
+        return counter;
+    }
+
+    public void setCounter(int counter) {
+        this.counter = counter;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
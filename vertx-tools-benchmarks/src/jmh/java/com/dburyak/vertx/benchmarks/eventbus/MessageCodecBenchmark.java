@@ -0,0 +1,119 @@
+package com.dburyak.vertx.benchmarks.eventbus;
+
+import com.dburyak.vertx.benchmarks.OnVertxContext;
+import com.dburyak.vertx.eventbus.LocalAwareJsonCopyingMessageCodec;
+import com.dburyak.vertx.eventbus.LocalAwareJsonUnsafeMessageCodec;
+import com.dburyak.vertx.eventbus.LocalAwareJsonUnsafeVisibleMessageCodec;
+import com.dburyak.vertx.eventbus.UnsafeMessage;
+import com.dburyak.vertx.eventbus.kryo.LocalAwareKryoCopyingMessageCodec;
+import com.dburyak.vertx.eventbus.kryo.LocalAwareKryoUnsafeMessageCodec;
+import com.dburyak.vertx.eventbus.kryo.LocalAwareKryoUnsafeVisibleMessageCodec;
+import io.micronaut.context.ApplicationContext;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Throughput of event bus message codecs: encoding to wire and decoding from wire (clustered delivery), and
+ * transformation (local delivery). Measured on event loop, as this is where codecs are invoked by vertx.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+public class MessageCodecBenchmark {
+    private static final int BATCH_SIZE = 1_000;
+    private static final Map<String, Class<?>> CODECS = Map.of(
+            "json-copying", LocalAwareJsonCopyingMessageCodec.class,
+            "json-unsafe", LocalAwareJsonUnsafeMessageCodec.class,
+            "json-unsafe-visible", LocalAwareJsonUnsafeVisibleMessageCodec.class,
+            "kryo-copying", LocalAwareKryoCopyingMessageCodec.class,
+            "kryo-unsafe", LocalAwareKryoUnsafeMessageCodec.class,
+            "kryo-unsafe-visible", LocalAwareKryoUnsafeVisibleMessageCodec.class
+    );
+
+    @Param({"json-copying", "json-unsafe", "json-unsafe-visible", "kryo-copying", "kryo-unsafe",
+            "kryo-unsafe-visible"})
+    private String codecName;
+
+    @Param({"64", "65536"})
+    private int payloadSize;
+
+    private ApplicationContext appCtx;
+    private Context vertxCtx;
+    private MessageCodec<Object, Object> codec;
+    private Object msg;
+    private Buffer encoded;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        appCtx = ApplicationContext.run();
+        vertxCtx = appCtx.getBean(Vertx.class).getOrCreateContext();
+        codec = (MessageCodec<Object, Object>) appCtx.getBean(CODECS.get(codecName));
+        var dto = BenchmarkDto.of(payloadSize);
+        msg = codecName.endsWith("-visible") ? UnsafeMessage.of(dto) : dto;
+        encoded = OnVertxContext.run(vertxCtx, () -> {
+            var buffer = Buffer.buffer();
+            codec.encodeToWire(buffer, msg);
+            return buffer;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        appCtx.getBean(Vertx.class).rxClose().blockingAwait();
+        appCtx.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object encode() {
+        return OnVertxContext.run(vertxCtx, () -> {
+            Buffer buffer = null;
+            for (var i = 0; i < BATCH_SIZE; i++) {
+                buffer = Buffer.buffer();
+                codec.encodeToWire(buffer, msg);
+            }
+            return buffer;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object decode() {
+        return OnVertxContext.run(vertxCtx, () -> {
+            Object decoded = null;
+            for (var i = 0; i < BATCH_SIZE; i++) {
+                decoded = codec.decodeFromWire(0, encoded);
+            }
+            return decoded;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object transform() {
+        return OnVertxContext.run(vertxCtx, () -> {
+            Object transformed = null;
+            for (var i = 0; i < BATCH_SIZE; i++) {
+                transformed = codec.transform(msg);
+            }
+            return transformed;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.dburyak.vertx.benchmarks.executor;
+
+import com.dburyak.vertx.core.executor.VertxCtxBatchingExecutor;
+import com.dburyak.vertx.core.executor.VertxCtxExecutor;
+import io.vertx.rxjava3.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Latency of a hop from a foreign (non-vertx) thread to vertx context and back, as it happens for callbacks of 3rd
+ * party async clients (gRPC, Pub/Sub, etc.) dispatched to vertx context. Burst benchmark measures dispatching of many
+ * callbacks that arrive at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(MICROSECONDS)
+public class VertxCtxExecutorBenchmark {
+    private static final int BURST_SIZE = 64;
+
+    @Param({"plain", "batching"})
+    private String executorType;
+
+    private Vertx vertx;
+    private Executor executor;
+
+    @Setup
+    public void setup() {
+        vertx = Vertx.vertx();
+        executor = switch (executorType) {
+            case "plain" -> new VertxCtxExecutor(vertx);
+            case "batching" -> new VertxCtxBatchingExecutor(vertx);
+            default -> throw new IllegalArgumentException("unknown executor type: " + executorType);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.rxClose().blockingAwait();
+    }
+
+    @Benchmark
+    public Object hop() {
+        var done = new CompletableFuture<Thread>();
+        executor.execute(() -> done.complete(Thread.currentThread()));
+        return done.join();
+    }
+
+    @Benchmark
+    public Object burst() throws InterruptedException {
+        var done = new CountDownLatch(BURST_SIZE);
+        for (var i = 0; i < BURST_SIZE; i++) {
+            executor.execute(done::countDown);
+        }
+        done.await();
+        return done;
+    }
+}
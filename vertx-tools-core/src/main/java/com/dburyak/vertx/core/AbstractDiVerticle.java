@@ -1,17 +1,30 @@
 package com.dburyak.vertx.core;
 
+import com.dburyak.vertx.core.config.VertxDiAppProperties;
 import com.dburyak.vertx.core.di.VerticleBeanBaseClass;
 import com.dburyak.vertx.core.di.VerticleScopeImpl;
-import com.dburyak.vertx.core.di.VerticleStartup;
 import io.micronaut.context.ApplicationContext;
-import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.inject.BeanDefinition;
 import io.reactivex.rxjava3.core.Completable;
-import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.Observable;
 import io.vertx.core.Context;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.rxjava3.core.AbstractVerticle;
+import io.vertx.rxjava3.core.RxHelper;
+import io.vertx.rxjava3.core.eventbus.Message;
+import io.vertx.rxjava3.core.eventbus.MessageConsumer;
+import io.vertx.rxjava3.core.http.HttpServer;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Verticle base class with DI support.
@@ -40,16 +53,20 @@ import lombok.Setter;
  * <p>
  * DiVerticle deployment happens in five phases:
  * <ul>
- *     <li>verticle instantiation with default constructor on the calling thread
- *     <li>deployment initial phase on the calling thread
+ *     <li>verticle instantiation with default constructor on vertx worker thread, instances of all verticles are
+ *     created concurrently
+ *     <li>deployment initial phase on vertx worker thread
  *     <li>dependency injection on the vertx event loop thread as part of Verticle.init(Vertx, Context) call
  *     <li>verticle initialization routine on the vertx event loop thread
  *     <li>verticle startup routine on the vertx event loop thread
  * </ul>
- * Thus, all implementations must provide default constructor for the first phase.
+ * Thus, all implementations must provide public default constructor for the first phase.
+ * <p>
+ * Verticles deployed on virtual threads (see {@link VerticleDeploymentDescriptor#onVirtualThreads(Class, int)}) go
+ * through the same phases, with event loop thread phases executed on virtual threads of the verticle context instead.
  * <p>
  * Dependency injection through constructor arguments is not possible due to vertx internal design - it creates
- * verticle instance on the calling thread, not on the event loop context thread.
+ * verticle instance on a thread other than the event loop context thread.
  * Performing beans injection on vertx event loop thread allows to avoid visibility issues when using stateful
  * prototype-scoped, or event-loop-scoped, or verticle-scoped beans. This approach makes it possible to take advantage
  * of all the single-threaded threading model benefits without putting any effort in safe publishing of
@@ -57,6 +74,7 @@ import lombok.Setter;
  * injection can be safely used on any beans other than verticles.
  */
 @VerticleBeanBaseClass
+@Slf4j
 public abstract class AbstractDiVerticle extends AbstractVerticle {
 
     /**
@@ -64,9 +82,17 @@ public abstract class AbstractDiVerticle extends AbstractVerticle {
      */
     protected volatile ApplicationContext appCtx;
 
+    private volatile LifecycleReport startupReport;
+    private volatile List<BeanDefinition<Object>> startupBeanDefs = List.of();
+    private final InFlightTracker inFlight = new InFlightTracker();
+    private final List<MessageConsumer<?>> trackedConsumers = new ArrayList<>();
+    private final List<HttpServer> trackedServers = new ArrayList<>();
+    private volatile Completable drained;
+
     @Override
     public final void init(Vertx vertx, Context context) {
         super.init(vertx, context);
+        drained = doDrain().cache();
         // this call triggers DI on the vertx event loop thread assigned to this verticle
         appCtx.registerSingleton(this);
         doOnInit(vertx, context);
@@ -75,21 +101,15 @@ public abstract class AbstractDiVerticle extends AbstractVerticle {
     @Override
     public final Completable rxStart() {
         var thisVerticleClass = getClass();
-        return Single.fromCallable(() -> appCtx.getBeanDefinitions(Object.class,
-                        Qualifiers.byStereotype(VerticleStartup.class)))
-                .flatMapCompletable(allVerticleStartupBeans -> {
-                    var asyncVerticleStartupActions = allVerticleStartupBeans.stream()
-                            .filter(beanDef -> {
-                                var metadata = beanDef.getAnnotationMetadata();
-                                var requiredVerticleType = metadata.classValue(VerticleStartup.class, "value")
-                                        .orElse(Object.class);
-                                return requiredVerticleType.isAssignableFrom(thisVerticleClass);
-                            })
+        return Completable.defer(() -> {
+                    var asyncVerticleStartupActions = startupBeanDefs.stream()
                             // this triggers synchronous initialization of the bean
-                            .map(beanDef -> appCtx.getBean(beanDef.getBeanType()))
+                            .map(beanDef -> appCtx.getBean(beanDef))
                             .filter(AsyncInitializable.class::isInstance)
                             .map(AsyncInitializable.class::cast)
-                            .map(AsyncInitializable::initAsync)
+                            .map(bean -> startupReport.recordAsync(LifecycleReport.VERTICLE_STARTUP_BEAN_INIT,
+                                    bean.getClass().getName() + "@" + thisVerticleClass.getName(),
+                                    bean::initAsync))
                             .toList();
                     return Completable.merge(asyncVerticleStartupActions);
                 })
@@ -109,7 +129,7 @@ public abstract class AbstractDiVerticle extends AbstractVerticle {
 
     @Override
     public final Completable rxStop() {
-        return shutdown().andThen(Completable.defer(() -> {
+        return drain().andThen(shutdown()).andThen(Completable.defer(() -> {
             var verticleScopeImpl = appCtx.getBean(VerticleScopeImpl.class);
             return verticleScopeImpl.destroyScopeForThisVerticle();
         }));
@@ -137,15 +157,66 @@ public abstract class AbstractDiVerticle extends AbstractVerticle {
     }
 
     /**
-     * Subclasses can define verticle shutdown logic in this method. Is invoked as the very first step of verticle
-     * shutdown routine, if we only undeploy some verticle(s). And therefore as the very first step of the application
-     * shutdown routine if we are shutting down the whole application.
+     * Subclasses can define verticle shutdown logic in this method. Is invoked right after the verticle is drained (see
+     * {@link #trackConsumer(MessageConsumer)}), as the first step of verticle shutdown routine.
      */
     protected Completable shutdown() {
         // subclasses can define shutdown logic in this method
         return Completable.complete();
     }
 
+    /**
+     * In-flight operations counter of this verticle. Verticle shutdown waits for in-flight operations to complete
+     * (up to {@link VertxDiAppProperties#getDrainTimeout()}) before calling {@link #shutdown()}.
+     *
+     * @return in-flight operations tracker
+     */
+    protected final InFlightTracker inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Register event bus consumer that is automatically tracked: every message handling is counted as in-flight
+     * operation, and consumer is unregistered when verticle is drained. Handler is tracked only until it returns, async
+     * handling should be tracked additionally with {@link #inFlight()}.
+     *
+     * @param address event bus address
+     * @param handler message handler
+     * @param <T> message body type
+     *
+     * @return registered consumer
+     */
+    protected final <T> MessageConsumer<T> consumer(String address, Handler<Message<T>> handler) {
+        return trackConsumer(vertx.eventBus().consumer(address, inFlight.wrap(handler)));
+    }
+
+    /**
+     * Track event bus consumer, so that it is unregistered when verticle is drained, before waiting for in-flight
+     * operations and calling {@link #shutdown()}. Must be called on the verticle context.
+     *
+     * @param consumer event bus consumer
+     * @param <T> message body type
+     *
+     * @return the same consumer
+     */
+    protected final <T> MessageConsumer<T> trackConsumer(MessageConsumer<T> consumer) {
+        trackedConsumers.add(consumer);
+        return consumer;
+    }
+
+    /**
+     * Track HTTP server, so that it stops accepting new connections and gracefully finishes in-flight requests when
+     * verticle is drained, before calling {@link #shutdown()}. Must be called on the verticle context.
+     *
+     * @param server HTTP server
+     *
+     * @return the same server
+     */
+    protected final HttpServer trackServer(HttpServer server) {
+        trackedServers.add(server);
+        return server;
+    }
+
     /**
      * Subclasses can extend verticle initialization behavior with this method.
      *
@@ -156,6 +227,44 @@ public abstract class AbstractDiVerticle extends AbstractVerticle {
         // subclasses can extend verticle initialization behavior with this method
     }
 
+    /**
+     * Drain the verticle: unregister tracked consumers, shut down tracked HTTP servers and wait for in-flight
+     * operations to complete. Is limited by {@link VertxDiAppProperties#getDrainTimeout()}, in-flight operations are
+     * abandoned on timeout. Is called by {@link VertxDiApp} for all the verticles before undeploying any of them,
+     * and as the first step of verticle stop. Verticle is drained only once, repeated calls return the same result.
+     *
+     * @return completable that completes when verticle is drained or drain deadline is reached, never fails
+     */
+    Completable drain() {
+        return drained;
+    }
+
+    private Completable doDrain() {
+        var verticleCtx = io.vertx.rxjava3.core.Context.newInstance(context);
+        return Completable.defer(() -> {
+                    var drainTimeout = appCtx.getBean(VertxDiAppProperties.class).getDrainTimeout();
+                    var startedAt = System.nanoTime();
+                    var consumers = List.copyOf(trackedConsumers);
+                    var servers = List.copyOf(trackedServers);
+                    trackedConsumers.clear();
+                    trackedServers.clear();
+                    return Observable.fromIterable(consumers)
+                            .flatMapCompletable(MessageConsumer::rxUnregister)
+                            .mergeWith(Observable.fromIterable(servers)
+                                    .flatMapCompletable(s -> s.rxShutdown(drainTimeout.toMillis(), MILLISECONDS)))
+                            .andThen(inFlight.awaitIdle())
+                            .timeout(drainTimeout.toNanos(), NANOSECONDS, RxHelper.scheduler(verticleCtx),
+                                    Completable.fromRunnable(() -> log.warn("verticle drain timed out, abandoning "
+                                                    + "in-flight operations: verticle={}, inFlight={}, timeout={}",
+                                            this, inFlight.getCount(), drainTimeout)))
+                            .doOnError(e -> log.error("failed to drain verticle: verticle={}", this, e))
+                            .onErrorComplete()
+                            .doOnComplete(() -> log.debug("verticle drained: verticle={}, time={}", this,
+                                    Duration.ofNanos(System.nanoTime() - startedAt)));
+                })
+                .subscribeOn(RxHelper.scheduler(verticleCtx));
+    }
+
     // package private setter called by VertxDiApp, not supposed to be used for any other purposes
     void setVertx(io.vertx.rxjava3.core.Vertx vertx) {
         this.vertx = vertx;
@@ -165,4 +274,14 @@ public abstract class AbstractDiVerticle extends AbstractVerticle {
     void setAppCtx(ApplicationContext appCtx) {
         this.appCtx = appCtx;
     }
+
+    // package private setter called by VertxDiApp, not supposed to be used for any other purposes
+    void setStartupBeanDefs(List<BeanDefinition<Object>> startupBeanDefs) {
+        this.startupBeanDefs = startupBeanDefs;
+    }
+
+    // package private setter called by VertxDiApp, not supposed to be used for any other purposes
+    void setStartupReport(LifecycleReport startupReport) {
+        this.startupReport = startupReport;
+    }
 }
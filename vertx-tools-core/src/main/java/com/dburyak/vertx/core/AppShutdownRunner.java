@@ -0,0 +1,194 @@
+package com.dburyak.vertx.core;
+
+import com.dburyak.vertx.core.config.VertxDiAppProperties;
+import com.dburyak.vertx.core.di.AsyncStoppableScope;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.BeanRegistration;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Closes vertx thread bean scopes and {@link AsyncCloseable} singletons on application shutdown.
+ * <p>
+ * Scopes are closed first, since thread scoped beans are the consumers of singletons. Then singletons are closed in
+ * reverse dependency order: bean is closed only after all the other async closeable singletons that directly depend
+ * on it are closed. Independent beans are closed concurrently up to configured concurrency limit, beans that wait for
+ * their dependents to be closed don't count towards the limit.
+ * <p>
+ * Every bean must be closed within its own deadline (time spent waiting for dependents or for a free slot is not
+ * included), and all the beans must be closed within the global deadline.
+ * Beans that fail or time out are logged and recorded in the shutdown report, but do not stop the shutdown, so that
+ * a single hung bean can not prevent the application from stopping.
+ */
+@Slf4j
+class AppShutdownRunner {
+    private final ApplicationContext appCtx;
+    private final VertxDiAppProperties appProps;
+    private final Scheduler scheduler;
+    private final LifecycleReport report;
+
+    /**
+     * Constructor.
+     *
+     * @param appCtx application context
+     * @param appProps application properties
+     * @param scheduler scheduler to run timeouts on
+     * @param report shutdown report to record beans closing in
+     */
+    AppShutdownRunner(ApplicationContext appCtx, VertxDiAppProperties appProps, Scheduler scheduler,
+            LifecycleReport report) {
+        this.appCtx = appCtx;
+        this.appProps = appProps;
+        this.scheduler = scheduler;
+        this.report = report;
+    }
+
+    /**
+     * Close all the vertx thread bean scopes and async closeable singletons.
+     *
+     * @return completable that completes when all the beans are closed or abandoned, never fails
+     */
+    Completable run() {
+        return Completable.defer(() -> {
+            var nodes = createNodes(new ConcurrencyLimiter(appProps.getCloseConcurrency()));
+            var closeTimeout = appProps.getCloseTimeout();
+            return Completable.merge(nodes.stream().map(n -> n.completion).toList())
+                    .timeout(closeTimeout.toNanos(), TimeUnit.NANOSECONDS, scheduler, Completable.fromRunnable(() -> {
+                        var abandoned = nodes.stream().filter(n -> !n.done).toList();
+                        for (var node : abandoned) {
+                            if (node.startedAt != 0L) {
+                                report.recordTimeout(node.phase, node.name, node.startedAt);
+                            }
+                        }
+                        log.warn("beans were not closed in time, abandoning: timeout={}, beans={}", closeTimeout,
+                                abandoned.stream().map(n -> n.name).toList());
+                    }))
+                    .doOnComplete(() -> {
+                        var timedOut = report.getTimedOutPhases();
+                        if (!timedOut.isEmpty()) {
+                            log.warn("beans closed with timeouts: timedOut={}",
+                                    timedOut.stream().map(LifecycleReport.Phase::target).toList());
+                        }
+                    });
+        });
+    }
+
+    private List<Node> createNodes(ConcurrencyLimiter limiter) {
+        var nodes = new ArrayList<Node>();
+        var scopeNodes = new ArrayList<Node>();
+        for (var scope : appCtx.getBeansOfType(AsyncStoppableScope.class)) {
+            var node = new Node(LifecycleReport.SCOPE_STOP, scope.getClass().getName(), scope.getClass(),
+                    scope::stopAsync, appProps.getBeanCloseTimeout());
+            scopeNodes.add(node);
+            nodes.add(node);
+        }
+        var beanNodes = new ArrayList<Node>();
+        var requiredTypes = new ArrayList<Iterable<Class<?>>>();
+        for (BeanRegistration<AsyncCloseable> reg : appCtx.getActiveBeanRegistrations(AsyncCloseable.class)) {
+            var bean = reg.getBean();
+            var node = new Node(LifecycleReport.BEAN_CLOSE, reg.getBeanDefinition().getBeanType().getName(),
+                    reg.getBeanDefinition().getBeanType(), bean::closeAsync,
+                    bean.closeTimeout().orElse(appProps.getBeanCloseTimeout()));
+            node.closedBefore.addAll(scopeNodes);
+            beanNodes.add(node);
+            requiredTypes.add(reg.getBeanDefinition().getRequiredComponents());
+            nodes.add(node);
+        }
+        // bean is closed only after all the beans that depend on it
+        for (var i = 0; i < beanNodes.size(); i++) {
+            var consumer = beanNodes.get(i);
+            for (var requiredType : requiredTypes.get(i)) {
+                for (var producer : beanNodes) {
+                    if (producer != consumer && requiredType.isAssignableFrom(producer.type)) {
+                        producer.closedBefore.add(consumer);
+                    }
+                }
+            }
+        }
+        for (var node : nodes) {
+            computeLevel(node, new LinkedHashSet<>());
+        }
+        nodes.sort(Comparator.comparingInt(n -> n.level));
+        for (var node : nodes) {
+            node.completion = Completable.merge(node.closedBefore.stream().map(n -> n.completion).toList())
+                    .andThen(close(node, limiter))
+                    .cache();
+        }
+        return nodes;
+    }
+
+    private int computeLevel(Node node, Set<Node> path) {
+        if (node.level >= 0) {
+            return node.level;
+        }
+        path.add(node);
+        var level = 0;
+        for (var before : List.copyOf(node.closedBefore)) {
+            if (path.contains(before)) {
+                // shutdown must proceed anyway, so cyclic dependency is broken instead of failing
+                log.warn("cyclic async closeable beans dependency, ignoring: bean={}, dependent={}", node.name,
+                        before.name);
+                node.closedBefore.remove(before);
+                continue;
+            }
+            level = Math.max(level, computeLevel(before, path) + 1);
+        }
+        path.remove(node);
+        node.level = level;
+        return level;
+    }
+
+    private Completable close(Node node, ConcurrencyLimiter limiter) {
+        return limiter.run(() -> Completable.defer(() -> {
+                            node.startedAt = System.nanoTime();
+                            log.debug("closing bean: bean={}", node.name);
+                            return node.action.get();
+                        })
+                        .doOnComplete(() -> {
+                            report.record(node.phase, node.name, node.startedAt);
+                            log.debug("bean closed: bean={}, time={}", node.name,
+                                    Duration.ofNanos(System.nanoTime() - node.startedAt));
+                        })
+                        .timeout(node.timeout.toNanos(), TimeUnit.NANOSECONDS, scheduler,
+                                Completable.fromRunnable(() -> {
+                                    report.recordTimeout(node.phase, node.name, node.startedAt);
+                                    log.warn("bean was not closed in time, abandoning: bean={}, timeout={}",
+                                            node.name, node.timeout);
+                                })))
+                .doOnError(e -> log.error("failed to close bean: bean={}", node.name, e))
+                .onErrorComplete()
+                .doOnComplete(() -> node.done = true);
+    }
+
+    private static final class Node {
+        private final String phase;
+        private final String name;
+        private final Class<?> type;
+        private final Supplier<Completable> action;
+        private final Duration timeout;
+        private final Set<Node> closedBefore = new HashSet<>();
+        private int level = -1;
+        private Completable completion;
+        private volatile long startedAt;
+        private volatile boolean done;
+
+        private Node(String phase, String name, Class<?> type, Supplier<Completable> action, Duration timeout) {
+            this.phase = phase;
+            this.name = name;
+            this.type = type;
+            this.action = action;
+            this.timeout = timeout;
+        }
+    }
+}
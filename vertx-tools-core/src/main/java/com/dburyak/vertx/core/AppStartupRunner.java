@@ -0,0 +1,187 @@
+package com.dburyak.vertx.core;
+
+import com.dburyak.vertx.core.config.VertxDiAppProperties;
+import com.dburyak.vertx.core.di.AppStartup;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.BeanDefinition;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs async initialization of {@link AppStartup} beans in the order of their declared dependencies.
+ * <p>
+ * All the beans are created synchronously first. Then each async action is started as soon as all of its dependencies
+ * are completed, independent actions run concurrently up to configured concurrency limit. Beans that wait for their
+ * dependencies don't count towards the limit. Each action must complete within its timeout, time spent waiting for
+ * dependencies or for a free slot is not included. When all the actions are completed, critical path (chain of
+ * dependencies that determined total startup time) is recorded in the startup report and logged.
+ */
+@Slf4j
+class AppStartupRunner {
+    private final ApplicationContext appCtx;
+    private final VertxDiAppProperties appProps;
+    private final Scheduler scheduler;
+    private final LifecycleReport report;
+
+    /**
+     * Constructor.
+     *
+     * @param appCtx application context
+     * @param appProps application properties
+     * @param scheduler scheduler to run async actions and timeouts on
+     * @param report startup report to record beans creation and initialization in
+     */
+    AppStartupRunner(ApplicationContext appCtx, VertxDiAppProperties appProps, Scheduler scheduler,
+            LifecycleReport report) {
+        this.appCtx = appCtx;
+        this.appProps = appProps;
+        this.scheduler = scheduler;
+        this.report = report;
+    }
+
+    /**
+     * Create and initialize all the {@link AppStartup} beans.
+     *
+     * @return completable that completes when all the beans are initialized
+     */
+    Completable run() {
+        return Completable.defer(() -> {
+            var nodes = createNodes(new ConcurrencyLimiter(appProps.getStartupConcurrency()));
+            var startedAt = System.nanoTime();
+            return Completable.merge(nodes.stream().map(n -> n.completion).toList())
+                    .doOnComplete(() -> reportCriticalPath(nodes, startedAt));
+        }).subscribeOn(scheduler);
+    }
+
+    private List<Node> createNodes(ConcurrencyLimiter limiter) {
+        var beanDefs = appCtx.getBeanDefinitions(Object.class, Qualifiers.byStereotype(AppStartup.class));
+        var nodes = new ArrayList<Node>(beanDefs.size());
+        for (var beanDef : beanDefs) {
+            var createStartedAt = System.nanoTime();
+            // this triggers synchronous initialization of the bean
+            var node = new Node(beanDef, appCtx.getBean(beanDef));
+            report.record(LifecycleReport.STARTUP_BEAN_CREATE, node.name, createStartedAt);
+            nodes.add(node);
+        }
+        for (var node : nodes) {
+            for (var depType : node.beanDef.getAnnotationMetadata().classValues(AppStartup.class, "dependsOn")) {
+                var deps = nodes.stream()
+                        .filter(n -> n != node && depType.isAssignableFrom(n.beanDef.getBeanType()))
+                        .toList();
+                if (deps.isEmpty()) {
+                    throw new IllegalArgumentException("startup bean dependency not found: bean=" + node.name
+                            + ", dependsOn=" + depType.getName());
+                }
+                node.deps.addAll(deps);
+            }
+        }
+        for (var node : nodes) {
+            computeLevel(node, new LinkedHashSet<>());
+        }
+        nodes.sort(Comparator.comparingInt(n -> n.level));
+        for (var node : nodes) {
+            node.completion = Completable.merge(node.deps.stream().map(d -> d.completion).toList())
+                    .andThen(initAsync(node, limiter))
+                    .cache();
+        }
+        return nodes;
+    }
+
+    private int computeLevel(Node node, Set<Node> path) {
+        if (node.level >= 0) {
+            return node.level;
+        }
+        if (!path.add(node)) {
+            var cycle = path.stream().map(n -> n.name).collect(Collectors.joining(" -> "));
+            throw new IllegalArgumentException("cyclic startup beans dependency: cycle=" + cycle + " -> " + node.name);
+        }
+        var level = 0;
+        for (var dep : node.deps) {
+            level = Math.max(level, computeLevel(dep, path) + 1);
+        }
+        path.remove(node);
+        node.level = level;
+        return level;
+    }
+
+    private Completable initAsync(Node node, ConcurrencyLimiter limiter) {
+        if (!(node.bean instanceof AsyncInitializable asyncBean)) {
+            return Completable.fromRunnable(() -> {
+                node.startedAt = System.nanoTime();
+                node.completedAt = node.startedAt;
+            });
+        }
+        var timeout = node.beanDef.getAnnotationMetadata().stringValue(AppStartup.class, "timeout")
+                .filter(t -> !t.isBlank())
+                .map(t -> appCtx.getConversionService().convertRequired(t, Duration.class))
+                .orElse(appProps.getStartupTimeout());
+        return limiter.run(() -> Completable.defer(() -> {
+                            node.startedAt = System.nanoTime();
+                            log.debug("init startup bean: bean={}", node.name);
+                            return asyncBean.initAsync();
+                        })
+                        .subscribeOn(scheduler)
+                        .timeout(timeout.toNanos(), TimeUnit.NANOSECONDS, scheduler, Completable.defer(() -> {
+                            report.recordTimeout(LifecycleReport.STARTUP_BEAN_INIT, node.name, node.startedAt);
+                            return Completable.error(new TimeoutException("startup bean init timed out: bean="
+                                    + node.name + ", timeout=" + timeout));
+                        })))
+                .doOnComplete(() -> {
+                    node.completedAt = System.nanoTime();
+                    node.phase = report.record(LifecycleReport.STARTUP_BEAN_INIT, node.name, node.startedAt);
+                    log.debug("startup bean initialized: bean={}, time={}", node.name,
+                            Duration.ofNanos(node.completedAt - node.startedAt));
+                })
+                .doOnError(e -> log.error("startup bean init failed: bean={}", node.name, e));
+    }
+
+    private void reportCriticalPath(List<Node> nodes, long startedAt) {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        var criticalPath = new ArrayList<Node>();
+        var last = nodes.stream().max(Comparator.comparingLong(n -> n.completedAt)).orElseThrow();
+        while (last != null) {
+            criticalPath.addFirst(last);
+            last = last.deps.stream().max(Comparator.comparingLong(n -> n.completedAt)).orElse(null);
+        }
+        report.setCriticalPath(criticalPath.stream().map(n -> n.phase).filter(Objects::nonNull).toList());
+        var criticalPathStr = criticalPath.stream()
+                .map(n -> n.name + "(" + Duration.ofNanos(n.completedAt - n.startedAt) + ")")
+                .collect(Collectors.joining(" -> "));
+        log.info("startup beans initialized: numBeans={}, time={}, criticalPath={}", nodes.size(),
+                Duration.ofNanos(System.nanoTime() - startedAt), criticalPathStr);
+    }
+
+    private static final class Node {
+        private final BeanDefinition<Object> beanDef;
+        private final Object bean;
+        private final String name;
+        private final Set<Node> deps = new HashSet<>();
+        private int level = -1;
+        private Completable completion;
+        private volatile LifecycleReport.Phase phase;
+        private volatile long startedAt;
+        private volatile long completedAt;
+
+        private Node(BeanDefinition<Object> beanDef, Object bean) {
+            this.beanDef = beanDef;
+            this.bean = bean;
+            this.name = beanDef.getBeanType().getName();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.dburyak.vertx.core;
 
 import io.reactivex.rxjava3.core.Completable;
 
+import java.time.Duration;
+import java.util.Optional;
+
 /**
  * Object that can be closed asynchronously.
  * Async close happens before the synchronous destruction ({@link jakarta.annotation.PreDestroy} annotated methods) is
@@ -9,12 +12,14 @@ import io.reactivex.rxjava3.core.Completable;
  * <p>
  * Unlike {@link AsyncInitializable}, beans implementing this interface <b>WILL ALWAYS</b> be detected and handled
  * automatically by shutdown routine. Verticle-scoped beans will be closed when the verticle is undeployed, and all the
- * other beans will be closed on application shutdown. Async close will happen in parallel for all the beans
- * implementing this interface.
+ * other beans will be closed on application shutdown.
  * <p>
- * There is no any order guarantee of async closing between multiple beans. Beans dependencies are taken into
- * account only for synchronous destruction phase ({@link jakarta.annotation.PreDestroy} methods), but not for async
- * closing.
+ * On application shutdown, vertx thread scoped beans are closed first. Then singletons are closed concurrently in
+ * reverse dependency order: bean is closed only after all the other async closeable beans that directly depend on it
+ * (inject it) are closed, so consumers are closed before the producers they use. Each bean must be closed within its
+ * {@link #closeTimeout()}, and all the beans must be closed within
+ * {@link com.dburyak.vertx.core.config.VertxDiAppProperties#getCloseTimeout()}. Beans that fail or time out are
+ * reported and do not prevent application from stopping.
  */
 public interface AsyncCloseable {
 
@@ -27,4 +32,14 @@ public interface AsyncCloseable {
      * should capture the Vertx context upon creation and use it here during disposal.
      */
     Completable closeAsync();
+
+    /**
+     * Max duration of async close of this instance on application shutdown. If empty,
+     * {@link com.dburyak.vertx.core.config.VertxDiAppProperties#getBeanCloseTimeout()} is used.
+     *
+     * @return async close timeout
+     */
+    default Optional<Duration> closeTimeout() {
+        return Optional.empty();
+    }
 }
@@ -8,10 +8,10 @@ import io.reactivex.rxjava3.core.Completable;
  * (constructors and {@link jakarta.annotation.PostConstruct} annotated methods) is completed, but BEFORE
  * the bean can be used by verticles (before calling verticle startup method).
  * <p>
- * There is no any order guarantee of async initialization between multiple beans. Beans dependencies are taken into
- * account only for synchronous initialization phase (constructors and {@link jakarta.annotation.PostConstruct}
- * methods), but not for async initialization. Async init will happen in parallel for all the beans implementing
- * this interface.
+ * Beans dependencies are taken into account only for synchronous initialization phase (constructors and
+ * {@link jakarta.annotation.PostConstruct} methods), but not for async initialization. Async init will happen in
+ * parallel for all the beans implementing this interface, unless order is declared explicitly with
+ * {@link com.dburyak.vertx.core.di.AppStartup#dependsOn()} for {@link com.dburyak.vertx.core.di.AppStartup} beans.
  * <p>
  * Beans implementing this interface will <b>NOT</b> be detected by DI container automatically when creating
  * <b>lazy</b> (default) beans.
@@ -0,0 +1,72 @@
+package com.dburyak.vertx.core;
+
+import io.reactivex.rxjava3.core.Completable;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Supplier;
+
+/**
+ * Limits number of async actions that run at the same time. Actions over the limit wait in FIFO order and are started
+ * as soon as running ones terminate. Unlike {@code flatMapCompletable} with max concurrency, action occupies a slot
+ * only while it runs, so completables that wait for something else before starting the action (e.g. for dependencies)
+ * don't hold slots.
+ */
+final class ConcurrencyLimiter {
+    private final int limit;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int running;
+
+    /**
+     * Constructor.
+     *
+     * @param limit max number of actions running at the same time
+     */
+    ConcurrencyLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Run action when a slot is available. Slot is released when action terminates or when returned completable is
+     * disposed (e.g. on timeout).
+     *
+     * @param action async action
+     *
+     * @return completable that terminates with the action
+     */
+    Completable run(Supplier<Completable> action) {
+        return Completable.create(emitter -> acquire(() -> {
+            if (emitter.isDisposed()) {
+                release();
+                return;
+            }
+            emitter.setDisposable(Completable.defer(action::get)
+                    .doFinally(this::release)
+                    .subscribe(emitter::onComplete, emitter::tryOnError));
+        }));
+    }
+
+    private void acquire(Runnable start) {
+        synchronized (this) {
+            if (running >= limit) {
+                waiting.add(start);
+                return;
+            }
+            running++;
+        }
+        start.run();
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        // slot is passed to the next waiting action as is
+        next.run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.dburyak.vertx.core;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.subjects.CompletableSubject;
+import io.vertx.core.Handler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counter of in-flight operations (e.g. event bus messages or requests being handled) of a single verticle. Is used to
+ * wait for in-flight operations to complete before the verticle is stopped, see {@link AbstractDiVerticle}.
+ * <p>
+ * Synchronous handlers can be wrapped with {@link #wrap(Handler)}. Async operations can be tracked with
+ * {@code track(...)} methods, or with explicit {@link #begin()} and {@link #end()} calls.
+ */
+public class InFlightTracker {
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile CompletableSubject idle;
+
+    /**
+     * Mark start of in-flight operation. Must be followed by exactly one {@link #end()} call.
+     */
+    public void begin() {
+        count.incrementAndGet();
+    }
+
+    /**
+     * Mark end of in-flight operation started with {@link #begin()}.
+     */
+    public void end() {
+        if (count.decrementAndGet() == 0) {
+            var idleSubject = idle;
+            if (idleSubject != null) {
+                idleSubject.onComplete();
+            }
+        }
+    }
+
+    /**
+     * Number of operations currently in flight.
+     *
+     * @return number of in-flight operations
+     */
+    public int getCount() {
+        return count.get();
+    }
+
+    /**
+     * Wrap synchronous handler so that every its invocation is tracked as in-flight operation.
+     *
+     * @param handler handler to wrap
+     * @param <T> event type
+     *
+     * @return tracked handler
+     */
+    public <T> Handler<T> wrap(Handler<T> handler) {
+        return event -> {
+            begin();
+            try {
+                handler.handle(event);
+            } finally {
+                end();
+            }
+        };
+    }
+
+    /**
+     * Track async operation, it is in flight from subscription until it terminates or is disposed.
+     *
+     * @param operation async operation
+     *
+     * @return tracked operation
+     */
+    public Completable track(Completable operation) {
+        return Completable.defer(() -> {
+            begin();
+            return operation.doFinally(this::end);
+        });
+    }
+
+    /**
+     * Track async operation, it is in flight from subscription until it terminates or is disposed.
+     *
+     * @param operation async operation
+     * @param <T> result type
+     *
+     * @return tracked operation
+     */
+    public <T> Single<T> track(Single<T> operation) {
+        return Single.defer(() -> {
+            begin();
+            return operation.doFinally(this::end);
+        });
+    }
+
+    /**
+     * Track async operation, it is in flight from subscription until it terminates or is disposed.
+     *
+     * @param operation async operation
+     * @param <T> result type
+     *
+     * @return tracked operation
+     */
+    public <T> Maybe<T> track(Maybe<T> operation) {
+        return Maybe.defer(() -> {
+            begin();
+            return operation.doFinally(this::end);
+        });
+    }
+
+    /**
+     * Wait until there are no in-flight operations. Completes the first time the counter drops to zero after
+     * subscription: operations in flight at subscription are waited for, as well as operations started while any of
+     * them is still in flight, but operations started after the counter dropped to zero are not. New operations are not
+     * rejected, so sources of new operations (e.g. event bus consumers) should be stopped before calling this method.
+     *
+     * @return completable that completes when in-flight counter drops to zero
+     */
+    public Completable awaitIdle() {
+        return Completable.defer(() -> {
+            var idleSubject = CompletableSubject.create();
+            idle = idleSubject;
+            if (count.get() == 0) {
+                idleSubject.onComplete();
+            }
+            return idleSubject;
+        });
+    }
+}
@@ -0,0 +1,292 @@
+package com.dburyak.vertx.core;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.Nullable;
+import io.reactivex.rxjava3.core.Completable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Timeline of application startup or shutdown phases recorded by {@link VertxDiApp}. Every phase has a name (e.g.
+ * {@link #VERTICLE_DEPLOY}) and an optional target - bean or verticle class name the phase is related to. Same phase
+ * may be recorded many times for different targets, and even for the same target (e.g. for every verticle instance).
+ * <p>
+ * Phases are also recorded as micrometer timers {@link #STARTUP_METRIC} and {@link #SHUTDOWN_METRIC} with
+ * {@code phase}, {@code target} and {@code timedOut} tags, as soon as {@link MeterRegistry} bean becomes available.
+ * Phases that did not complete within their deadline are recorded as timed out, see {@link #getTimedOutPhases()}.
+ * <p>
+ * Report is thread safe, phases are appended as they complete.
+ */
+public class LifecycleReport {
+
+    /**
+     * Name of micrometer timer of startup phases.
+     */
+    public static final String STARTUP_METRIC = "vertx.app.startup";
+
+    /**
+     * Name of micrometer timer of shutdown phases.
+     */
+    public static final String SHUTDOWN_METRIC = "vertx.app.shutdown";
+
+    /**
+     * DI application context build and start.
+     */
+    public static final String APP_CTX_START = "app-ctx-start";
+
+    /**
+     * Creation of {@link com.dburyak.vertx.core.di.AppBootstrap} bean.
+     */
+    public static final String BOOTSTRAP_BEAN = "bootstrap-bean";
+
+    /**
+     * Synchronous creation of {@link com.dburyak.vertx.core.di.AppStartup} bean.
+     */
+    public static final String STARTUP_BEAN_CREATE = "startup-bean-create";
+
+    /**
+     * Async initialization of {@link com.dburyak.vertx.core.di.AppStartup} bean.
+     */
+    public static final String STARTUP_BEAN_INIT = "startup-bean-init";
+
+    /**
+     * All {@link com.dburyak.vertx.core.di.AppStartup} beans creation and initialization.
+     */
+    public static final String STARTUP_BEANS = "startup-beans";
+
+    /**
+     * Deployment of single verticle instance.
+     */
+    public static final String VERTICLE_DEPLOY = "verticle-deploy";
+
+    /**
+     * Async initialization of {@link com.dburyak.vertx.core.di.VerticleStartup} bean for single verticle instance.
+     * Target is {@code <bean class>@<verticle class>}.
+     */
+    public static final String VERTICLE_STARTUP_BEAN_INIT = "verticle-startup-bean-init";
+
+    /**
+     * Deployment of all the verticles.
+     */
+    public static final String VERTICLES_DEPLOY = "verticles-deploy";
+
+    /**
+     * Drain of single verticle instance: unregistering of its consumers and waiting for its in-flight operations.
+     */
+    public static final String VERTICLE_DRAIN = "verticle-drain";
+
+    /**
+     * Drain of all the verticles.
+     */
+    public static final String VERTICLES_DRAIN = "verticles-drain";
+
+    /**
+     * Undeployment of single verticle instance.
+     */
+    public static final String VERTICLE_UNDEPLOY = "verticle-undeploy";
+
+    /**
+     * Undeployment of all the verticles.
+     */
+    public static final String VERTICLES_UNDEPLOY = "verticles-undeploy";
+
+    /**
+     * Stop of vertx thread bean scope.
+     */
+    public static final String SCOPE_STOP = "scope-stop";
+
+    /**
+     * Close of {@link AsyncCloseable} bean.
+     */
+    public static final String BEAN_CLOSE = "bean-close";
+
+    /**
+     * DI application context stop.
+     */
+    public static final String APP_CTX_STOP = "app-ctx-stop";
+
+    /**
+     * Vertx instance close.
+     */
+    public static final String VERTX_CLOSE = "vertx-close";
+
+    private final String metricName;
+    private final Instant startedAt = Instant.now();
+    private final long startedAtNanos = System.nanoTime();
+    private final ConcurrentLinkedQueue<Phase> phases = new ConcurrentLinkedQueue<>();
+    private volatile MeterRegistry meterRegistry;
+    private volatile Duration totalTime;
+    private volatile List<Phase> criticalPath = List.of();
+
+    LifecycleReport(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Time when the application startup or shutdown was started.
+     *
+     * @return start time
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Total time of application startup or shutdown.
+     *
+     * @return total time, or null if startup or shutdown is not completed yet
+     */
+    @Nullable
+    public Duration getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * All recorded phases ordered by their start time.
+     *
+     * @return recorded phases
+     */
+    public List<Phase> getPhases() {
+        var result = new ArrayList<>(phases);
+        result.sort(Comparator.comparing(Phase::offset));
+        return result;
+    }
+
+    /**
+     * Recorded phases of the specified kind, ordered by their start time.
+     *
+     * @param name phase name
+     *
+     * @return recorded phases with the specified name
+     */
+    public List<Phase> getPhases(String name) {
+        return getPhases().stream()
+                .filter(p -> p.name().equals(name))
+                .toList();
+    }
+
+    /**
+     * Slowest recorded phases.
+     *
+     * @param limit max number of phases to return
+     *
+     * @return recorded phases ordered by duration, the slowest first
+     */
+    public List<Phase> getSlowestPhases(int limit) {
+        return phases.stream()
+                .sorted(Comparator.comparing(Phase::duration).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Phases that did not complete within their deadline, ordered by their start time.
+     *
+     * @return timed out phases
+     */
+    public List<Phase> getTimedOutPhases() {
+        return getPhases().stream()
+                .filter(Phase::timedOut)
+                .toList();
+    }
+
+    /**
+     * Chain of {@link com.dburyak.vertx.core.di.AppStartup} beans initialization phases that determined total time of
+     * startup beans initialization: every phase in the chain is the dependency of the next one that completed the
+     * last. Only async initialization phases are included, beans without async initialization take no time.
+     *
+     * @return critical path phases ordered from the first to the last one, empty for shutdown report or if startup
+     *         beans are not initialized yet
+     */
+    public List<Phase> getCriticalPath() {
+        return criticalPath;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder(metricName).append(": startedAt=").append(startedAt)
+                .append(", totalTime=").append(totalTime);
+        for (var phase : getPhases()) {
+            sb.append("\n  +").append(phase.offset()).append(' ').append(phase.name());
+            if (phase.target() != null) {
+                sb.append(' ').append(phase.target());
+            }
+            sb.append(": ").append(phase.duration());
+            if (phase.timedOut()) {
+                sb.append(" (timed out)");
+            }
+        }
+        return sb.toString();
+    }
+
+    // records phase that started at the specified System.nanoTime() and ends now
+    Phase record(String name, @Nullable String target, long phaseStartedAtNanos) {
+        return record(name, target, phaseStartedAtNanos, false);
+    }
+
+    // records phase that started at the specified System.nanoTime() and was abandoned now on its deadline
+    void recordTimeout(String name, @Nullable String target, long phaseStartedAtNanos) {
+        record(name, target, phaseStartedAtNanos, true);
+    }
+
+    private Phase record(String name, @Nullable String target, long phaseStartedAtNanos, boolean timedOut) {
+        var phase = new Phase(name, target, Duration.ofNanos(phaseStartedAtNanos - startedAtNanos),
+                Duration.ofNanos(System.nanoTime() - phaseStartedAtNanos), timedOut);
+        phases.add(phase);
+        var registry = meterRegistry;
+        if (registry != null) {
+            recordTimer(registry, phase);
+        }
+        return phase;
+    }
+
+    // runs async action and records it as a phase once it completes
+    Completable recordAsync(String name, @Nullable String target, Supplier<Completable> action) {
+        return Completable.defer(() -> {
+            var phaseStartedAt = System.nanoTime();
+            return action.get().doOnComplete(() -> record(name, target, phaseStartedAt));
+        });
+    }
+
+    // phases recorded before the registry is available are flushed to it
+    void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        phases.forEach(phase -> recordTimer(meterRegistry, phase));
+    }
+
+    void setCriticalPath(List<Phase> criticalPath) {
+        this.criticalPath = List.copyOf(criticalPath);
+    }
+
+    void complete() {
+        totalTime = Duration.ofNanos(System.nanoTime() - startedAtNanos);
+    }
+
+    private void recordTimer(MeterRegistry registry, Phase phase) {
+        Timer.builder(metricName)
+                .tag("phase", phase.name())
+                .tag("target", phase.target() != null ? phase.target() : "")
+                .tag("timedOut", String.valueOf(phase.timedOut()))
+                .register(registry)
+                .record(phase.duration());
+    }
+
+    /**
+     * Single recorded phase.
+     *
+     * @param name phase name
+     * @param target bean or verticle class name the phase is related to, null if phase is not related to any
+     * @param offset phase start time relative to the application startup or shutdown start
+     * @param duration phase duration
+     * @param timedOut whether phase was abandoned because it did not complete within its deadline
+     */
+    public record Phase(String name, @Nullable String target, Duration offset, Duration duration, boolean timedOut) {
+    }
+}
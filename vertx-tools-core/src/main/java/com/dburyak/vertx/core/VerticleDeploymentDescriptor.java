@@ -1,6 +1,7 @@
 package com.dburyak.vertx.core;
 
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.ThreadingModel;
 import lombok.Builder;
 import lombok.Value;
 
@@ -27,4 +28,24 @@ public class VerticleDeploymentDescriptor {
                 .deploymentOptions(new DeploymentOptions().setInstances(instances))
                 .build();
     }
+
+    /**
+     * Descriptor of verticle deployed on vertx virtual thread context. Verticle handlers are executed on virtual
+     * threads and may use blocking calls. Beans of {@link com.dburyak.vertx.core.di.VirtualThreadScope} are bound to
+     * virtual thread contexts of such verticles.
+     *
+     * @param verticleClass verticle class
+     * @param instances number of verticle instances
+     *
+     * @return verticle deployment descriptor
+     */
+    public static VerticleDeploymentDescriptor onVirtualThreads(Class<? extends AbstractDiVerticle> verticleClass,
+            int instances) {
+        return VerticleDeploymentDescriptor.builder()
+                .verticleClass(verticleClass)
+                .deploymentOptions(new DeploymentOptions()
+                        .setInstances(instances)
+                        .setThreadingModel(ThreadingModel.VIRTUAL_THREAD))
+                .build();
+    }
 }
@@ -0,0 +1,53 @@
+package com.dburyak.vertx.core;
+
+import com.dburyak.vertx.core.util.LambdaFactories;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+
+/**
+ * Cache of verticle factories based on public no-args constructors. Constructor is looked up only once per verticle
+ * class and is invoked via lambda generated by {@link LambdaFactories}, so creating every next instance costs the same
+ * as a direct constructor call.
+ */
+@Slf4j
+final class VerticleFactories {
+    private static final ClassValue<Supplier<Object>> FACTORIES = new ClassValue<>() {
+        @Override
+        protected Supplier<Object> computeValue(Class<?> type) {
+            return createFactory(type);
+        }
+    };
+
+    private VerticleFactories() {
+    }
+
+    /**
+     * Create new verticle instance.
+     *
+     * @param verticleClass verticle class
+     * @param <T> verticle type
+     *
+     * @return new verticle instance
+     *
+     * @throws IllegalArgumentException if verticle class has no public no-args constructor
+     */
+    static <T extends AbstractDiVerticle> T newInstance(Class<T> verticleClass) {
+        return verticleClass.cast(FACTORIES.get(verticleClass).get());
+    }
+
+    private static Supplier<Object> createFactory(Class<?> type) {
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.error("verticle must have public no-args constructor: verticle={}", type);
+            throw new IllegalArgumentException("verticle must have public no-args constructor: verticle="
+                    + type.getName(), e);
+        }
+        return LambdaFactories.supplier(constructor);
+    }
+}
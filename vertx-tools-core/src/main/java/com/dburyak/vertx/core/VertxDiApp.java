@@ -1,12 +1,14 @@
 package com.dburyak.vertx.core;
 
+import com.dburyak.vertx.core.config.VertxDiAppProperties;
 import com.dburyak.vertx.core.di.AppBootstrap;
-import com.dburyak.vertx.core.di.AppStartup;
 import com.dburyak.vertx.core.di.ForEventLoop;
-import com.dburyak.vertx.core.di.VertxThreadScopeBase;
-import com.dburyak.vertx.core.util.Tuple;
+import com.dburyak.vertx.core.di.ForWorker;
+import com.dburyak.vertx.core.di.VerticleStartup;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.context.ApplicationContext;
-import io.micronaut.context.BeanRegistration;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
@@ -16,16 +18,15 @@ import io.vertx.core.DeploymentOptions;
 import io.vertx.rxjava3.core.Vertx;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationTargetException;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.IntStream;
-
-import static java.util.Collections.synchronizedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base class for DI enabled vertx application.
@@ -37,8 +38,10 @@ import static java.util.Collections.synchronizedList;
 @Slf4j
 public abstract class VertxDiApp {
     private final Object startupLock = new Object();
-    private final List<String> verticlesDeploymentIds = synchronizedList(new ArrayList<>());
+    private final Map<String, AbstractDiVerticle> verticlesDeployments = new ConcurrentHashMap<>();
     private volatile ApplicationContext appCtx = null;
+    private volatile LifecycleReport startupReport = null;
+    private volatile LifecycleReport shutdownReport = null;
 
     /**
      * Specify verticles to deploy in this application.
@@ -64,77 +67,62 @@ public abstract class VertxDiApp {
      * @return completable that completes when application is started
      */
     public final Completable start() {
-        var invokedAt = new AtomicReference<Instant>();
-        return Observable.defer(() -> {
+        return Observable.<String>defer(() -> {
                     synchronized (startupLock) {
-                        invokedAt.set(Instant.now());
                         if (appCtx != null) {
                             log.debug("attempt to start vertx application that is already running");
                             return Observable.empty();
                         }
+                        var report = new LifecycleReport(LifecycleReport.STARTUP_METRIC);
+                        startupReport = report;
                         log.info("starting vertx application");
+                        var phaseStartedAt = System.nanoTime();
                         var appCtxBuilder = ApplicationContext.builder();
                         for (var appCtxConfigurer : appCtxConfigurers()) {
                             appCtxBuilder = appCtxConfigurer.configure(appCtxBuilder);
                         }
                         appCtx = appCtxBuilder.build().start();
+                        report.record(LifecycleReport.APP_CTX_START, null, phaseStartedAt);
+                        report.setMeterRegistry(appCtx.getBean(MeterRegistry.class));
                         var vertx = appCtx.getBean(Vertx.class);
                         log.info("bootstrap phase");
-                        appCtx.getBeansOfType(Object.class, Qualifiers.byStereotype(AppBootstrap.class));
+                        for (var beanDef : appCtx.getBeanDefinitions(Object.class,
+                                Qualifiers.byStereotype(AppBootstrap.class))) {
+                            var beanStartedAt = System.nanoTime();
+                            appCtx.getBean(beanDef);
+                            report.record(LifecycleReport.BOOTSTRAP_BEAN, beanDef.getBeanType().getName(),
+                                    beanStartedAt);
+                        }
                         log.info("startup phase");
+                        phaseStartedAt = System.nanoTime();
+                        var appProps = appCtx.getBean(VertxDiAppProperties.class);
                         var elScheduler = appCtx.getBean(Scheduler.class, Qualifiers.byStereotype(ForEventLoop.class));
-                        Single.fromCallable(() -> appCtx.getBeansOfType(Object.class,
-                                        Qualifiers.byStereotype(AppStartup.class)))
-                                .flatMapCompletable(startupBeans ->
-                                        Completable.merge(startupBeans.stream()
-                                                .filter(AsyncInitializable.class::isInstance)
-                                                .map(AsyncInitializable.class::cast)
-                                                .map(AsyncInitializable::initAsync)
-                                                .toList()))
-                                .subscribeOn(elScheduler)
+                        new AppStartupRunner(appCtx, appProps, elScheduler, report).run()
                                 .blockingAwait(); // blocks "main" thread, not the EL
-                        var deployments = verticlesDeploymentDescriptors().stream()
-                                .flatMap(d -> {
-                                    var verticleDeploymentOpts = d.getDeploymentOptions();
-                                    return IntStream.range(0, verticleDeploymentOpts.getInstances())
-                                            .mapToObj(ignr -> {
-                                                try {
-                                                    var verticleInstance = d.getVerticleClass()
-                                                            .getDeclaredConstructor().newInstance();
-                                                    verticleInstance.setAppCtx(appCtx);
-                                                    verticleInstance.setVertx(vertx);
-                                                    var modOpts = new DeploymentOptions(d.getDeploymentOptions())
-                                                            .setInstances(1);
-                                                    return Tuple.of(verticleInstance, d.toBuilder()
-                                                            .deploymentOptions(modOpts)
-                                                            .build()
-                                                    );
-                                                } catch (InstantiationException | IllegalAccessException |
-                                                         NoSuchMethodException e) {
-                                                    log.error("verticle must have public no-args constructor: {}",
-                                                            d.getVerticleClass());
-                                                    throw new RuntimeException(e);
-                                                } catch (InvocationTargetException e) {
-                                                    throw new RuntimeException(e);
-                                                }
-                                            });
-                                })
-                                .map(t2 -> vertx.rxDeployVerticle(t2.getV1(), t2.getV2().getDeploymentOptions())
-                                        .map(depId -> Tuple.of(depId, t2.getV1())))
+                        report.record(LifecycleReport.STARTUP_BEANS, null, phaseStartedAt);
+                        var workerScheduler = appCtx.getBean(Scheduler.class,
+                                Qualifiers.byStereotype(ForWorker.class));
+                        var descriptors = verticlesDeploymentDescriptors();
+                        var startupBeanDefs = indexVerticleStartupBeans(descriptors);
+                        var instances = descriptors.stream()
+                                .map(d -> new VerticleDeployment(d, startupBeanDefs.get(d.getVerticleClass())))
+                                .flatMap(d -> Collections.nCopies(d.numInstances, d).stream())
                                 .toList();
-                        return Observable.fromIterable(deployments)
-                                .doOnSubscribe(ignr -> log.info("deploy verticles"));
+                        var deployStartedAt = System.nanoTime();
+                        return Observable.fromIterable(instances)
+                                .doOnSubscribe(ignr -> log.info("deploy verticles: numInstances={}, concurrency={}",
+                                        instances.size(), appProps.getDeployConcurrency()))
+                                .flatMap(d -> deployInstance(vertx, d, report).subscribeOn(workerScheduler)
+                                        .toObservable(), false, appProps.getDeployConcurrency())
+                                .doOnComplete(() -> {
+                                    report.record(LifecycleReport.VERTICLES_DEPLOY, null, deployStartedAt);
+                                    report.complete();
+                                    log.info("verticles deployed");
+                                    log.info("vertx application started: time={}", report.getTotalTime());
+                                });
                     }
                 })
-                .flatMapSingle(d -> d.doOnSuccess(depInfo -> {
-                    log.debug("verticle deployed: depId={}, verticle={}", depInfo.getV1(), depInfo.getV2());
-                    verticlesDeploymentIds.add(depInfo.getV1());
-                }))
-                .ignoreElements()
-                .doOnComplete(() -> {
-                    log.info("verticles deployed");
-                    log.info("vertx application started: time={}", Duration.between(invokedAt.get(), Instant.now()));
-                });
+                .ignoreElements();
     }
 
     /**
@@ -149,61 +137,147 @@ public abstract class VertxDiApp {
                     log.debug("attempt to stop vertx application that is already stopped");
                     return Completable.complete();
                 }
-                var invokedAt = Instant.now();
-                var verticlesUndeployStartedAt = new AtomicReference<Instant>();
-                var vertxShutdownStartedAt = new AtomicReference<Instant>();
-                var beansClosingStartedAt = new AtomicReference<Instant>();
+                var report = new LifecycleReport(LifecycleReport.SHUTDOWN_METRIC);
+                shutdownReport = report;
+                report.setMeterRegistry(appCtx.getBean(MeterRegistry.class));
+                var verticlesDrainStartedAt = new AtomicLong();
+                var verticlesUndeployStartedAt = new AtomicLong();
+                var vertxShutdownStartedAt = new AtomicLong();
+                var beansClosingStartedAt = new AtomicLong();
                 var vertx = appCtx.getBean(Vertx.class);
-                return Observable.fromIterable(verticlesDeploymentIds)
+                // all the verticles stop accepting new work before any of them is undeployed, so that in-flight
+                // operations can still be served by other verticles
+                return Observable.fromIterable(verticlesDeployments.values())
                         .doOnSubscribe(ignr -> {
                             log.info("stopping vertx application");
-                            log.info("undeploying verticles: numVerticles={}", verticlesDeploymentIds.size());
-                            verticlesUndeployStartedAt.set(Instant.now());
+                            log.info("draining verticles: numVerticles={}", verticlesDeployments.size());
+                            verticlesDrainStartedAt.set(System.nanoTime());
+                        })
+                        .flatMapCompletable(verticle -> report.recordAsync(LifecycleReport.VERTICLE_DRAIN,
+                                verticle.getClass().getName(), verticle::drain))
+                        .doOnComplete(() -> {
+                            report.record(LifecycleReport.VERTICLES_DRAIN, null, verticlesDrainStartedAt.get());
+                            log.info("all verticles drained: time={}",
+                                    Duration.ofNanos(System.nanoTime() - verticlesDrainStartedAt.get()));
                         })
-                        .flatMapCompletable(depId -> vertx.rxUndeploy(depId)
-                                .doOnComplete(() -> log.debug("verticle undeployed: depId={}", depId)))
+                        .andThen(Observable.fromIterable(verticlesDeployments.entrySet())
+                                .doOnSubscribe(ignr -> {
+                                    log.info("undeploying verticles: numVerticles={}", verticlesDeployments.size());
+                                    verticlesUndeployStartedAt.set(System.nanoTime());
+                                }))
+                        .flatMapCompletable(dep -> report.recordAsync(LifecycleReport.VERTICLE_UNDEPLOY,
+                                        dep.getValue().getClass().getName(), () -> vertx.rxUndeploy(dep.getKey()))
+                                .doOnComplete(() -> log.debug("verticle undeployed: depId={}", dep.getKey())))
                         .doOnComplete(() -> {
+                            report.record(LifecycleReport.VERTICLES_UNDEPLOY, null, verticlesUndeployStartedAt.get());
                             log.info("all verticles undeployed: time={}",
-                                    Duration.between(verticlesUndeployStartedAt.get(), Instant.now()));
-                            verticlesDeploymentIds.clear();
+                                    Duration.ofNanos(System.nanoTime() - verticlesUndeployStartedAt.get()));
+                            verticlesDeployments.clear();
                         })
                         .andThen(Completable.defer(() -> {
                             synchronized (startupLock) {
-                                var vertxThreadScopes = appCtx.getBeansOfType(VertxThreadScopeBase.class);
-                                var asyncCloseableSingletons = appCtx.getActiveBeanRegistrations(AsyncCloseable.class);
-                                return Observable.fromIterable(vertxThreadScopes)
-                                        .flatMapCompletable(VertxThreadScopeBase::stopAsync)
-                                        .mergeWith(Observable.fromIterable(asyncCloseableSingletons)
-                                                .map(BeanRegistration::getBean)
-                                                .cast(AsyncCloseable.class)
-                                                .flatMapCompletable(AsyncCloseable::closeAsync))
+                                var appProps = appCtx.getBean(VertxDiAppProperties.class);
+                                var elScheduler = appCtx.getBean(Scheduler.class,
+                                        Qualifiers.byStereotype(ForEventLoop.class));
+                                return new AppShutdownRunner(appCtx, appProps, elScheduler, report).run()
                                         .doOnSubscribe(ignr -> {
-                                            beansClosingStartedAt.set(Instant.now());
+                                            beansClosingStartedAt.set(System.nanoTime());
                                             log.info("disposing beans");
                                         });
                             }
                         }))
                         .andThen(Completable.fromRunnable(() -> {
+                            var appCtxStopStartedAt = System.nanoTime();
                             synchronized (startupLock) {
                                 appCtx.stop();
                                 appCtx = null;
                             }
+                            report.record(LifecycleReport.APP_CTX_STOP, null, appCtxStopStartedAt);
                             log.info("beans disposed: time={}",
-                                    Duration.between(beansClosingStartedAt.get(), Instant.now()));
+                                    Duration.ofNanos(System.nanoTime() - beansClosingStartedAt.get()));
                         }))
                         .andThen(vertx.rxClose().doOnSubscribe(ignr -> {
                             log.debug("closing vertx instance");
-                            vertxShutdownStartedAt.set(Instant.now());
+                            vertxShutdownStartedAt.set(System.nanoTime());
                         }))
                         .doOnComplete(() -> {
+                            report.record(LifecycleReport.VERTX_CLOSE, null, vertxShutdownStartedAt.get());
+                            report.complete();
                             log.info("vertx instance closed: time={}",
-                                    Duration.between(vertxShutdownStartedAt.get(), Instant.now()));
-                            log.info("vertx application stopped: time={}", Duration.between(invokedAt, Instant.now()));
+                                    Duration.ofNanos(System.nanoTime() - vertxShutdownStartedAt.get()));
+                            log.info("vertx application stopped: time={}", report.getTotalTime());
                         });
             }
         });
     }
 
+    /**
+     * Get timeline of the last application startup. Report is filled in while the application is starting, and
+     * {@link LifecycleReport#getTotalTime()} is set once it is started.
+     *
+     * @return startup report, or null if application was never started
+     */
+    @Nullable
+    public LifecycleReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * Get timeline of the last application shutdown. Report is filled in while the application is stopping, and
+     * {@link LifecycleReport#getTotalTime()} is set once it is stopped.
+     *
+     * @return shutdown report, or null if application was never stopped
+     */
+    @Nullable
+    public LifecycleReport getShutdownReport() {
+        return shutdownReport;
+    }
+
+    private Single<String> deployInstance(Vertx vertx, VerticleDeployment deployment, LifecycleReport report) {
+        return Single.defer(() -> {
+            var startedAt = System.nanoTime();
+            deployment.startedAt.compareAndSet(0L, startedAt);
+            var verticleClassName = deployment.descriptor.getVerticleClass().getName();
+            var verticle = VerticleFactories.newInstance(deployment.descriptor.getVerticleClass());
+            verticle.setAppCtx(appCtx);
+            verticle.setVertx(vertx);
+            verticle.setStartupReport(report);
+            verticle.setStartupBeanDefs(deployment.startupBeanDefs);
+            return vertx.rxDeployVerticle(verticle, deployment.instanceOpts)
+                    .doOnSuccess(depId -> {
+                        report.record(LifecycleReport.VERTICLE_DEPLOY, verticleClassName, startedAt);
+                        verticlesDeployments.put(depId, verticle);
+                        log.debug("verticle deployed: depId={}, verticle={}, time={}", depId, verticle,
+                                Duration.ofNanos(System.nanoTime() - startedAt));
+                        if (deployment.remaining.decrementAndGet() == 0) {
+                            log.info("verticle instances deployed: verticle={}, numInstances={}, time={}",
+                                    verticleClassName, deployment.numInstances,
+                                    Duration.ofNanos(System.nanoTime() - deployment.startedAt.get()));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Find applicable {@link VerticleStartup} beans for every deployed verticle class with a single scan of bean
+     * definitions, so that verticle instances do not need to scan them on every start.
+     */
+    private Map<Class<?>, List<BeanDefinition<Object>>> indexVerticleStartupBeans(
+            Collection<VerticleDeploymentDescriptor> descriptors) {
+        var allStartupBeanDefs = appCtx.getBeanDefinitions(Object.class,
+                Qualifiers.byStereotype(VerticleStartup.class));
+        var index = new HashMap<Class<?>, List<BeanDefinition<Object>>>();
+        for (var descriptor : descriptors) {
+            index.computeIfAbsent(descriptor.getVerticleClass(), verticleClass -> allStartupBeanDefs.stream()
+                    .filter(beanDef -> beanDef.getAnnotationMetadata()
+                            .classValue(VerticleStartup.class, "value")
+                            .orElse(Object.class)
+                            .isAssignableFrom(verticleClass))
+                    .toList());
+        }
+        return index;
+    }
+
     /**
      * Get bean of specified type from the underlying DI container. This method is expected to be used only for
      * singleton beans.
@@ -216,4 +290,26 @@ public abstract class VertxDiApp {
     public <T> T getBean(Class<T> beanType) {
         return appCtx.getBean(beanType);
     }
+
+    /**
+     * Deployment of all the instances of a single verticle descriptor. Every instance is deployed separately with
+     * single-instance deployment options.
+     */
+    private static final class VerticleDeployment {
+        private final VerticleDeploymentDescriptor descriptor;
+        private final DeploymentOptions instanceOpts;
+        private final int numInstances;
+        private final AtomicInteger remaining;
+        private final List<BeanDefinition<Object>> startupBeanDefs;
+        private final AtomicLong startedAt = new AtomicLong();
+
+        private VerticleDeployment(VerticleDeploymentDescriptor descriptor,
+                List<BeanDefinition<Object>> startupBeanDefs) {
+            this.descriptor = descriptor;
+            this.startupBeanDefs = startupBeanDefs;
+            this.instanceOpts = new DeploymentOptions(descriptor.getDeploymentOptions()).setInstances(1);
+            this.numInstances = descriptor.getDeploymentOptions().getInstances();
+            this.remaining = new AtomicInteger(numInstances);
+        }
+    }
 }
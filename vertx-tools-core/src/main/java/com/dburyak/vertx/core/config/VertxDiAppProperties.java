@@ -0,0 +1,87 @@
+package com.dburyak.vertx.core.config;
+
+import io.micronaut.context.annotation.ConfigurationInject;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Configuration of {@link com.dburyak.vertx.core.VertxDiApp} startup and shutdown.
+ */
+@ConfigurationProperties("vertx.di.app")
+@Getter
+public class VertxDiAppProperties {
+
+    /**
+     * Max number of verticle instances that are instantiated and deployed concurrently on application startup.
+     * Instances are created on vertx worker threads, so this value should not be much bigger than worker pool size.
+     */
+    @Min(1)
+    private final int deployConcurrency;
+
+    /**
+     * Max number of {@link com.dburyak.vertx.core.di.AppStartup} beans that are initialized asynchronously at the same
+     * time.
+     */
+    @Min(1)
+    private final int startupConcurrency;
+
+    /**
+     * Default max duration of async initialization of a single {@link com.dburyak.vertx.core.di.AppStartup} bean. Can
+     * be overridden per bean with {@link com.dburyak.vertx.core.di.AppStartup#timeout()}.
+     */
+    @NotNull
+    private final Duration startupTimeout;
+
+    /**
+     * Max number of {@link com.dburyak.vertx.core.AsyncCloseable} beans and bean scopes that are closed
+     * asynchronously at the same time on application shutdown.
+     */
+    @Min(1)
+    private final int closeConcurrency;
+
+    /**
+     * Max duration of closing all the {@link com.dburyak.vertx.core.AsyncCloseable} beans and bean scopes on
+     * application shutdown. Beans that are not closed by this deadline are abandoned and reported, and the shutdown
+     * proceeds. Should be noticeably smaller than the time the process is given to terminate (e.g. kubernetes
+     * terminationGracePeriodSeconds), so that the rest of the shutdown routine has time to complete.
+     */
+    @NotNull
+    private final Duration closeTimeout;
+
+    /**
+     * Default max duration of async close of a single {@link com.dburyak.vertx.core.AsyncCloseable} bean or bean scope.
+     * Can be overridden per bean with {@link com.dburyak.vertx.core.AsyncCloseable#closeTimeout()}.
+     */
+    @NotNull
+    private final Duration beanCloseTimeout;
+
+    /**
+     * Max duration of a single verticle drain on shutdown - unregistering of its tracked consumers and waiting for its
+     * in-flight operations, see {@link com.dburyak.vertx.core.AbstractDiVerticle#inFlight()}.
+     */
+    @NotNull
+    private final Duration drainTimeout;
+
+    @ConfigurationInject
+    public VertxDiAppProperties(
+            @Bindable(defaultValue = "16") @Min(1) int deployConcurrency,
+            @Bindable(defaultValue = "8") @Min(1) int startupConcurrency,
+            @Bindable(defaultValue = "60s") @NotNull Duration startupTimeout,
+            @Bindable(defaultValue = "8") @Min(1) int closeConcurrency,
+            @Bindable(defaultValue = "20s") @NotNull Duration closeTimeout,
+            @Bindable(defaultValue = "10s") @NotNull Duration beanCloseTimeout,
+            @Bindable(defaultValue = "10s") @NotNull Duration drainTimeout) {
+        this.deployConcurrency = deployConcurrency;
+        this.startupConcurrency = startupConcurrency;
+        this.startupTimeout = startupTimeout;
+        this.closeConcurrency = closeConcurrency;
+        this.closeTimeout = closeTimeout;
+        this.beanCloseTimeout = beanCloseTimeout;
+        this.drainTimeout = drainTimeout;
+    }
+}
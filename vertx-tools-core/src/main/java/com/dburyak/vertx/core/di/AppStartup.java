@@ -1,6 +1,7 @@
 package com.dburyak.vertx.core.di;
 
 import com.dburyak.vertx.core.AsyncInitializable;
+import io.micronaut.context.annotation.NonBinding;
 import jakarta.inject.Qualifier;
 
 import java.lang.annotation.Documented;
@@ -15,9 +16,13 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  * Beans are requested only once per application, so they should be singletons. Such beans are expected to either do
  * their initialization work in {@link jakarta.annotation.PostConstruct} methods. Or they can implement
  * {@link AsyncInitializable} interface and do their initialization work asynchronously in the
- * {@link AsyncInitializable#initAsync()} method. Async action is guaranteed to be executed on vertx context. Ordering
- * of async actions is not supported as of now, no any assumptions should be made about the order of async actions
- * execution.
+ * {@link AsyncInitializable#initAsync()} method. Async action is guaranteed to be executed on vertx context.
+ * <p>
+ * Async actions of independent beans are executed concurrently (up to
+ * {@link com.dburyak.vertx.core.config.VertxDiAppProperties#getStartupConcurrency()} at a time). Bean can declare
+ * other startup beans it depends on with {@link #dependsOn()}, then its async action is started only after async
+ * actions of all of them are completed. Each async action must complete within its {@link #timeout()}, otherwise
+ * application startup fails.
  * <p>
  * Typical usage: eagerly create connections to DB so that some are available when the first requests arrive,
  * pre-populate caches with rarely changing data to avoid cold starts, etc.
@@ -31,4 +36,22 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Retention(RUNTIME)
 @Documented
 public @interface AppStartup {
+
+    /**
+     * Startup beans whose async initialization must be completed before async initialization of this bean is started.
+     * Every type must match at least one other startup bean, cyclic dependencies are not allowed.
+     *
+     * @return types of startup beans this bean depends on
+     */
+    @NonBinding
+    Class<?>[] dependsOn() default {};
+
+    /**
+     * Max duration of async initialization of this bean, e.g. "10s". If empty,
+     * {@link com.dburyak.vertx.core.config.VertxDiAppProperties#getStartupTimeout()} is used.
+     *
+     * @return async initialization timeout
+     */
+    @NonBinding
+    String timeout() default "";
 }
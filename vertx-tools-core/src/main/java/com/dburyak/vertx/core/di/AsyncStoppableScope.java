@@ -0,0 +1,17 @@
+package com.dburyak.vertx.core.di;
+
+import io.reactivex.rxjava3.core.Completable;
+
+/**
+ * Bean scope that asynchronously closes its {@link com.dburyak.vertx.core.AsyncCloseable} beans on application
+ * shutdown, before the scope itself is stopped synchronously.
+ */
+public interface AsyncStoppableScope {
+
+    /**
+     * Asynchronously dispose of all {@link com.dburyak.vertx.core.AsyncCloseable} beans in the scope.
+     *
+     * @return completable that completes when all the async closeable beans of the scope are closed
+     */
+    Completable stopAsync();
+}
@@ -0,0 +1,56 @@
+package com.dburyak.vertx.core.di;
+
+import io.micronaut.inject.BeanIdentifier;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of dense integer ordinals assigned to bean identifiers of a single scope. Ordinal is assigned once, on the
+ * first creation of the bean in the scope, and stays the same for the whole lifetime of the scope. Ordinals are used as
+ * indexes in flat per-thread bean arrays, see {@link VertxThreadBeans}.
+ */
+final class BeanOrdinals {
+
+    /**
+     * Ordinal value returned for identifiers that were never registered.
+     */
+    static final int NONE = -1;
+
+    private final ConcurrentMap<BeanIdentifier, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    /**
+     * Get ordinal of the bean identifier without registering it.
+     *
+     * @param id bean identifier
+     *
+     * @return ordinal of the bean identifier, or {@link #NONE} if identifier is not registered yet
+     */
+    int ordinalOf(Object id) {
+        var ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : NONE;
+    }
+
+    /**
+     * Get ordinal of the bean identifier, registering it if needed.
+     *
+     * @param id bean identifier
+     *
+     * @return ordinal of the bean identifier
+     */
+    int ordinalOrRegister(BeanIdentifier id) {
+        var ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : ordinals.computeIfAbsent(id, ignr -> nextOrdinal.getAndIncrement());
+    }
+
+    /**
+     * Number of registered ordinals.
+     *
+     * @return number of registered ordinals
+     */
+    int size() {
+        return nextOrdinal.get();
+    }
+}
@@ -0,0 +1,20 @@
+package com.dburyak.vertx.core.di;
+
+import jakarta.inject.Qualifier;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Bean qualifier for beans specific to virtual threads, i.e. beans which are designed to be executed on virtual threads
+ * and are not suitable for execution on the event loop.
+ * E.g. executors and schedulers for blocking calls (JDBC, blocking SDK clients) that should not occupy the limited
+ * vertx worker pool.
+ */
+@Qualifier
+@Retention(RUNTIME)
+@Documented
+public @interface ForVirtualThread {
+}
@@ -0,0 +1,249 @@
+package com.dburyak.vertx.core.di;
+
+import io.micronaut.context.scope.CreatedBean;
+import io.micronaut.inject.BeanIdentifier;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Beans of a single vertx thread stored in a flat array indexed by bean ordinal (see {@link BeanOrdinals}). Exposed as
+ * a {@link Map} since this is what {@link io.micronaut.context.scope.AbstractConcurrentCustomScope} operates on.
+ * <p>
+ * Instances are bound to a single thread and are mutated only by that thread under the scope locks, so no extra
+ * synchronization is done here. For the same reason each instance keeps its own cache of bean identifier ordinals, so
+ * lookups of already known beans do not touch the scope-wide {@link BeanOrdinals} map shared by all the threads.
+ */
+final class VertxThreadBeans extends AbstractMap<BeanIdentifier, CreatedBean<?>> {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int INITIAL_ORDINALS_CACHE_CAPACITY = 16;
+
+    private final BeanOrdinals ordinals;
+    private final Thread owner;
+    private CreatedBean<?>[] beans;
+    private BeanIdentifier[] ids;
+    private int size;
+
+    /**
+     * Open addressing hash table of bean identifier ordinals known to this thread. Bean identifiers cache their hash
+     * codes, and the same identifier instance is usually used for lookup and for the following put, so a hit is
+     * mostly an identity comparison.
+     */
+    private BeanIdentifier[] cachedIds;
+    private int[] cachedOrdinals;
+    private int cachedSize;
+
+    /**
+     * Constructor.
+     *
+     * @param ordinals bean ordinals registry of the owning scope
+     * @param owner thread that owns the storage, or null for the storage shared by all the threads not suitable for
+     *         the scope, which is never written to, so it's allocated empty
+     */
+    VertxThreadBeans(BeanOrdinals ordinals, Thread owner) {
+        this.ordinals = ordinals;
+        this.owner = owner;
+        var capacity = owner != null ? Math.max(INITIAL_CAPACITY, ordinals.size()) : 0;
+        this.beans = new CreatedBean<?>[capacity];
+        this.ids = new BeanIdentifier[capacity];
+        var cacheCapacity = owner != null ? INITIAL_ORDINALS_CACHE_CAPACITY : 1;
+        this.cachedIds = new BeanIdentifier[cacheCapacity];
+        this.cachedOrdinals = new int[cacheCapacity];
+    }
+
+    /**
+     * Whether owning thread is suitable for the scope. Is evaluated only once on the first scope access from the
+     * thread, as thread kind never changes.
+     *
+     * @return whether owning thread is suitable for the scope
+     */
+    boolean isOnMatchingThread() {
+        return owner != null;
+    }
+
+    /**
+     * Whether the owning thread has terminated, so beans of this storage will never be used again.
+     *
+     * @return whether the owning thread has terminated
+     */
+    boolean isOwnerTerminated() {
+        return owner != null && !owner.isAlive();
+    }
+
+    @Override
+    public CreatedBean<?> get(Object key) {
+        var ordinal = ordinalOf(key);
+        var beansRef = beans;
+        return ordinal >= 0 && ordinal < beansRef.length ? beansRef[ordinal] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public CreatedBean<?> put(BeanIdentifier key, CreatedBean<?> value) {
+        var ordinal = cachedOrdinalOf(key);
+        if (ordinal == BeanOrdinals.NONE) {
+            ordinal = ordinals.ordinalOrRegister(key);
+            cacheOrdinal(key, ordinal);
+        }
+        ensureCapacity(ordinal + 1);
+        var prev = beans[ordinal];
+        beans[ordinal] = value;
+        ids[ordinal] = key;
+        if (prev == null) {
+            size++;
+        }
+        return prev;
+    }
+
+    @Override
+    public CreatedBean<?> remove(Object key) {
+        var ordinal = ordinalOf(key);
+        if (ordinal < 0 || ordinal >= beans.length) {
+            return null;
+        }
+        return removeAt(ordinal);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(beans, null);
+        Arrays.fill(ids, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<BeanIdentifier, CreatedBean<?>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<BeanIdentifier, CreatedBean<?>>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int ordinalOf(Object key) {
+        var ordinal = cachedOrdinalOf(key);
+        if (ordinal == BeanOrdinals.NONE && key instanceof BeanIdentifier id) {
+            ordinal = ordinals.ordinalOf(id);
+            if (ordinal != BeanOrdinals.NONE && owner != null) {
+                cacheOrdinal(id, ordinal);
+            }
+        }
+        return ordinal;
+    }
+
+    private int cachedOrdinalOf(Object key) {
+        var mask = cachedIds.length - 1;
+        var i = slot(key, mask);
+        BeanIdentifier cachedId;
+        while ((cachedId = cachedIds[i]) != null) {
+            if (cachedId == key || cachedId.equals(key)) {
+                return cachedOrdinals[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return BeanOrdinals.NONE;
+    }
+
+    private void cacheOrdinal(BeanIdentifier id, int ordinal) {
+        if ((cachedSize + 1) * 2 > cachedIds.length) {
+            var oldIds = cachedIds;
+            var oldOrdinals = cachedOrdinals;
+            cachedIds = new BeanIdentifier[Math.max(INITIAL_ORDINALS_CACHE_CAPACITY, oldIds.length * 2)];
+            cachedOrdinals = new int[cachedIds.length];
+            cachedSize = 0;
+            for (var i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != null) {
+                    cacheOrdinal(oldIds[i], oldOrdinals[i]);
+                }
+            }
+        }
+        var mask = cachedIds.length - 1;
+        var i = slot(id, mask);
+        while (cachedIds[i] != null) {
+            i = (i + 1) & mask;
+        }
+        cachedIds[i] = id;
+        cachedOrdinals[i] = ordinal;
+        cachedSize++;
+    }
+
+    private static int slot(Object key, int mask) {
+        var h = key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private CreatedBean<?> removeAt(int ordinal) {
+        var prev = beans[ordinal];
+        if (prev != null) {
+            beans[ordinal] = null;
+            ids[ordinal] = null;
+            size--;
+        }
+        return prev;
+    }
+
+    private void ensureCapacity(int requiredCapacity) {
+        if (requiredCapacity > beans.length) {
+            var newCapacity = Math.max(requiredCapacity, beans.length * 2);
+            beans = Arrays.copyOf(beans, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<BeanIdentifier, CreatedBean<?>>> {
+        private int next = advance(0);
+        private int current = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < beans.length;
+        }
+
+        @Override
+        public Entry<BeanIdentifier, CreatedBean<?>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance(next + 1);
+            return new SimpleImmutableEntry<>(ids[current], beans[current]);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            removeAt(current);
+            current = -1;
+        }
+
+        private int advance(int from) {
+            var i = from;
+            while (i < beans.length && beans[i] == null) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
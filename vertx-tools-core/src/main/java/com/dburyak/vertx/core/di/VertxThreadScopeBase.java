@@ -4,26 +4,64 @@ import com.dburyak.vertx.core.AsyncCloseable;
 import io.micronaut.context.scope.AbstractConcurrentCustomScope;
 import io.micronaut.context.scope.CreatedBean;
 import io.micronaut.inject.BeanIdentifier;
+import io.netty.util.concurrent.FastThreadLocal;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
+import lombok.extern.slf4j.Slf4j;
 
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.emptyMap;
 
 /**
  * Base class for DI bean scopes that are bound to vertx threads. This scope works as thread local scope but injection
  * is allowed only from specific kind of vertx threads.
+ * <p>
+ * Beans are stored per vertx thread in a flat array indexed by bean ordinal. Storage of the thread is created on the
+ * first access to the scope from it and is kept in a netty {@link FastThreadLocal}, suitability of the thread for the
+ * scope is evaluated only once at that moment. Vertx threads are netty
+ * {@link io.netty.util.concurrent.FastThreadLocalThread}s, so resolving the storage of the current thread is an indexed
+ * array read. Bean lookup in it is a read of the thread's own cache of bean ordinals (see {@link BeanOrdinals}) followed
+ * by an array read, the scope-wide ordinals map is consulted only the first time a bean is resolved on the thread. No
+ * thread name checks are involved on the hot path. Threads that are not suitable for the scope all share a single empty
+ * storage.
+ * <p>
+ * Beans of terminated threads are destroyed and their storage is released, either by netty when the thread cleans up
+ * its fast thread locals on exit, or when the next new thread accesses the scope.
  *
  * @param <T> scope annotation type
  */
-public abstract class VertxThreadScopeBase<T extends Annotation> extends AbstractConcurrentCustomScope<T> {
+@Slf4j
+public abstract class VertxThreadScopeBase<T extends Annotation> extends AbstractConcurrentCustomScope<T>
+        implements AsyncStoppableScope {
+
+    private final BeanOrdinals ordinals = new BeanOrdinals();
+    private final VertxThreadBeans notMatchingThreadBeans = new VertxThreadBeans(ordinals, null);
 
     /**
-     * Map of all beans created in the scope. Key is thread name. Value is map of beans created for given thread.
+     * Beans of all the live vertx threads that accessed this scope, for closing them all on shutdown. Is modified once
+     * per thread start and termination and iterated only on shutdown, lookups of the current thread go through
+     * {@link #currentThreadBeans}.
      */
-    protected final Map<String, Map<BeanIdentifier, CreatedBean<?>>> beans = new ConcurrentHashMap<>();
+    private final List<VertxThreadBeans> threadsBeans = new CopyOnWriteArrayList<>();
+
+    private final FastThreadLocal<VertxThreadBeans> currentThreadBeans = new FastThreadLocal<>() {
+        @Override
+        protected VertxThreadBeans initialValue() {
+            return registerCurrentThread();
+        }
+
+        @Override
+        protected void onRemoval(VertxThreadBeans threadBeans) {
+            // invoked by netty on the terminating thread, outside of the scope locks
+            if (threadBeans != notMatchingThreadBeans && unregister(threadBeans)) {
+                destroyScope(threadBeans);
+            }
+        }
+    };
 
     /**
      * Constructor.
@@ -62,7 +100,7 @@ public abstract class VertxThreadScopeBase<T extends Annotation> extends Abstrac
      */
     @Override
     public final void close() {
-        beans.values().forEach(this::destroyScope);
+        threadsBeans.forEach(this::destroyScope);
     }
 
     /**
@@ -71,8 +109,9 @@ public abstract class VertxThreadScopeBase<T extends Annotation> extends Abstrac
      * This method is supposed to be called right before the synchronous {@link #stop()} method for the scope, during
      * the application shutdown routine.
      */
+    @Override
     public final Completable stopAsync() {
-        return Observable.fromIterable(beans.values())
+        return Observable.fromIterable(threadsBeans)
                 .flatMapIterable(Map::values)
                 .map(CreatedBean::bean)
                 .filter(AsyncCloseable.class::isInstance)
@@ -97,13 +136,49 @@ public abstract class VertxThreadScopeBase<T extends Annotation> extends Abstrac
     protected abstract boolean vertxThreadMatches();
 
     private Map<BeanIdentifier, CreatedBean<?>> getVertxCtxBeans(boolean assertOnVertxCtx) {
-        if (assertOnVertxCtx && !vertxThreadMatches()) {
+        var threadBeans = currentThreadBeans.get();
+        if (!threadBeans.isOnMatchingThread()) {
             // turned out that Vertx.currentContext().isEventLoopContext() and Vertx.currentContext().isWorkerContext()
             // is not a reliable way to check if current thread is vertx one or not. Sometimes Vertx.currentContext()
             // returns null on EL threads. Not sure what this behavior depends on. So the simplest way is to check by
-            // thread name.
-            throw new IllegalArgumentException(notOnCtxErrorMessage());
+            // thread name, which is done only once per thread on the first access to the scope.
+            if (assertOnVertxCtx) {
+                throw new IllegalArgumentException(notOnCtxErrorMessage());
+            }
+            return emptyMap();
         }
-        return beans.computeIfAbsent(Thread.currentThread().getName(), tn -> new HashMap<>());
+        return threadBeans;
+    }
+
+    private VertxThreadBeans registerCurrentThread() {
+        if (!vertxThreadMatches()) {
+            return notMatchingThreadBeans;
+        }
+        pruneTerminatedThreads();
+        var threadBeans = new VertxThreadBeans(ordinals, Thread.currentThread());
+        threadsBeans.add(threadBeans);
+        return threadBeans;
+    }
+
+    private void pruneTerminatedThreads() {
+        for (var threadBeans : threadsBeans) {
+            if (threadBeans.isOwnerTerminated() && unregister(threadBeans)) {
+                // scope read lock may be held here and can't be upgraded for destroyScope(), beans are closed directly
+                // as nobody else can access beans of a terminated thread anyway
+                for (var createdBean : threadBeans.values()) {
+                    try {
+                        createdBean.close();
+                    } catch (RuntimeException e) {
+                        log.error("failed to destroy bean of terminated thread: bean={}", createdBean.bean(), e);
+                    }
+                }
+                threadBeans.clear();
+            }
+        }
+    }
+
+    private boolean unregister(VertxThreadBeans threadBeans) {
+        // storages are maps with content based equality, so they must be matched by identity
+        return threadsBeans.removeIf(registered -> registered == threadBeans);
     }
 }
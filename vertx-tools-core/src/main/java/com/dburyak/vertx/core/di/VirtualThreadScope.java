@@ -0,0 +1,28 @@
+package com.dburyak.vertx.core.di;
+
+import jakarta.inject.Scope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Vertx virtual thread context bean scope.
+ *
+ * <p>Virtual thread counterpart of {@link WorkerScope}. Vertx runs tasks of virtual thread context on new virtual
+ * threads, so beans are bound to vertx virtual thread context (e.g. verticle deployed with
+ * {@link io.vertx.core.ThreadingModel#VIRTUAL_THREAD}) instead of the thread. Injection will fail if injected outside
+ * of vertx virtual thread context.
+ * Tasks of the same virtual thread context are never executed concurrently, so stateful beans of this scope don't
+ * need to be thread safe, though blocking calls of one task may interleave with the other tasks of the same context.
+ */
+@Scope
+@Documented
+@Retention(RUNTIME)
+@Target({TYPE, METHOD})
+public @interface VirtualThreadScope {
+}
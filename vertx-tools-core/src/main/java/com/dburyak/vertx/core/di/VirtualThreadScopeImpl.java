@@ -0,0 +1,90 @@
+package com.dburyak.vertx.core.di;
+
+import com.dburyak.vertx.core.AsyncCloseable;
+import io.micronaut.context.scope.AbstractConcurrentCustomScope;
+import io.micronaut.context.scope.CreatedBean;
+import io.micronaut.inject.BeanIdentifier;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.vertx.core.Context;
+import io.vertx.core.ThreadingModel;
+import io.vertx.core.Vertx;
+import io.vertx.core.internal.ContextInternal;
+import jakarta.inject.Singleton;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Vertx virtual thread context bean scope implementation. Beans are stored per vertx virtual thread context and are
+ * destroyed when the context is closed (e.g. verticle is undeployed), or on application shutdown.
+ *
+ * @see VirtualThreadScope
+ */
+@Singleton
+public class VirtualThreadScopeImpl extends AbstractConcurrentCustomScope<VirtualThreadScope>
+        implements AsyncStoppableScope {
+    private final Map<Context, Map<BeanIdentifier, CreatedBean<?>>> beans = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     */
+    public VirtualThreadScopeImpl() {
+        super(VirtualThreadScope.class);
+    }
+
+    @Override
+    protected Map<BeanIdentifier, CreatedBean<?>> getScopeMap(boolean forCreation) {
+        var vertxCtx = Vertx.currentContext();
+        if (vertxCtx == null || vertxCtx.threadingModel() != ThreadingModel.VIRTUAL_THREAD) {
+            if (forCreation) {
+                throw new IllegalArgumentException("not on vertx virtual thread context: currentThread="
+                        + Thread.currentThread());
+            }
+            return emptyMap();
+        }
+        return beans.computeIfAbsent(vertxCtx, ctx -> {
+            ((ContextInternal) ctx).addCloseHook(completion -> destroyCtxBeans(ctx)
+                    .subscribe(completion::succeed, completion::fail));
+            return new HashMap<>();
+        });
+    }
+
+    @Override
+    public boolean isRunning() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        beans.values().forEach(this::destroyScope);
+    }
+
+    @Override
+    public Completable stopAsync() {
+        return closeAsyncBeans(beans.values());
+    }
+
+    private Completable destroyCtxBeans(Context vertxCtx) {
+        var ctxBeans = beans.remove(vertxCtx);
+        if (ctxBeans == null) {
+            return Completable.complete();
+        }
+        return closeAsyncBeans(List.of(ctxBeans))
+                .doFinally(() -> destroyScope(ctxBeans));
+    }
+
+    private static Completable closeAsyncBeans(Collection<Map<BeanIdentifier, CreatedBean<?>>> ctxsBeans) {
+        return Observable.fromIterable(ctxsBeans)
+                .flatMapIterable(Map::values)
+                .map(CreatedBean::bean)
+                .filter(AsyncCloseable.class::isInstance)
+                .cast(AsyncCloseable.class)
+                .flatMapCompletable(AsyncCloseable::closeAsync);
+    }
+}
@@ -1,9 +1,11 @@
 package com.dburyak.vertx.core.executor;
 
+import io.vertx.core.internal.ContextInternal;
 import io.vertx.rxjava3.core.Context;
 import io.vertx.rxjava3.core.Vertx;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Objects;
 import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
@@ -12,6 +14,12 @@ import java.util.concurrent.TimeUnit;
 
 import static lombok.AccessLevel.PROTECTED;
 
+/**
+ * Base ScheduledExecutorService that executes tasks on one specific vertx context only. Scheduled tasks are backed by
+ * vertx timers of that context, so they are executed on the same thread as regular tasks, and no additional threads
+ * are needed. Fixed-rate tasks are rescheduled relative to their initial trigger time, so they do not drift. Tasks are
+ * never interrupted on cancellation, since it would interrupt vertx thread.
+ */
 @RequiredArgsConstructor(access = PROTECTED)
 public abstract class AbstractVertxCtxScheduledExecutorService extends AbstractExecutorService
         implements ScheduledExecutorService {
@@ -28,25 +36,46 @@ public abstract class AbstractVertxCtxScheduledExecutorService extends AbstractE
 
     @Override
     public ScheduledFuture<?> schedule(Runnable action, long delay, TimeUnit unit) {
-        // TODO: implement
-        throw new UnsupportedOperationException("not implemented");
+        Objects.requireNonNull(action);
+        return schedule(new VertxCtxScheduledFuture<>(ctxInternal(), action, triggerAt(delay, unit), 0L));
     }
 
     @Override
     public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-        // TODO: implement
-        throw new UnsupportedOperationException("not implemented");
+        Objects.requireNonNull(callable);
+        return schedule(new VertxCtxScheduledFuture<>(ctxInternal(), callable, triggerAt(delay, unit)));
     }
 
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-        // TODO: implement
-        throw new UnsupportedOperationException("not implemented");
+        Objects.requireNonNull(command);
+        if (period <= 0L) {
+            throw new IllegalArgumentException("period must be positive: period=" + period);
+        }
+        return schedule(new VertxCtxScheduledFuture<>(ctxInternal(), command, triggerAt(initialDelay, unit),
+                unit.toNanos(period)));
     }
 
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-        // TODO: implement
-        throw new UnsupportedOperationException("not implemented");
+        Objects.requireNonNull(command);
+        if (delay <= 0L) {
+            throw new IllegalArgumentException("delay must be positive: delay=" + delay);
+        }
+        return schedule(new VertxCtxScheduledFuture<>(ctxInternal(), command, triggerAt(initialDelay, unit),
+                -unit.toNanos(delay)));
+    }
+
+    private <V> ScheduledFuture<V> schedule(VertxCtxScheduledFuture<V> task) {
+        task.schedule();
+        return task;
+    }
+
+    private ContextInternal ctxInternal() {
+        return (ContextInternal) vertxCtx.getDelegate();
+    }
+
+    static long triggerAt(long delay, TimeUnit unit) {
+        return System.nanoTime() + unit.toNanos(Math.max(delay, 0L));
     }
 }
@@ -0,0 +1,90 @@
+package com.dburyak.vertx.core.executor;
+
+import io.netty.util.internal.PlatformDependent;
+import io.vertx.core.Handler;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executor that executes tasks on one specific vertx context only, in batches. Tasks submitted from any threads are
+ * accumulated in a lock-free multi-producer single-consumer queue and are executed in a single vertx context turn, up
+ * to configured max batch size per turn. Only the first task of a batch schedules a turn on the vertx context.
+ * <p>
+ * Useful when tasks are submitted to vertx context in bursts from foreign threads, e.g. callbacks of 3rd party async
+ * clients (gRPC, Pub/Sub, etc.): compared to {@link VertxCtxExecutor} it reduces number of event loop wakeups and
+ * allocations per task. Tasks are executed in submission order. Remaining tasks of a too large burst are executed in
+ * the next turns, so that other handlers of the same event loop are not starved.
+ */
+public class VertxCtxBatchingExecutor implements Executor {
+
+    /**
+     * Default max number of tasks executed in a single vertx context turn.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    protected final Context vertxCtx;
+    private final ContextInternal ctxInternal;
+    private final int maxBatchSize;
+    private final Queue<Runnable> tasks = PlatformDependent.newMpscQueue();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Handler<Void> drainHandler = ignr -> drain();
+
+    public VertxCtxBatchingExecutor(Vertx vertx) {
+        this(vertx.getOrCreateContext());
+    }
+
+    public VertxCtxBatchingExecutor(Context vertxCtx) {
+        this(vertxCtx, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public VertxCtxBatchingExecutor(Vertx vertx, int maxBatchSize) {
+        this(vertx.getOrCreateContext(), maxBatchSize);
+    }
+
+    public VertxCtxBatchingExecutor(Context vertxCtx, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("max batch size must be positive: maxBatchSize=" + maxBatchSize);
+        }
+        this.vertxCtx = vertxCtx;
+        this.ctxInternal = (ContextInternal) vertxCtx.getDelegate();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void execute(Runnable action) {
+        tasks.offer(Objects.requireNonNull(action));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            ctxInternal.runOnContext(drainHandler);
+        }
+    }
+
+    private void drain() {
+        for (var i = 0; i < maxBatchSize; i++) {
+            var task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // same as for the task submitted with runOnContext, failure of one task must not affect the others
+                ctxInternal.reportException(e);
+            }
+        }
+        drainScheduled.set(false);
+        // tasks submitted after the last poll, or the rest of the too large batch
+        if (!tasks.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
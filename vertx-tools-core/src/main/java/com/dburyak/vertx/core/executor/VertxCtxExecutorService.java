@@ -0,0 +1,217 @@
+package com.dburyak.vertx.core.executor;
+
+import com.dburyak.vertx.core.AsyncCloseable;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.subjects.CompletableSubject;
+import io.vertx.core.Handler;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ExecutorService that executes tasks on one specific vertx context only, with full lifecycle support. Unlike
+ * {@link VertxCtxMinimalExecutorService} and {@link VertxCtxMinimalStrictExecutorService}, it tracks pending tasks and
+ * can be safely handed to 3rd party libraries that manage executor lifecycle themselves.
+ * <p>
+ * Number of pending tasks and shutdown state are tracked with a single lock-free counter. Tasks submitted after
+ * {@link #shutdown()} are rejected with {@link RejectedExecutionException}. {@link #shutdownNow()} returns tasks that
+ * were queued but not started yet, no task is started after it returns: tasks that are submitted concurrently and are
+ * not returned by it are rejected. Running tasks are never interrupted, since it would interrupt vertx thread.
+ * <p>
+ * {@link #awaitTermination(long, TimeUnit)} never blocks event loop threads, use {@link #terminated()} to wait for
+ * termination asynchronously. Executor services created with {@link VertxCtxExecutorServiceRegistry} are shut down
+ * automatically on application shutdown.
+ */
+@Slf4j
+public class VertxCtxExecutorService extends AbstractExecutorService implements AsyncCloseable {
+    private static final int SHUTDOWN = Integer.MIN_VALUE;
+
+    protected final Context vertxCtx;
+
+    /**
+     * Shutdown flag (sign bit) and number of pending tasks (other bits).
+     */
+    private final AtomicInteger ctl = new AtomicInteger();
+    private final Queue<Runnable> queued = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Guards taking tasks from the queue after {@link #shutdownNow()}. Is contended only by shutdownNow, since tasks are
+     * taken on the single vertx context.
+     */
+    private final Object takeLock = new Object();
+    private volatile boolean stopped;
+    private final Handler<Void> runNextHandler = ignr -> runNext();
+    private final CountDownLatch terminatedLatch = new CountDownLatch(1);
+    private final CompletableSubject terminated = CompletableSubject.create();
+
+    public VertxCtxExecutorService(Vertx vertx) {
+        this(vertx.getOrCreateContext());
+    }
+
+    public VertxCtxExecutorService(Context vertxCtx) {
+        this.vertxCtx = vertxCtx;
+    }
+
+    @Override
+    public void execute(Runnable action) {
+        Objects.requireNonNull(action);
+        taskStarted();
+        queued.offer(action);
+        // shutdownNow could drain the queue between the increment and the offer, then the task is neither returned by
+        // it nor must be run
+        if (stopped && queued.remove(action)) {
+            tasksDone(1);
+            throw new RejectedExecutionException("executor service is shut down: ctx=" + vertxCtx.getDelegate());
+        }
+        vertxCtx.runOnContext(runNextHandler);
+    }
+
+    @Override
+    public void shutdown() {
+        if (ctl.getAndUpdate(c -> c | SHUTDOWN) == 0) {
+            terminate();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        var notStarted = new ArrayList<Runnable>();
+        synchronized (takeLock) {
+            stopped = true;
+            Runnable task;
+            while ((task = queued.poll()) != null) {
+                notStarted.add(task);
+            }
+        }
+        if (!notStarted.isEmpty()) {
+            tasksDone(notStarted.size());
+        }
+        return notStarted;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return (ctl.get() & SHUTDOWN) != 0;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminatedLatch.getCount() == 0;
+    }
+
+    /**
+     * Block until all the tasks have completed execution after a shutdown request, or the timeout occurs. Event loop
+     * threads, as well as the context of this executor service itself, are never blocked: in this case termination
+     * state is returned immediately.
+     *
+     * @param timeout max time to wait
+     * @param unit time unit of the timeout argument
+     *
+     * @return true if this executor service terminated, false otherwise
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (isTerminated()) {
+            return true;
+        }
+        if (io.vertx.core.Context.isOnEventLoopThread()
+                || io.vertx.core.Vertx.currentContext() == vertxCtx.getDelegate()) {
+            log.debug("refusing to block vertx thread on executor service termination: ctx={}",
+                    vertxCtx.getDelegate());
+            return false;
+        }
+        return terminatedLatch.await(timeout, unit);
+    }
+
+    /**
+     * Termination of this executor service.
+     *
+     * @return completable that completes when this executor service is shut down and all the tasks are completed
+     */
+    public Completable terminated() {
+        return terminated;
+    }
+
+    /**
+     * Gracefully shut down this executor service: reject new tasks and wait for pending tasks to complete. If the
+     * returned completable is disposed before that (e.g. on close timeout), tasks that are not started yet are dropped.
+     *
+     * @return completable that completes when this executor service is terminated
+     */
+    @Override
+    public Completable closeAsync() {
+        return Completable.defer(() -> {
+                    shutdown();
+                    return terminated;
+                })
+                .doOnDispose(() -> {
+                    var dropped = shutdownNow();
+                    if (!dropped.isEmpty()) {
+                        log.warn("executor service was not terminated in time, dropping tasks: ctx={}, numTasks={}",
+                                vertxCtx.getDelegate(), dropped.size());
+                    }
+                });
+    }
+
+    private void runNext() {
+        Runnable task;
+        synchronized (takeLock) {
+            task = stopped ? null : queued.poll();
+        }
+        if (task == null) {
+            // task was removed by shutdownNow
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            tasksDone(1);
+        }
+    }
+
+    /**
+     * Count a new pending task. Executor service is not terminated until the task is reported to be done with
+     * {@link #tasksDone(int)}.
+     *
+     * @throws RejectedExecutionException if this executor service is shut down
+     */
+    protected final void taskStarted() {
+        int c;
+        do {
+            c = ctl.get();
+            if ((c & SHUTDOWN) != 0) {
+                throw new RejectedExecutionException("executor service is shut down: ctx=" + vertxCtx.getDelegate());
+            }
+        } while (!ctl.compareAndSet(c, c + 1));
+    }
+
+    /**
+     * Count pending tasks as done, and terminate this executor service if it is shut down and no tasks are pending.
+     *
+     * @param numTasks number of tasks that are done
+     */
+    protected final void tasksDone(int numTasks) {
+        if (ctl.addAndGet(-numTasks) == SHUTDOWN) {
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        terminatedLatch.countDown();
+        terminated.onComplete();
+    }
+}
@@ -0,0 +1,87 @@
+package com.dburyak.vertx.core.executor;
+
+import com.dburyak.vertx.core.AsyncCloseable;
+import io.reactivex.rxjava3.core.Completable;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {@link VertxCtxExecutorService} and {@link VertxCtxScheduledExecutorService} instances and shuts them down
+ * gracefully on application shutdown. Beans that inject this registry are closed before it (see
+ * {@link AsyncCloseable}), so client libraries that use created executor services are stopped first, and then their
+ * remaining tasks are drained.
+ */
+@Singleton
+public class VertxCtxExecutorServiceRegistry implements AsyncCloseable {
+    private final Vertx vertx;
+    private final Set<VertxCtxExecutorService> executorServices = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param vertx vertx instance
+     */
+    public VertxCtxExecutorServiceRegistry(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * Create executor service bound to the current vertx context, or to a new event loop context if called outside of
+     * vertx context.
+     *
+     * @return executor service
+     */
+    public VertxCtxExecutorService newExecutorService() {
+        return newExecutorService(vertx.getOrCreateContext());
+    }
+
+    /**
+     * Create executor service bound to the specified vertx context.
+     *
+     * @param vertxCtx vertx context to execute tasks on
+     *
+     * @return executor service
+     */
+    public VertxCtxExecutorService newExecutorService(Context vertxCtx) {
+        return register(new VertxCtxExecutorService(vertxCtx));
+    }
+
+    /**
+     * Create scheduled executor service bound to the current vertx context, or to a new event loop context if called
+     * outside of vertx context.
+     *
+     * @return scheduled executor service
+     */
+    public VertxCtxScheduledExecutorService newScheduledExecutorService() {
+        return newScheduledExecutorService(vertx.getOrCreateContext());
+    }
+
+    /**
+     * Create scheduled executor service bound to the specified vertx context.
+     *
+     * @param vertxCtx vertx context to execute tasks on
+     *
+     * @return scheduled executor service
+     */
+    public VertxCtxScheduledExecutorService newScheduledExecutorService(Context vertxCtx) {
+        return register(new VertxCtxScheduledExecutorService(vertxCtx));
+    }
+
+    private <E extends VertxCtxExecutorService> E register(E executorService) {
+        executorServices.add(executorService);
+        executorService.terminated().subscribe(() -> executorServices.remove(executorService));
+        return executorService;
+    }
+
+    @Override
+    public Completable closeAsync() {
+        return Completable.defer(() -> Completable.merge(List.copyOf(executorServices).stream()
+                .map(VertxCtxExecutorService::closeAsync)
+                .toList()));
+    }
+}
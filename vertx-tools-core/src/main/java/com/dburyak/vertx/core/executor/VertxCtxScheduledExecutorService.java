@@ -0,0 +1,116 @@
+package com.dburyak.vertx.core.executor;
+
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.dburyak.vertx.core.executor.AbstractVertxCtxScheduledExecutorService.triggerAt;
+
+/**
+ * ScheduledExecutorService that executes tasks on one specific vertx context only, with full lifecycle support of
+ * {@link VertxCtxExecutorService}. Scheduled tasks are backed by vertx timers of that context, same as in
+ * {@link AbstractVertxCtxScheduledExecutorService}.
+ * <p>
+ * Every scheduled task is counted as pending until it is done, cancelled or fails. Delayed and periodic tasks that did
+ * not run yet are cancelled on {@link #shutdown()}, so termination is never held back by timers, in particular by
+ * periodic tasks that never end on their own. Tasks scheduled after shutdown are rejected with
+ * {@link RejectedExecutionException}.
+ */
+public class VertxCtxScheduledExecutorService extends VertxCtxExecutorService implements ScheduledExecutorService {
+    private final Set<TrackedScheduledFuture<?>> scheduled = ConcurrentHashMap.newKeySet();
+
+    public VertxCtxScheduledExecutorService(Vertx vertx) {
+        super(vertx);
+    }
+
+    public VertxCtxScheduledExecutorService(Context vertxCtx) {
+        super(vertxCtx);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable action, long delay, TimeUnit unit) {
+        Objects.requireNonNull(action);
+        taskStarted();
+        return schedule(new TrackedScheduledFuture<>(ctxInternal(), action, triggerAt(delay, unit), 0L));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        Objects.requireNonNull(callable);
+        taskStarted();
+        return schedule(new TrackedScheduledFuture<>(ctxInternal(), callable, triggerAt(delay, unit)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        Objects.requireNonNull(command);
+        if (period <= 0L) {
+            throw new IllegalArgumentException("period must be positive: period=" + period);
+        }
+        taskStarted();
+        return schedule(new TrackedScheduledFuture<>(ctxInternal(), command, triggerAt(initialDelay, unit),
+                unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        Objects.requireNonNull(command);
+        if (delay <= 0L) {
+            throw new IllegalArgumentException("delay must be positive: delay=" + delay);
+        }
+        taskStarted();
+        return schedule(new TrackedScheduledFuture<>(ctxInternal(), command, triggerAt(initialDelay, unit),
+                -unit.toNanos(delay)));
+    }
+
+    /**
+     * Initiate shutdown: reject new tasks and cancel delayed and periodic tasks, previously submitted regular tasks
+     * are executed.
+     */
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        scheduled.forEach(task -> task.cancel(false));
+    }
+
+    private <V> ScheduledFuture<V> schedule(TrackedScheduledFuture<V> task) {
+        scheduled.add(task);
+        task.schedule();
+        // shutdown could cancel scheduled tasks between the pending task increment and adding the task to the set
+        if (isShutdown()) {
+            task.cancel(false);
+        }
+        return task;
+    }
+
+    private ContextInternal ctxInternal() {
+        return (ContextInternal) vertxCtx.getDelegate();
+    }
+
+    private final class TrackedScheduledFuture<V> extends VertxCtxScheduledFuture<V> {
+
+        private TrackedScheduledFuture(ContextInternal vertxCtx, Callable<V> callable, long triggerAt) {
+            super(vertxCtx, callable, triggerAt);
+        }
+
+        private TrackedScheduledFuture(ContextInternal vertxCtx, Runnable action, long triggerAt, long period) {
+            super(vertxCtx, action, triggerAt, period);
+        }
+
+        @Override
+        protected void done() {
+            if (scheduled.remove(this)) {
+                tasksDone(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.dburyak.vertx.core.executor;
+
+import io.vertx.core.internal.ContextInternal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Scheduled task backed by vertx timers of a single vertx context. Every run (including every run of periodic task) is
+ * scheduled as a separate one-shot timer, so that the next trigger time of fixed-rate task is always computed from the
+ * initial trigger time and does not drift because of timer millisecond granularity or task execution time.
+ *
+ * @param <V> result type
+ */
+class VertxCtxScheduledFuture<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+    private static final AtomicLong SEQUENCER = new AtomicLong();
+    private static final long NO_TIMER = -1L;
+
+    private final ContextInternal vertxCtx;
+    private final long seqNum = SEQUENCER.getAndIncrement();
+
+    /**
+     * Period in nanoseconds: positive for fixed-rate, negative for fixed-delay, zero for one-shot tasks.
+     */
+    private final long period;
+    private volatile long triggerAt;
+    private volatile long timerId = NO_TIMER;
+
+    VertxCtxScheduledFuture(ContextInternal vertxCtx, Callable<V> callable, long triggerAt) {
+        super(callable);
+        this.vertxCtx = vertxCtx;
+        this.triggerAt = triggerAt;
+        this.period = 0L;
+    }
+
+    VertxCtxScheduledFuture(ContextInternal vertxCtx, Runnable action, long triggerAt, long period) {
+        super(action, null);
+        this.vertxCtx = vertxCtx;
+        this.triggerAt = triggerAt;
+        this.period = period;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(triggerAt - System.nanoTime(), NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other == this) {
+            return 0;
+        }
+        if (other instanceof VertxCtxScheduledFuture<?> otherTask) {
+            var diff = triggerAt - otherTask.triggerAt;
+            if (diff != 0L) {
+                return diff < 0L ? -1 : 1;
+            }
+            return seqNum < otherTask.seqNum ? -1 : 1;
+        }
+        return Long.compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+    }
+
+    @Override
+    public boolean isPeriodic() {
+        return period != 0L;
+    }
+
+    @Override
+    public void run() {
+        if (!isPeriodic()) {
+            super.run();
+        } else if (super.runAndReset()) {
+            triggerAt = period > 0L ? triggerAt + period : System.nanoTime() - period;
+            schedule();
+        }
+    }
+
+    /**
+     * Cancel the task. Event loop threads are never interrupted, so {@code mayInterruptIfRunning} is ignored.
+     *
+     * @param mayInterruptIfRunning ignored
+     *
+     * @return whether the task was cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        var cancelled = super.cancel(false);
+        var id = timerId;
+        if (cancelled && id != NO_TIMER) {
+            vertxCtx.owner().cancelTimer(id);
+        }
+        return cancelled;
+    }
+
+    /**
+     * Schedule next run of this task on the vertx context at its trigger time.
+     */
+    void schedule() {
+        var delay = triggerAt - System.nanoTime();
+        if (delay <= 0L) {
+            timerId = NO_TIMER;
+            vertxCtx.runOnContext(ignr -> run());
+        } else {
+            // vertx timers have millisecond granularity, rounding up guarantees that the task never runs too early
+            var delayMs = Math.max(1L, MILLISECONDS.convert(delay + MILLISECONDS.toNanos(1L) - 1L, NANOSECONDS));
+            timerId = vertxCtx.setTimer(delayMs, ignr -> run());
+        }
+    }
+}
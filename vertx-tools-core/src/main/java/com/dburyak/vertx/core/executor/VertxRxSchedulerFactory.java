@@ -1,13 +1,19 @@
 package com.dburyak.vertx.core.executor;
 
 import com.dburyak.vertx.core.di.ForEventLoop;
+import com.dburyak.vertx.core.di.ForVirtualThread;
 import com.dburyak.vertx.core.di.ForWorker;
+import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
 import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import io.vertx.rxjava3.core.RxHelper;
 import io.vertx.rxjava3.core.Vertx;
 import jakarta.inject.Singleton;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Rxjava schedulers adapted for vertx concurrency model.
  */
@@ -39,4 +45,31 @@ public class VertxRxSchedulerFactory {
     public Scheduler vertxRxBlockingScheduler(Vertx vertx) {
         return RxHelper.blockingScheduler(vertx, false);
     }
+
+    /**
+     * Executor that runs every task on a new virtual thread. Is useful for blocking calls that should not occupy the
+     * limited vertx worker pool.
+     *
+     * @return virtual thread executor
+     */
+    @Singleton
+    @ForVirtualThread
+    @Bean(preDestroy = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vertx-tools-virtual-thread-", 0).factory());
+    }
+
+    /**
+     * Scheduler for virtual threads. Tasks of a single rx worker (e.g. single subscription) are executed sequentially,
+     * tasks of different rx workers are executed concurrently, each on its own virtual thread.
+     *
+     * @param virtualThreadExecutor virtual thread executor
+     *
+     * @return scheduler for virtual threads
+     */
+    @Singleton
+    @ForVirtualThread
+    public Scheduler vertxRxVirtualThreadScheduler(@ForVirtualThread ExecutorService virtualThreadExecutor) {
+        return Schedulers.from(virtualThreadExecutor);
+    }
 }
@@ -0,0 +1,41 @@
+package com.dburyak.vertx.core.metrics;
+
+import com.dburyak.vertx.core.di.AppStartup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Binds all {@link MeterBinder} beans to the {@link MeterRegistry} bean on application startup, so that modules can
+ * export their metrics just by declaring a meter binder bean.
+ */
+@AppStartup
+@Singleton
+@Slf4j
+public class MeterBindersInitializer {
+    private final List<MeterBinder> meterBinders;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param meterBinders meter binders
+     * @param meterRegistry meter registry
+     */
+    public MeterBindersInitializer(List<MeterBinder> meterBinders, MeterRegistry meterRegistry) {
+        this.meterBinders = meterBinders;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        for (var meterBinder : meterBinders) {
+            log.debug("bind meters: binder={}", meterBinder.getClass().getName());
+            meterBinder.bindTo(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.dburyak.vertx.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+/**
+ * Factory for metrics related beans.
+ */
+@Factory
+public class MeterRegistryFactory {
+
+    /**
+     * {@link MeterRegistry} bean. Defaults to micrometer global registry, so that metrics are exported by all the
+     * registries added to it. Applications can provide their own registry bean instead.
+     *
+     * @return singleton instance of {@link MeterRegistry}
+     */
+    @Singleton
+    @Requires(missingBeans = MeterRegistry.class)
+    public MeterRegistry meterRegistry() {
+        return Metrics.globalRegistry;
+    }
+}
@@ -0,0 +1,104 @@
+package com.dburyak.vertx.core.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Converts method handles (e.g. of constructors looked up once per class) to functional interfaces. Lambda is
+ * generated with {@link LambdaMetafactory}, so calling it costs the same as a direct call of the target method. If
+ * lambda can not be generated (e.g. target class is loaded by a child class loader), method handle is invoked instead.
+ */
+@Slf4j
+public final class LambdaFactories {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType UNARY_OPERATOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private LambdaFactories() {
+    }
+
+    /**
+     * Convert no-args method handle to supplier.
+     *
+     * @param target method handle to call, e.g. no-args constructor
+     *
+     * @return supplier that calls method handle
+     */
+    @SuppressWarnings("unchecked")
+    public static Supplier<Object> supplier(MethodHandle target) {
+        var lambda = (Supplier<Object>) lambda(Supplier.class, "get", SUPPLIER_TYPE, target);
+        if (lambda != null) {
+            return lambda;
+        }
+        var genericTarget = target.asType(SUPPLIER_TYPE);
+        return () -> {
+            try {
+                return genericTarget.invokeExact();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new RuntimeException(ex);
+            }
+        };
+    }
+
+    /**
+     * Convert single-arg method handle to unary operator.
+     *
+     * @param target method handle to call, e.g. copy constructor
+     *
+     * @return unary operator that calls method handle
+     */
+    @SuppressWarnings("unchecked")
+    public static UnaryOperator<Object> unaryOperator(MethodHandle target) {
+        var lambda = (UnaryOperator<Object>) lambda(UnaryOperator.class, "apply", UNARY_OPERATOR_TYPE, target);
+        if (lambda != null) {
+            return lambda;
+        }
+        var genericTarget = target.asType(UNARY_OPERATOR_TYPE);
+        return arg -> {
+            try {
+                return genericTarget.invokeExact(arg);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new RuntimeException(ex);
+            }
+        };
+    }
+
+    private static Object lambda(Class<?> functionalInterface, String methodName, MethodType erasedType,
+            MethodHandle target) {
+        var targetType = target.type();
+        if (!isVisible(targetType.returnType()) || !targetType.parameterList().stream()
+                .allMatch(LambdaFactories::isVisible)) {
+            return null;
+        }
+        try {
+            var callSite = LambdaMetafactory.metafactory(LOOKUP, methodName,
+                    MethodType.methodType(functionalInterface), erasedType, target, targetType);
+            return callSite.getTarget().invoke();
+        } catch (Throwable e) {
+            log.debug("failed to generate lambda, will use method handle: target={}", target, e);
+            return null;
+        }
+    }
+
+    // lambda class is defined in the class loader of this class, so it can not link classes of child class loaders
+    private static boolean isVisible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, LambdaFactories.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
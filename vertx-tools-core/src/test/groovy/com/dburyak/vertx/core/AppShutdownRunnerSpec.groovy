@@ -0,0 +1,197 @@
+package com.dburyak.vertx.core
+
+import com.dburyak.vertx.core.config.VertxDiAppProperties
+import com.dburyak.vertx.core.di.AsyncStoppableScope
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.BeanRegistration
+import io.micronaut.inject.BeanDefinition
+import io.reactivex.rxjava3.core.Completable
+import io.reactivex.rxjava3.schedulers.Schedulers
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class AppShutdownRunnerSpec extends Specification {
+    def events = new ConcurrentLinkedQueue<String>()
+    def running = new AtomicInteger()
+    def maxRunning = new AtomicInteger()
+    def report = new LifecycleReport(LifecycleReport.SHUTDOWN_METRIC)
+
+    def 'scopes are stopped first, then beans are closed in reverse dependency order'() {
+        given:
+        def scope = Stub(AsyncStoppableScope) {
+            stopAsync() >> action('scope', 10)
+        }
+        def runner = runner(8, Duration.ofSeconds(20), [
+                bean(First, action('first', 10)),
+                bean(Third, action('third', 10), [Second]),
+                bean(Second, action('second', 100), [First]),
+        ], [scope])
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        events.toList() == ['start scope', 'end scope', 'start third', 'end third', 'start second', 'end second',
+                            'start first', 'end first']
+        report.getPhases(LifecycleReport.BEAN_CLOSE)*.target() == [Third.name, Second.name, First.name]
+    }
+
+    def 'bean not closed within its own timeout is abandoned and shutdown proceeds'() {
+        given:
+        def runner = runner(8, Duration.ofSeconds(20), [
+                bean(First, action('first', 10)),
+                bean(Second, Completable.never(), [First], Duration.ofMillis(200)),
+        ])
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        report.timedOutPhases*.target() == [Second.name]
+        events.toList() == ['start first', 'end first']
+    }
+
+    def 'failed bean does not stop shutdown'() {
+        given:
+        def runner = runner(8, Duration.ofSeconds(20), [
+                bean(First, action('first', 10)),
+                bean(Second, Completable.error(new IllegalStateException('test')), [First]),
+        ])
+
+        expect:
+        runner.run().test().await().assertComplete()
+        events.toList() == ['start first', 'end first']
+    }
+
+    def 'beans not closed within global timeout are abandoned'() {
+        given:
+        def runner = runner(8, Duration.ofMillis(300), [
+                bean(First, action('first', 10)),
+                bean(Second, Completable.never(), [First]),
+        ])
+        def startedAt = System.nanoTime()
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        System.nanoTime() - startedAt < SECONDS.toNanos(5)
+        report.timedOutPhases*.target() == [Second.name]
+        events.isEmpty()
+    }
+
+    def 'cyclic dependency is broken and all the beans are closed'() {
+        given:
+        def runner = runner(8, Duration.ofSeconds(20), [
+                bean(First, action('first', 10), [Second]),
+                bean(Second, action('second', 10), [First]),
+        ])
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        events.toList().containsAll(['end first', 'end second'])
+        report.timedOutPhases.isEmpty()
+    }
+
+    def 'no more than configured number of beans are closed at the same time'() {
+        given:
+        def runner = runner(2, Duration.ofSeconds(20),
+                [First, Second, Third, Fourth].collect { bean(it, action(it.simpleName, 50)) })
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        maxRunning.get() == 2
+        events.count { it.startsWith('end') } == 4
+    }
+
+    def 'bean waiting for its dependents does not take a concurrency slot'() {
+        given: 'first waits for slow second, while third waits only for fast fourth'
+        def runner = runner(2, Duration.ofSeconds(20), [
+                bean(Second, action('second', 300), [First]),
+                bean(Fourth, action('fourth', 10), [Third]),
+                bean(First, action('first', 10)),
+                bean(Third, action('third', 10)),
+        ])
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        events.toList().indexOf('end third') < events.toList().indexOf('end second')
+        events.toList().indexOf('end second') < events.toList().indexOf('start first')
+    }
+
+    private Completable action(String name, long millis) {
+        Completable.defer {
+            events << "start $name".toString()
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+            Completable.timer(millis, MILLISECONDS)
+        }.doOnTerminate {
+            running.decrementAndGet()
+            events << "end $name".toString()
+        }
+    }
+
+    private BeanRegistration<AsyncCloseable> bean(Class<? extends TestBean> type, Completable close,
+            List<Class> requires = [], Duration timeout = null) {
+        def instance = type.getDeclaredConstructor().newInstance()
+        instance.close = close
+        instance.timeout = timeout
+        def beanDef = Stub(BeanDefinition) {
+            getBeanType() >> type
+            getRequiredComponents() >> (requires as Set)
+        }
+        Stub(BeanRegistration) {
+            getBean() >> instance
+            getBeanDefinition() >> beanDef
+        }
+    }
+
+    private AppShutdownRunner runner(int concurrency, Duration closeTimeout, List<BeanRegistration> beans,
+            List<AsyncStoppableScope> scopes = []) {
+        def appProps = new VertxDiAppProperties(16, 8, Duration.ofSeconds(60), concurrency, closeTimeout,
+                Duration.ofSeconds(10), Duration.ofSeconds(10))
+        def appCtx = Stub(ApplicationContext) {
+            getBeansOfType(AsyncStoppableScope) >> scopes
+            getActiveBeanRegistrations(AsyncCloseable) >> beans
+        }
+        new AppShutdownRunner(appCtx, appProps, Schedulers.computation(), report)
+    }
+
+    static class TestBean implements AsyncCloseable {
+        Completable close
+        Duration timeout
+
+        @Override
+        Completable closeAsync() {
+            close
+        }
+
+        @Override
+        Optional<Duration> closeTimeout() {
+            Optional.ofNullable(timeout)
+        }
+    }
+
+    static class First extends TestBean {
+    }
+
+    static class Second extends TestBean {
+    }
+
+    static class Third extends TestBean {
+    }
+
+    static class Fourth extends TestBean {
+    }
+}
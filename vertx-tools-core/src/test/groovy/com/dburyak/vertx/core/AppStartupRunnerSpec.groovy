@@ -0,0 +1,166 @@
+package com.dburyak.vertx.core
+
+import com.dburyak.vertx.core.config.VertxDiAppProperties
+import com.dburyak.vertx.core.di.AppStartup
+import io.micronaut.context.ApplicationContext
+import io.micronaut.core.annotation.AnnotationMetadata
+import io.micronaut.core.convert.MutableConversionService
+import io.micronaut.inject.BeanDefinition
+import io.reactivex.rxjava3.core.Completable
+import io.reactivex.rxjava3.schedulers.Schedulers
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class AppStartupRunnerSpec extends Specification {
+    def events = new ConcurrentLinkedQueue<String>()
+    def running = new AtomicInteger()
+    def maxRunning = new AtomicInteger()
+    def report = new LifecycleReport(LifecycleReport.STARTUP_METRIC)
+
+    def 'bean is initialized only after its dependencies and critical path is reported'() {
+        given:
+        def runner = runner(8, [
+                bean(Third, action('third', 10), [Second]),
+                bean(First, action('first', 100)),
+                bean(Second, action('second', 10), [First]),
+        ])
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        events.toList() == ['start first', 'end first', 'start second', 'end second', 'start third', 'end third']
+        report.criticalPath*.target() == [First.name, Second.name, Third.name]
+    }
+
+    def 'cyclic dependency fails startup'() {
+        given:
+        def runner = runner(8, [
+                bean(First, action('first', 10), [Second]),
+                bean(Second, action('second', 10), [First]),
+        ])
+
+        expect:
+        runner.run().test().await().assertError(IllegalArgumentException)
+        events.isEmpty()
+    }
+
+    def 'bean that is not initialized within its own timeout fails startup'() {
+        given:
+        def runner = runner(8, [bean(First, Completable.never(), [], '0.2s')])
+
+        expect:
+        runner.run().test().await().assertError(TimeoutException)
+        report.timedOutPhases*.target() == [First.name]
+    }
+
+    def 'time spent waiting for dependencies is not included in bean timeout'() {
+        given:
+        def runner = runner(8, [
+                bean(First, action('first', 500)),
+                bean(Second, action('second', 10), [First], '0.2s'),
+        ])
+
+        expect:
+        runner.run().test().await().assertComplete()
+        report.timedOutPhases.isEmpty()
+    }
+
+    def 'no more than configured number of beans are initialized at the same time'() {
+        given:
+        def runner = runner(2, [First, Second, Third, Fourth, Fifth].collect { bean(it, action(it.simpleName, 50)) })
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        maxRunning.get() == 2
+        events.count { it.startsWith('end') } == 5
+    }
+
+    def 'bean waiting for its dependencies does not take a concurrency slot'() {
+        given: 'second and fourth wait for slow first, while chain of third and fifth can proceed'
+        def runner = runner(2, [
+                bean(First, action('first', 500)),
+                bean(Second, action('second', 10), [First]),
+                bean(Third, action('third', 10)),
+                bean(Fourth, action('fourth', 10), [First]),
+                bean(Fifth, action('fifth', 10), [Third]),
+        ])
+
+        when:
+        runner.run().blockingAwait(5, SECONDS)
+
+        then:
+        events.toList().indexOf('end fifth') < events.toList().indexOf('end first')
+        maxRunning.get() <= 2
+    }
+
+    private Completable action(String name, long millis) {
+        Completable.defer {
+            events << "start $name".toString()
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+            Completable.timer(millis, MILLISECONDS)
+        }.doOnTerminate {
+            running.decrementAndGet()
+            events << "end $name".toString()
+        }
+    }
+
+    private List bean(Class<? extends TestBean> type, Completable init, List<Class> deps = [], String timeout = null) {
+        def instance = type.getDeclaredConstructor().newInstance()
+        instance.init = init
+        def beanDef = Stub(BeanDefinition) {
+            getBeanType() >> type
+            getAnnotationMetadata() >> Stub(AnnotationMetadata) {
+                classValues(AppStartup, 'dependsOn') >> (deps as Class[])
+                stringValue(AppStartup, 'timeout') >> Optional.ofNullable(timeout)
+            }
+        }
+        [beanDef, instance]
+    }
+
+    private AppStartupRunner runner(int concurrency, List<List> beans) {
+        def appProps = new VertxDiAppProperties(16, concurrency, Duration.ofSeconds(60), 8, Duration.ofSeconds(20),
+                Duration.ofSeconds(10), Duration.ofSeconds(10))
+        def appCtx = Stub(ApplicationContext) {
+            getBeanDefinitions(Object, _) >> beans.collect { it[0] }
+            getBean(_ as BeanDefinition) >> { BeanDefinition beanDef -> beans.find { it[0].is(beanDef) }[1] }
+            getConversionService() >> Stub(MutableConversionService) {
+                convertRequired(_, Duration) >> { value, type -> Duration.parse("PT$value") }
+            }
+        }
+        new AppStartupRunner(appCtx, appProps, Schedulers.computation(), report)
+    }
+
+    static class TestBean implements AsyncInitializable {
+        Completable init
+
+        @Override
+        Completable initAsync() {
+            init
+        }
+    }
+
+    static class First extends TestBean {
+    }
+
+    static class Second extends TestBean {
+    }
+
+    static class Third extends TestBean {
+    }
+
+    static class Fourth extends TestBean {
+    }
+
+    static class Fifth extends TestBean {
+    }
+}
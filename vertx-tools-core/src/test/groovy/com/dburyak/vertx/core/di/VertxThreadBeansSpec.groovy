@@ -0,0 +1,115 @@
+package com.dburyak.vertx.core.di
+
+import io.micronaut.context.scope.CreatedBean
+import io.micronaut.inject.BeanIdentifier
+import spock.lang.Specification
+
+class VertxThreadBeansSpec extends Specification {
+
+    def ordinals = new BeanOrdinals()
+    def threadBeans = new VertxThreadBeans(ordinals, Thread.currentThread())
+
+    def 'get returns null for unknown bean'() {
+        expect:
+        threadBeans.get(BeanIdentifier.of('unknown')) == null
+        threadBeans.isEmpty()
+    }
+
+    def 'put and get bean by identifier'() {
+        given:
+        def bean = Mock(CreatedBean)
+
+        when:
+        def prev = threadBeans.put(BeanIdentifier.of('bean'), bean)
+
+        then:
+        prev == null
+        threadBeans.get(BeanIdentifier.of('bean')).is(bean)
+        threadBeans.size() == 1
+    }
+
+    def 'same identifier gets same ordinal for all threads'() {
+        given:
+        def otherThreadBeans = new VertxThreadBeans(ordinals, Thread.currentThread())
+        def bean1 = Mock(CreatedBean)
+        def bean2 = Mock(CreatedBean)
+
+        when:
+        threadBeans.put(BeanIdentifier.of('bean'), bean1)
+        otherThreadBeans.put(BeanIdentifier.of('bean'), bean2)
+
+        then:
+        ordinals.size() == 1
+        threadBeans.get(BeanIdentifier.of('bean')).is(bean1)
+        otherThreadBeans.get(BeanIdentifier.of('bean')).is(bean2)
+    }
+
+    def 'grows beyond initial capacity'() {
+        given:
+        def beans = (0..<100).collectEntries { [(BeanIdentifier.of("bean-$it".toString())): Mock(CreatedBean)] }
+
+        when:
+        beans.each { id, bean -> threadBeans.put(id, bean) }
+
+        then:
+        threadBeans.size() == 100
+        beans.every { id, bean -> threadBeans.get(id).is(bean) }
+        threadBeans.values().toSet() == beans.values().toSet()
+        threadBeans.keySet() == beans.keySet()
+    }
+
+    def 'remove and clear beans'() {
+        given:
+        def bean1 = Mock(CreatedBean)
+        def bean2 = Mock(CreatedBean)
+        threadBeans.put(BeanIdentifier.of('bean1'), bean1)
+        threadBeans.put(BeanIdentifier.of('bean2'), bean2)
+
+        when:
+        def removed = threadBeans.remove(BeanIdentifier.of('bean1'))
+
+        then:
+        removed.is(bean1)
+        threadBeans.size() == 1
+        threadBeans.values().toList() == [bean2]
+
+        when:
+        threadBeans.clear()
+
+        then:
+        threadBeans.isEmpty()
+        threadBeans.get(BeanIdentifier.of('bean2')) == null
+    }
+
+    def 'bean registered by other thread is resolved with the same ordinal'() {
+        given:
+        def otherThreadBeans = new VertxThreadBeans(ordinals, Thread.currentThread())
+        def bean1 = Mock(CreatedBean)
+        def bean2 = Mock(CreatedBean)
+        (0..<20).each { otherThreadBeans.put(BeanIdentifier.of("other-$it".toString()), Mock(CreatedBean)) }
+        otherThreadBeans.put(BeanIdentifier.of('bean'), bean1)
+
+        when:
+        def before = threadBeans.get(BeanIdentifier.of('bean'))
+        threadBeans.put(BeanIdentifier.of('bean'), bean2)
+
+        then:
+        before == null
+        ordinals.size() == 21
+        threadBeans.get(BeanIdentifier.of('bean')).is(bean2)
+        threadBeans.size() == 1
+    }
+
+    def 'storage of terminated thread is detected'() {
+        given:
+        def thread = Thread.start {}
+        def terminatedThreadBeans = new VertxThreadBeans(ordinals, thread)
+        thread.join()
+
+        expect:
+        terminatedThreadBeans.isOwnerTerminated()
+        !threadBeans.isOwnerTerminated()
+        !new VertxThreadBeans(ordinals, null).isOwnerTerminated()
+        !new VertxThreadBeans(ordinals, null).isOnMatchingThread()
+    }
+}
@@ -0,0 +1,135 @@
+package com.dburyak.vertx.core.di
+
+import io.micronaut.context.scope.BeanCreationContext
+import io.micronaut.context.scope.CreatedBean
+import io.micronaut.inject.BeanIdentifier
+import io.netty.util.concurrent.FastThreadLocalThread
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
+
+class VertxThreadScopeBaseSpec extends Specification {
+    def scope = new TestScope()
+    def conditions = new PollingConditions(timeout: 5)
+
+    def 'beans of terminated plain thread are destroyed when next thread accesses the scope'() {
+        given:
+        def closes = new AtomicInteger()
+        def first = creationContext('bean', createdBean('first', closes))
+        def second = creationContext('bean', createdBean('second'))
+        runOn(new Thread({ scope.getOrCreate(first) }, 'test-scope-1'))
+
+        when:
+        runOn(new Thread({ scope.getOrCreate(second) }, 'test-scope-2'))
+
+        then:
+        closes.get() == 1
+
+        when: 'pruned beans are not destroyed again on scope close'
+        scope.close()
+
+        then:
+        closes.get() == 1
+    }
+
+    def 'beans of terminated fast thread local thread are destroyed on thread exit'() {
+        given:
+        def closes = new AtomicInteger()
+        def ctx = creationContext('bean', createdBean('bean', closes))
+
+        when:
+        runOn(new FastThreadLocalThread({ scope.getOrCreate(ctx) }, 'test-scope-1'))
+
+        then:
+        conditions.eventually {
+            assert closes.get() == 1
+        }
+
+        when:
+        scope.close()
+
+        then:
+        closes.get() == 1
+    }
+
+    def 'beans of live threads are destroyed on scope close'() {
+        given:
+        def closes = new AtomicInteger()
+        def created = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def ctx = creationContext('bean', createdBean('bean', closes))
+        def thread = Thread.start('test-scope-1') {
+            scope.getOrCreate(ctx)
+            created.countDown()
+            release.await()
+        }
+        created.await()
+
+        when:
+        scope.close()
+
+        then:
+        closes.get() == 1
+
+        cleanup:
+        release.countDown()
+        thread.join()
+    }
+
+    def 'scope is not accessible from not suitable thread'() {
+        given:
+        def error = new AtomicReference<Throwable>()
+        def ctx = creationContext('bean', createdBean('bean'))
+
+        when:
+        runOn(new Thread({
+            try {
+                scope.getOrCreate(ctx)
+            } catch (Throwable e) {
+                error.set(e)
+            }
+        }, 'other'))
+
+        then:
+        error.get() instanceof IllegalArgumentException
+    }
+
+    private static void runOn(Thread thread) {
+        thread.start()
+        thread.join()
+    }
+
+    private BeanCreationContext creationContext(String id, CreatedBean bean) {
+        Stub(BeanCreationContext) {
+            id() >> BeanIdentifier.of(id)
+            create() >> bean
+        }
+    }
+
+    private CreatedBean createdBean(String name, AtomicInteger closes = new AtomicInteger()) {
+        Stub(CreatedBean) {
+            bean() >> name
+            close() >> { closes.incrementAndGet() }
+        }
+    }
+
+    static class TestScope extends VertxThreadScopeBase<VertxThreadScope> {
+
+        TestScope() {
+            super(VertxThreadScope)
+        }
+
+        @Override
+        protected String notOnCtxErrorMessage() {
+            'not on test thread'
+        }
+
+        @Override
+        protected boolean vertxThreadMatches() {
+            Thread.currentThread().name.startsWith('test-scope-')
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.dburyak.vertx.core.executor
+
+import io.vertx.rxjava3.core.Vertx
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class VertxCtxBatchingExecutorSpec extends Specification {
+    def vertx = Vertx.vertx()
+    def conditions = new PollingConditions(timeout: 5)
+
+    def cleanup() {
+        vertx.rxClose().blockingAwait()
+    }
+
+    def 'tasks submitted concurrently from many threads all run on vertx context in per-producer order'() {
+        given:
+        def producers = 8
+        def tasksPerProducer = 10_000
+        def executor = new VertxCtxBatchingExecutor(vertx, 16)
+        def ctxThread = contextThread(executor)
+        def executed = (0..<producers).collect { new ConcurrentLinkedQueue<Integer>() }
+        def threads = ConcurrentHashMap.newKeySet()
+        def done = new CountDownLatch(producers * tasksPerProducer)
+        def start = new CyclicBarrier(producers)
+
+        when:
+        def producerThreads = (0..<producers).collect { producer ->
+            Thread.start {
+                start.await()
+                for (def i = 0; i < tasksPerProducer; i++) {
+                    def seq = i
+                    executor.execute {
+                        threads << Thread.currentThread()
+                        executed[producer] << seq
+                        done.countDown()
+                    }
+                }
+            }
+        }
+        producerThreads*.join()
+
+        then: 'no task is left in the queue without scheduled drain'
+        done.await(10, SECONDS)
+        threads == [ctxThread] as Set
+        executed.every { it.toList() == (0..<tasksPerProducer).toList() }
+    }
+
+    def 'too large burst is executed in several context turns'() {
+        given:
+        def executor = new VertxCtxBatchingExecutor(vertx, 2)
+        def order = new ConcurrentLinkedQueue<String>()
+        def blockerStarted = new CountDownLatch(1)
+        def releaseBlocker = new CountDownLatch(1)
+        executor.execute {
+            blockerStarted.countDown()
+            releaseBlocker.await(5, SECONDS)
+            order << 'blocker'
+        }
+        blockerStarted.await(5, SECONDS)
+
+        when: 'tasks are submitted while the first batch is being executed'
+        (1..6).each { i -> executor.execute { order << "task$i".toString() } }
+        executor.vertxCtx.runOnContext { order << 'other' }
+        releaseBlocker.countDown()
+
+        then: 'handler submitted to the context directly is not starved by the burst'
+        conditions.eventually {
+            assert order.size() == 8
+        }
+        order.toList().indexOf('other') < order.toList().indexOf('task6')
+        order.toList().findAll { it.startsWith('task') } == (1..6).collect { "task$it".toString() }
+    }
+
+    def 'failed task does not affect other tasks of the batch'() {
+        given:
+        def executor = new VertxCtxBatchingExecutor(vertx)
+        def failures = new ConcurrentLinkedQueue<Throwable>()
+        vertx.exceptionHandler { failures << it }
+        def executed = new ConcurrentLinkedQueue<Integer>()
+
+        when:
+        executor.execute { executed << 1 }
+        executor.execute { throw new IllegalStateException('test') }
+        executor.execute { executed << 3 }
+
+        then:
+        conditions.eventually {
+            assert executed.toList() == [1, 3]
+            assert failures.size() == 1
+        }
+        failures.peek() instanceof IllegalStateException
+    }
+
+    def 'non-positive max batch size is rejected'() {
+        when:
+        new VertxCtxBatchingExecutor(vertx, 0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private Thread contextThread(VertxCtxBatchingExecutor executor) {
+        def thread = new ConcurrentLinkedQueue<Thread>()
+        executor.vertxCtx.runOnContext { thread << Thread.currentThread() }
+        conditions.eventually {
+            assert thread.size() == 1
+        }
+        thread.peek()
+    }
+}
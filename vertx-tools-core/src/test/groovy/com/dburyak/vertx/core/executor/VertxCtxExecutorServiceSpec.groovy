@@ -0,0 +1,100 @@
+package com.dburyak.vertx.core.executor
+
+import io.vertx.rxjava3.core.Vertx
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicBoolean
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class VertxCtxExecutorServiceSpec extends Specification {
+
+    def vertx = Vertx.vertx()
+    def executor = new VertxCtxExecutorService(vertx)
+    def taskStarted = new CountDownLatch(1)
+    def releaseTask = new CountDownLatch(1)
+    def blockingTask = {
+        taskStarted.countDown()
+        releaseTask.await(5, SECONDS)
+    } as Runnable
+
+    def cleanup() {
+        releaseTask.countDown()
+        vertx.rxClose().blockingAwait()
+    }
+
+    def 'execute is rejected after shutdown'() {
+        given:
+        executor.shutdown()
+
+        when:
+        executor.execute({} as Runnable)
+
+        then:
+        thrown(RejectedExecutionException)
+        executor.isShutdown()
+        executor.isTerminated()
+    }
+
+    def 'shutdownNow returns queued tasks and service still terminates'() {
+        given:
+        def queuedTasks = (1..3).collect { {} as Runnable }
+        executor.execute(blockingTask)
+        taskStarted.await(5, SECONDS)
+        queuedTasks.each { executor.execute(it) }
+
+        when:
+        def notStarted = executor.shutdownNow()
+
+        then:
+        notStarted == queuedTasks
+        !executor.isTerminated()
+
+        when:
+        releaseTask.countDown()
+
+        then:
+        executor.terminated().blockingAwait(5, SECONDS)
+        executor.isTerminated()
+    }
+
+    def 'terminated completes once the last task finishes'() {
+        given:
+        def lastTaskDone = new AtomicBoolean()
+        executor.execute(blockingTask)
+        executor.execute({ lastTaskDone.set(true) } as Runnable)
+        taskStarted.await(5, SECONDS)
+
+        when:
+        executor.shutdown()
+
+        then:
+        !executor.terminated().blockingAwait(100, MILLISECONDS)
+        !executor.isTerminated()
+
+        when:
+        releaseTask.countDown()
+
+        then:
+        executor.terminated().blockingAwait(5, SECONDS)
+        executor.isTerminated()
+        lastTaskDone.get()
+    }
+
+    def 'awaitTermination returns false immediately on event loop thread'() {
+        given:
+        def result = new CompletableFuture<Boolean>()
+        def startedAt = System.nanoTime()
+
+        when:
+        executor.vertxCtx.runOnContext { result.complete(executor.awaitTermination(10, SECONDS)) }
+
+        then:
+        !result.get(5, SECONDS)
+        System.nanoTime() - startedAt < SECONDS.toNanos(1)
+    }
+}
@@ -0,0 +1,276 @@
+package com.dburyak.vertx.core.executor
+
+import io.vertx.rxjava3.core.Vertx
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CancellationException
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicInteger
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.NANOSECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class VertxCtxScheduledExecutorServiceSpec extends Specification {
+    def vertx = Vertx.vertx()
+    def executor = new VertxCtxMinimalScheduledExecutorService(vertx)
+    def conditions = new PollingConditions(timeout: 5)
+
+    def cleanup() {
+        vertx.rxClose().blockingAwait()
+    }
+
+    def 'delayed task runs on vertx context not earlier than its delay'() {
+        given:
+        def ctxThread = contextThread()
+        def ranOn = new ConcurrentLinkedQueue<Thread>()
+        def startedAt = System.nanoTime()
+
+        when:
+        def future = executor.schedule({ ranOn << Thread.currentThread(); 42 } as Callable, 100, MILLISECONDS)
+
+        then:
+        future.get(5, SECONDS) == 42
+        System.nanoTime() - startedAt >= MILLISECONDS.toNanos(100)
+        ranOn.toList() == [ctxThread]
+        future.isDone()
+        !future.isPeriodic()
+    }
+
+    def 'getDelay returns remaining time to the next run'() {
+        when:
+        def future = executor.schedule({} as Runnable, 10, SECONDS)
+
+        then:
+        future.getDelay(MILLISECONDS) > 9_000
+        future.getDelay(MILLISECONDS) <= 10_000
+
+        when:
+        def periodic = executor.scheduleAtFixedRate({} as Runnable, 0, 10, SECONDS)
+
+        then: 'delay of periodic task is updated after every run'
+        conditions.eventually {
+            assert periodic.getDelay(MILLISECONDS) > 9_000
+        }
+        periodic.getDelay(MILLISECONDS) <= 10_000
+
+        cleanup:
+        future.cancel(false)
+        periodic.cancel(false)
+    }
+
+    def 'fixed-rate task runs are scheduled from the initial trigger time'() {
+        given:
+        def starts = new ConcurrentLinkedQueue<Long>()
+        def firstTriggerAt = System.nanoTime() + MILLISECONDS.toNanos(50)
+
+        when: 'every run takes 30ms with 50ms period'
+        def future = executor.scheduleAtFixedRate({
+            starts << System.nanoTime()
+            Thread.sleep(30)
+        }, 50, 50, MILLISECONDS)
+        conditions.eventually {
+            assert starts.size() >= 5
+        }
+        future.cancel(false)
+        def runs = starts.toList()
+
+        then: 'runs are never early, and are not delayed by execution time'
+        (0..<5).every { runs[it] - firstTriggerAt >= MILLISECONDS.toNanos(50 * it) }
+        NANOSECONDS.toMillis(runs[4] - runs[0]) < 4 * (50 + 30)
+    }
+
+    def 'fixed-delay task runs are scheduled from the end of the previous run'() {
+        given:
+        def starts = new ConcurrentLinkedQueue<Long>()
+
+        when: 'every run takes 30ms with 50ms delay'
+        def future = executor.scheduleWithFixedDelay({
+            starts << System.nanoTime()
+            Thread.sleep(30)
+        }, 0, 50, MILLISECONDS)
+        conditions.eventually {
+            assert starts.size() >= 4
+        }
+        future.cancel(false)
+        def runs = starts.toList()
+
+        then:
+        (1..<4).every { runs[it] - runs[it - 1] >= MILLISECONDS.toNanos(30 + 50) }
+    }
+
+    def 'cancelled periodic task is not run anymore'() {
+        given:
+        def runs = new AtomicInteger()
+        def future = executor.scheduleAtFixedRate({ runs.incrementAndGet() }, 0, 20, MILLISECONDS)
+        conditions.eventually {
+            assert runs.get() >= 2
+        }
+
+        when:
+        def cancelled = future.cancel(true)
+        def runsAfterCancel = runs.get()
+        Thread.sleep(200)
+
+        then:
+        cancelled
+        future.isCancelled()
+        future.isDone()
+        runs.get() <= runsAfterCancel + 1
+
+        when:
+        future.get()
+
+        then:
+        thrown(CancellationException)
+    }
+
+    def 'cancelled delayed task is not run'() {
+        given:
+        def runs = new AtomicInteger()
+        def future = executor.schedule({ runs.incrementAndGet() } as Runnable, 100, MILLISECONDS)
+
+        when:
+        future.cancel(false)
+        Thread.sleep(300)
+
+        then:
+        runs.get() == 0
+        future.isCancelled()
+    }
+
+    def 'exception in periodic task suppresses its subsequent runs'() {
+        given:
+        def runs = new AtomicInteger()
+
+        when:
+        def future = executor.scheduleAtFixedRate({
+            if (runs.incrementAndGet() == 2) {
+                throw new IllegalStateException('test')
+            }
+        }, 0, 20, MILLISECONDS)
+
+        then:
+        conditions.eventually {
+            assert future.isDone()
+        }
+        !future.isCancelled()
+
+        when:
+        Thread.sleep(200)
+
+        then:
+        runs.get() == 2
+
+        when:
+        future.get()
+
+        then:
+        def e = thrown(ExecutionException)
+        e.cause instanceof IllegalStateException
+    }
+
+    def 'non-positive period is rejected'() {
+        when:
+        executor.scheduleAtFixedRate({} as Runnable, 0, 0, MILLISECONDS)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        when:
+        executor.scheduleWithFixedDelay({} as Runnable, 0, -1, MILLISECONDS)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def 'tracked executor service is not terminated while scheduled tasks are pending'() {
+        given:
+        def tracked = new VertxCtxScheduledExecutorService(vertx)
+        def runs = new AtomicInteger()
+        def delayed = tracked.schedule({ runs.incrementAndGet() } as Runnable, 10, SECONDS)
+        def periodic = tracked.scheduleAtFixedRate({ runs.incrementAndGet() }, 0, 20, MILLISECONDS)
+        conditions.eventually {
+            assert runs.get() >= 2
+        }
+
+        expect:
+        !tracked.isTerminated()
+
+        when: 'delayed and periodic tasks are cancelled on shutdown'
+        tracked.shutdown()
+
+        then:
+        tracked.terminated().blockingAwait(5, SECONDS)
+        tracked.isTerminated()
+        delayed.isCancelled()
+        periodic.isCancelled()
+    }
+
+    def 'completed, failed and cancelled scheduled tasks are no longer pending'() {
+        given:
+        def tracked = new VertxCtxScheduledExecutorService(vertx)
+        def completed = tracked.schedule({ 42 } as Callable, 10, MILLISECONDS)
+        def cancelled = tracked.schedule({ 43 } as Callable, 10, SECONDS)
+        def failed = tracked.scheduleAtFixedRate({ throw new IllegalStateException('test') }, 0, 10, MILLISECONDS)
+
+        when:
+        completed.get(5, SECONDS)
+        cancelled.cancel(false)
+        conditions.eventually {
+            assert failed.isDone()
+        }
+        tracked.shutdown()
+
+        then: 'nothing is left to cancel on shutdown'
+        tracked.terminated().blockingAwait(5, SECONDS)
+        !failed.isCancelled()
+    }
+
+    def 'tracked executor service rejects scheduling after shutdown'() {
+        given:
+        def tracked = new VertxCtxScheduledExecutorService(vertx)
+        tracked.shutdown()
+
+        when:
+        tracked.schedule({} as Runnable, 10, MILLISECONDS)
+
+        then:
+        thrown(RejectedExecutionException)
+
+        when:
+        tracked.scheduleWithFixedDelay({} as Runnable, 0, 10, MILLISECONDS)
+
+        then:
+        thrown(RejectedExecutionException)
+    }
+
+    def 'executor services created with registry are shut down on its close'() {
+        given:
+        def registry = new VertxCtxExecutorServiceRegistry(vertx)
+        def scheduled = registry.newScheduledExecutorService()
+        def plain = registry.newExecutorService()
+        def periodic = scheduled.scheduleAtFixedRate({} as Runnable, 0, 20, MILLISECONDS)
+
+        when:
+        registry.closeAsync().blockingAwait(5, SECONDS)
+
+        then:
+        scheduled.isTerminated()
+        plain.isTerminated()
+        periodic.isCancelled()
+    }
+
+    private Thread contextThread() {
+        def thread = new ConcurrentLinkedQueue<Thread>()
+        executor.vertxCtx.runOnContext { thread << Thread.currentThread() }
+        conditions.eventually {
+            assert thread.size() == 1
+        }
+        thread.peek()
+    }
+}
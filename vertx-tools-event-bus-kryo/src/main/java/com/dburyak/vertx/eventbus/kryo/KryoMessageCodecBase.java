@@ -1,46 +1,51 @@
 package com.dburyak.vertx.eventbus.kryo;
 
+import com.dburyak.vertx.eventbus.kryo.config.KryoCodecProperties;
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
-import io.micronaut.context.ApplicationContext;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
-import jakarta.annotation.PreDestroy;
+import io.vertx.core.internal.buffer.BufferInternal;
 import jakarta.inject.Inject;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.nio.ByteBuffer;
 
 /**
- * Base class for Kryo message codecs. It provides thread-safe access to Kryo, Input and Output objects, and caches them
- * properly.
+ * Base class for Kryo message codecs. Kryo, Input and Output objects are not thread safe, they are obtained from
+ * {@link KryoPool} shared by all kryo codecs for every encode/decode call.
+ * <p>
+ * Wire format is the length of serialized data (int) followed by the data itself. Explicit length allows to decode
+ * message directly from the received netty buffer without copying the rest of the buffer to a byte array.
  *
  * @param <S> type of message to send
  * @param <R> type of message to receive
  */
 public abstract class KryoMessageCodecBase<S, R> implements MessageCodec<S, R> {
-    private ApplicationContext appCtx;
-    private final ConcurrentMap<String, Kryo> kryos = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Input> inputs = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Output> outputs = new ConcurrentHashMap<>();
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+    private KryoPool kryoPool;
+    private KryoCodecProperties kryoProps;
 
     @Override
     public final void encodeToWire(Buffer buffer, S data) {
-        var kryo = getKryo();
-        var output = getOutput();
-        output.reset();
-        kryo.writeClassAndObject(output, data);
-        buffer.appendBytes(output.getBuffer(), 0, output.position());
+        var entry = kryoPool.obtain();
+        try {
+            encodeToWire(buffer, data, entry);
+        } finally {
+            kryoPool.free(entry);
+        }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public final R decodeFromWire(int pos, Buffer buffer) {
-        var kryo = getKryo();
-        var input = getInput();
-        input.setBuffer(buffer.getBytes(pos, buffer.length()));
-        return (R) kryo.readClassAndObject(input);
+        var entry = kryoPool.obtain();
+        try {
+            return decodeFromWire(pos, buffer, entry);
+        } finally {
+            kryoPool.free(entry);
+        }
     }
 
     @Override
@@ -54,48 +59,122 @@ public abstract class KryoMessageCodecBase<S, R> implements MessageCodec<S, R> {
     }
 
     /**
-     * Set application context.
+     * Deep copy object with kryo.
      *
-     * @param applicationContext application context
+     * @param data object to copy
+     * @param <T> type of object to copy
+     *
+     * @return deep copy of the object
      */
-    @Inject
-    public void setApplicationContext(ApplicationContext applicationContext) {
-        this.appCtx = applicationContext;
+    protected final <T> T copy(T data) {
+        var entry = kryoPool.obtain();
+        try {
+            return entry.kryo().copy(data);
+        } finally {
+            kryoPool.free(entry);
+        }
     }
 
     /**
-     * Get Kryo instance for current thread. Creates new instance if it doesn't exist yet.
+     * Get Kryo instance of the current thread. It is not borrowed from the pool and is kept until the thread dies, so
+     * prefer {@link #copy(Object)} where possible.
      *
      * @return Kryo instance
+     *
+     * @deprecated encode and decode use pooled instances, this one is kept only for subclasses
      */
+    @Deprecated
     protected final Kryo getKryo() {
-        return kryos.computeIfAbsent(Thread.currentThread().getName(), threadName -> appCtx.getBean(Kryo.class));
+        return kryoPool.threadEntry().kryo();
     }
 
     /**
-     * Get Kryo Input instance for current thread. Creates new instance if it doesn't exist yet.
+     * Get Kryo Input instance of the current thread. It is not borrowed from the pool and is kept until the thread
+     * dies.
      *
      * @return Kryo Input instance
+     *
+     * @deprecated encode and decode use pooled instances, this one is kept only for subclasses
      */
+    @Deprecated
     protected final Input getInput() {
-        return inputs.computeIfAbsent(Thread.currentThread().getName(), threadName -> appCtx.getBean(Input.class));
+        return kryoPool.threadEntry().input();
     }
 
     /**
-     * Get Kryo Output instance for current thread. Creates new instance if it doesn't exist yet.
+     * Get Kryo Output instance of the current thread. It is not borrowed from the pool and is kept until the thread
+     * dies.
      *
      * @return Kryo Output instance
+     *
+     * @deprecated encode and decode use pooled instances, this one is kept only for subclasses
      */
+    @Deprecated
     protected final Output getOutput() {
-        return outputs.computeIfAbsent(Thread.currentThread().getName(), threadName -> appCtx.getBean(Output.class));
+        return kryoPool.threadEntry().output();
+    }
+
+    /**
+     * Set kryo pool.
+     *
+     * @param kryoPool kryo pool
+     */
+    @Inject
+    public void setKryoPool(KryoPool kryoPool) {
+        this.kryoPool = kryoPool;
+    }
+
+    /**
+     * Set kryo codec properties.
+     *
+     * @param kryoProps kryo codec properties
+     */
+    @Inject
+    public void setKryoCodecProperties(KryoCodecProperties kryoProps) {
+        this.kryoProps = kryoProps;
     }
 
-    @PreDestroy
-    void destroy() {
-        inputs.forEach((threadName, input) -> input.close());
-        outputs.forEach((threadName, output) -> output.close());
-        kryos.clear();
-        inputs.clear();
-        outputs.clear();
+    private void encodeToWire(Buffer buffer, S data, KryoPool.Entry entry) {
+        var kryo = entry.kryo();
+        var output = entry.output();
+        if (output instanceof VertxBufferOutput bufferOutput) {
+            bufferOutput.begin(buffer);
+            try {
+                kryo.writeClassAndObject(bufferOutput, data);
+            } finally {
+                bufferOutput.end();
+            }
+            return;
+        }
+        output.reset();
+        kryo.writeClassAndObject(output, data);
+        buffer.appendInt(output.position());
+        buffer.appendBytes(output.getBuffer(), 0, output.position());
+    }
+
+    @SuppressWarnings("unchecked")
+    private R decodeFromWire(int pos, Buffer buffer, KryoPool.Entry entry) {
+        var length = buffer.getInt(pos);
+        var start = pos + Integer.BYTES;
+        var kryo = entry.kryo();
+        var input = entry.input();
+        if (kryoProps.isZeroCopyDecode() && input instanceof ByteBufferInput byteBufferInput
+                && buffer instanceof BufferInternal bufferInternal) {
+            byteBufferInput.setBuffer(bufferInternal.getByteBuf().nioBuffer(start, length));
+            try {
+                return (R) kryo.readClassAndObject(byteBufferInput);
+            } finally {
+                // don't keep reference to the received buffer until the next message is decoded on this thread
+                byteBufferInput.setBuffer(EMPTY_BUFFER);
+            }
+        }
+        var bytes = buffer.getBytes(start, start + length);
+        if (input instanceof ByteBufferInput byteBufferInput) {
+            // ByteBufferInput doesn't support byte array buffers
+            byteBufferInput.setBuffer(ByteBuffer.wrap(bytes));
+        } else {
+            input.setBuffer(bytes);
+        }
+        return (R) kryo.readClassAndObject(input);
     }
 }
@@ -0,0 +1,152 @@
+package com.dburyak.vertx.eventbus.kryo;
+
+import com.dburyak.vertx.eventbus.kryo.config.KryoCodecProperties;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
+import io.micronaut.context.ApplicationContext;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Source of Kryo, Input and Output objects for all kryo codecs. These objects are not thread safe, so every codec call
+ * obtains a {@link Entry} and frees it after use.
+ * <p>
+ * Two modes are supported, see {@link KryoCodecProperties#isPoolEnabled()}:
+ * <ul>
+ *     <li>pooled (default) - entries are borrowed from a bounded pool shared by all threads; new entries are created
+ *     when pool is empty, entries that don't fit into the pool on release are discarded. Codecs may be called from
+ *     any thread, including worker and non-vertx threads</li>
+ *     <li>per-thread - each thread has its own entry, entries are kept in a thread local until the thread dies. Is
+ *     suitable only when codecs are called from a small fixed set of threads</li>
+ * </ul>
+ * Entry objects are created from prototype Kryo, Input and Output bean definitions, so they can be created on any
+ * thread. Pool hit/miss statistics is collected in both modes and is exported by {@link KryoPoolMetrics}.
+ */
+@Singleton
+@Slf4j
+public class KryoPool {
+    private final ApplicationContext appCtx;
+    private final boolean pooled;
+    private final Pool<Entry> pool;
+    private final ThreadLocal<Entry> threadEntries = new ThreadLocal<>();
+    private final LongAdder obtains = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param appCtx application context
+     * @param kryoProps kryo properties
+     */
+    public KryoPool(ApplicationContext appCtx, KryoCodecProperties kryoProps) {
+        this.appCtx = appCtx;
+        this.pooled = kryoProps.isPoolEnabled();
+        this.pool = new Pool<>(true, false, kryoProps.getPoolMaxSize()) {
+            @Override
+            protected Entry create() {
+                return createEntry();
+            }
+        };
+    }
+
+    /**
+     * Obtain Kryo, Input and Output objects for exclusive use by the current thread. Must be released with
+     * {@link #free(Entry)} after use.
+     *
+     * @return kryo entry
+     */
+    public Entry obtain() {
+        obtains.increment();
+        if (pooled) {
+            inUse.incrementAndGet();
+            return pool.obtain();
+        }
+        return threadEntry();
+    }
+
+    /**
+     * Get entry owned by the current thread, regardless of the mode. Entry is created on first use and is kept in a
+     * thread local until the thread dies, it must not be released with {@link #free(Entry)}.
+     *
+     * @return kryo entry of the current thread
+     */
+    public Entry threadEntry() {
+        var entry = threadEntries.get();
+        if (entry == null) {
+            entry = createEntry();
+            threadEntries.set(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Release entry obtained with {@link #obtain()}.
+     *
+     * @param entry kryo entry
+     */
+    public void free(Entry entry) {
+        if (pooled) {
+            inUse.decrementAndGet();
+            pool.free(entry);
+        }
+    }
+
+    /**
+     * Number of times an existing entry was reused.
+     *
+     * @return number of pool hits
+     */
+    public long getHits() {
+        return obtains.sum() - misses.sum();
+    }
+
+    /**
+     * Number of times a new entry had to be created.
+     *
+     * @return number of pool misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of free entries in the pool. Is always {@code 0} in per-thread mode.
+     *
+     * @return number of free entries
+     */
+    public int getFree() {
+        return pooled ? pool.getFree() : 0;
+    }
+
+    /**
+     * Number of entries currently in use. Is always {@code 0} in per-thread mode.
+     *
+     * @return number of entries in use
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    private Entry createEntry() {
+        misses.increment();
+        log.debug("create kryo entry: pooled={}, free={}, inUse={}", pooled, getFree(), inUse.get());
+        return new Entry(appCtx.createBean(Kryo.class), appCtx.createBean(Input.class),
+                appCtx.createBean(Output.class));
+    }
+
+    /**
+     * Kryo, Input and Output objects used together by a codec.
+     *
+     * @param kryo kryo
+     * @param input kryo input
+     * @param output kryo output
+     */
+    public record Entry(Kryo kryo, Input input, Output output) {
+    }
+}
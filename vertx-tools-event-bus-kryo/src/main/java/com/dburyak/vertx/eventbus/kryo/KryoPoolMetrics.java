@@ -0,0 +1,51 @@
+package com.dburyak.vertx.eventbus.kryo;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.inject.Singleton;
+
+/**
+ * Exports {@link KryoPool} statistics to micrometer:
+ * <ul>
+ *     <li>{@value #HITS} - number of times an existing kryo entry was reused
+ *     <li>{@value #MISSES} - number of times a new kryo entry had to be created
+ *     <li>{@value #FREE} - number of free entries in the pool (pooled mode only)
+ *     <li>{@value #IN_USE} - number of entries currently in use (pooled mode only)
+ * </ul>
+ */
+@Singleton
+public class KryoPoolMetrics implements MeterBinder {
+    public static final String HITS = "vertx.eventbus.kryo.pool.hits";
+    public static final String MISSES = "vertx.eventbus.kryo.pool.misses";
+    public static final String FREE = "vertx.eventbus.kryo.pool.free";
+    public static final String IN_USE = "vertx.eventbus.kryo.pool.in.use";
+
+    private final KryoPool kryoPool;
+
+    /**
+     * Constructor.
+     *
+     * @param kryoPool kryo pool
+     */
+    public KryoPoolMetrics(KryoPool kryoPool) {
+        this.kryoPool = kryoPool;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(HITS, kryoPool, KryoPool::getHits)
+                .description("Number of times an existing kryo entry was reused")
+                .register(registry);
+        FunctionCounter.builder(MISSES, kryoPool, KryoPool::getMisses)
+                .description("Number of times a new kryo entry had to be created")
+                .register(registry);
+        Gauge.builder(FREE, kryoPool, KryoPool::getFree)
+                .description("Number of free kryo entries in the pool")
+                .register(registry);
+        Gauge.builder(IN_USE, kryoPool, KryoPool::getInUse)
+                .description("Number of kryo entries currently in use")
+                .register(registry);
+    }
+}
@@ -1,35 +1,23 @@
 package com.dburyak.vertx.eventbus.kryo;
 
+import com.dburyak.vertx.eventbus.CopyConstructors;
 import com.dburyak.vertx.eventbus.LocalAwareJsonUnsafeVisibleMessageCodec;
 import jakarta.inject.Singleton;
-import lombok.extern.slf4j.Slf4j;
-
-import java.lang.reflect.InvocationTargetException;
 
 /**
  * Kryo message codec that copies data via copy constructor for local communications. Copying is used to pass data
- * between vertx threads without synchronization. This codec is a safe alternative for
- * {@link LocalAwareJsonUnsafeVisibleMessageCodec}.
+ * between vertx threads without synchronization. Objects without public copy constructor are deep-copied with kryo.
+ * This codec is a safe alternative for {@link LocalAwareJsonUnsafeVisibleMessageCodec}.
  *
  * @param <T> type of message to send
  */
 @Singleton
-@Slf4j
 public class LocalAwareKryoCopyingMessageCodec<T> extends KryoMessageCodecBase<T, T> {
 
     @SuppressWarnings("unchecked")
     @Override
     public T transform(T data) {
-        // copy object via copy constructor
-        var dataClass = data.getClass();
-        try {
-            return (T) dataClass.getDeclaredConstructor(dataClass).newInstance(data);
-        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException e) {
-            log.error("failed to find public copy constructor of data object", e);
-            throw new IllegalArgumentException("data object must implement public copy constructor: " + data, e);
-        } catch (InvocationTargetException e) {
-            log.error("failed to call copy constructor of data object", e);
-            throw new RuntimeException(e);
-        }
+        var copier = CopyConstructors.copierOf((Class<T>) data.getClass());
+        return copier.isPresent() ? copier.get().apply(data) : copy(data);
     }
 }
@@ -0,0 +1,23 @@
+package com.dburyak.vertx.eventbus.kryo;
+
+import com.dburyak.vertx.eventbus.ImmutableMessageCodec;
+import com.dburyak.vertx.eventbus.ImmutableTypes;
+import jakarta.inject.Singleton;
+
+/**
+ * Kryo message codec that passes deeply immutable objects as-is for local communications. Unlike
+ * {@link LocalAwareKryoUnsafeMessageCodec}, message types are verified to be deeply immutable (see
+ * {@link ImmutableTypes}): default types on codec registration, and any other type once on its first local delivery.
+ *
+ * @param <T> type of message to send
+ */
+@Singleton
+public class LocalAwareKryoImmutableMessageCodec<T> extends KryoMessageCodecBase<T, T>
+        implements ImmutableMessageCodec {
+
+    @Override
+    public T transform(T message) {
+        ImmutableTypes.requireDeeplyImmutable(message.getClass());
+        return message;
+    }
+}
@@ -0,0 +1,155 @@
+package com.dburyak.vertx.eventbus.kryo;
+
+import com.esotericsoftware.kryo.io.KryoBufferOverflowException;
+import com.esotericsoftware.kryo.io.Output;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.buffer.BufferInternal;
+
+/**
+ * Kryo output that writes serialized data directly into the target vertx {@link Buffer}, growing it as needed. Each
+ * message is written as its length (int) followed by the serialized data, which is the wire format of
+ * {@link KryoMessageCodecBase}.
+ * <p>
+ * When target buffer is backed by a heap netty buffer (which is the case for buffers created by vertx event bus), kryo
+ * writes straight into the backing array of the netty buffer, so no intermediate copy is made. Otherwise, data is
+ * written to the target buffer in chunks of configured size. Chunk is flushed and reused whenever it is full, a bigger
+ * chunk is allocated only for a single primitive write that doesn't fit the configured size, and is dropped at the
+ * end of the message.
+ * <p>
+ * Usage: {@link #begin(Buffer)}, then serialize the message with kryo, then {@link #end()}. This is not thread safe
+ * object, one instance per thread should be used.
+ */
+public class VertxBufferOutput extends Output {
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final int chunkSize;
+    private final int maxSize;
+    private Buffer target;
+    private ByteBuf targetByteBuf;
+    private int lengthPos;
+    private int start;
+    private int arrayOffset;
+    private byte[] chunk;
+
+    /**
+     * Constructor.
+     *
+     * @param chunkSize size of the chunk used for target buffers that are not backed by a heap array
+     * @param maxSize maximum size of a single serialized message, {@code -1} means no limit
+     */
+    public VertxBufferOutput(int chunkSize, int maxSize) {
+        super(NO_BYTES, maxSize);
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize < 0 ? Integer.MAX_VALUE : maxSize;
+    }
+
+    /**
+     * Start writing a new message to the target buffer. Reserves space for the message length at the current end of
+     * the buffer.
+     *
+     * @param vertxBuffer target buffer
+     */
+    public void begin(Buffer vertxBuffer) {
+        target = vertxBuffer;
+        lengthPos = vertxBuffer.length();
+        vertxBuffer.appendInt(0);
+        total = 0;
+        // underlying netty buffer, not a duplicate from getByteBuf, since its writer index is advanced on write
+        if (vertxBuffer instanceof BufferInternal bufferInternal && bufferInternal.unwrap().hasArray()) {
+            targetByteBuf = bufferInternal.unwrap();
+            bindArray(0);
+        } else {
+            if (chunk == null) {
+                chunk = new byte[chunkSize];
+            }
+            bindChunk();
+        }
+    }
+
+    /**
+     * Finish writing current message. Sets the message length prefix and releases the target buffer.
+     *
+     * @return size of serialized message in bytes, not including length prefix
+     */
+    public int end() {
+        if (target == null) {
+            return 0;
+        }
+        int length;
+        if (targetByteBuf != null) {
+            length = position - start;
+            targetByteBuf.writerIndex(position - arrayOffset);
+        } else {
+            flush();
+            length = (int) total;
+            if (chunk.length > chunkSize) {
+                chunk = null;
+            }
+        }
+        target.setInt(lengthPos, length);
+        target = null;
+        targetByteBuf = null;
+        buffer = NO_BYTES;
+        position = 0;
+        capacity = 0;
+        total = 0;
+        return length;
+    }
+
+    @Override
+    public long total() {
+        return targetByteBuf != null ? position - start : total + position;
+    }
+
+    @Override
+    public void flush() {
+        if (target == null || targetByteBuf != null || position == 0) {
+            return;
+        }
+        target.appendBytes(chunk, 0, position);
+        total += position;
+        position = 0;
+    }
+
+    @Override
+    protected boolean require(int required) {
+        if (capacity - position >= required) {
+            return false;
+        }
+        if (required > maxSize - total()) {
+            throw new KryoBufferOverflowException("Buffer overflow. Max size: " + maxSize + ", written: " + total()
+                    + ", required: " + required);
+        }
+        if (targetByteBuf != null) {
+            // growing netty buffer may reallocate its backing array, so writer index must be synced before that
+            var written = position - start;
+            targetByteBuf.writerIndex(position - arrayOffset);
+            targetByteBuf.ensureWritable(required);
+            bindArray(written);
+        } else {
+            flush();
+            if (chunk.length < required) {
+                chunk = new byte[required];
+            }
+            bindChunk();
+        }
+        return true;
+    }
+
+    private void bindArray(int written) {
+        arrayOffset = targetByteBuf.arrayOffset();
+        buffer = targetByteBuf.array();
+        position = arrayOffset + targetByteBuf.writerIndex();
+        start = position - written;
+        // capacity is capped, so that every write beyond max size goes through the check in require
+        capacity = (int) Math.min(arrayOffset + targetByteBuf.capacity(), (long) start + maxSize);
+    }
+
+    private void bindChunk() {
+        buffer = chunk;
+        position = 0;
+        start = 0;
+        capacity = (int) Math.min(chunk.length, maxSize - total);
+    }
+}
@@ -2,10 +2,13 @@ package com.dburyak.vertx.eventbus.kryo.config;
 
 import io.micronaut.context.annotation.ConfigurationInject;
 import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.bind.annotation.Bindable;
 import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 
+import java.util.List;
+
 /**
  * Kryo event bus codec configuration.
  */
@@ -14,25 +17,97 @@ import lombok.Getter;
 public class KryoCodecProperties {
 
     /**
-     * Initial (minimal) size of kryo output buffer. Outputs are created per vertx thread. E.g. in vertx with 16
-     * event-loop threads there will be 16 outputs with buffers; if each buffer has initial size of 4k then there will
-     * be 4k*16=64k memory minimum allocated for kryo outputs.
+     * Initial (minimal) size of kryo output buffer. Default kryo output serializes messages directly into the outgoing
+     * vertx buffer, so this is only the size of the chunk used when outgoing buffer is not backed by a heap array.
+     * Chunk is allocated lazily, once per vertx thread.
      */
     @Positive
     private final int outputBufferInitialSize;
 
     /**
-     * Maximum size of kryo output buffer. Value {@code -1} means no limit, which is default. Outputs are created per
-     * vertx thread. E.g. in vertx with 16 event-loop threads there will be 16 outputs with buffers; if each buffer has
-     * max size of 4k then there will be 4k*16=64k memory maximum allocated for kryo outputs.
+     * Maximum size of a single serialized message. Value {@code -1} means no limit, which is default. Serialization of
+     * bigger messages fails with {@link com.esotericsoftware.kryo.io.KryoBufferOverflowException}.
      */
     private final int outputBufferMaxSize;
 
+    /**
+     * Whether to decode messages directly from the underlying netty buffer of the received vertx buffer, without copying
+     * message bytes to an intermediate byte array. Enabled by default. Requires kryo input bean to be
+     * {@link com.esotericsoftware.kryo.io.ByteBufferInput}, otherwise codec falls back to copying decode.
+     */
+    private final boolean zeroCopyDecode;
+
+    /**
+     * Whether all the serialized classes must be registered in kryo (strict mode). Unregistered classes are written
+     * with their full class name in every message, registered ones - with compact id. Disabled by default.
+     */
+    private final boolean registrationRequired;
+
+    /**
+     * Fully-qualified class names to register in kryo with default serializer. Classes get fixed ids in the order of
+     * this list starting from {@link #registeredTypesIdStart}, so the list must be the same on all cluster members.
+     * Classes with custom serializers are registered via
+     * {@link com.dburyak.vertx.eventbus.kryo.IdentifiableKryoSerializer} beans instead.
+     */
+    private final List<String> registeredTypes;
+
+    /**
+     * Kryo registration id of the first class from {@link #registeredTypes}.
+     */
+    @Positive
+    private final int registeredTypesIdStart;
+
+    /**
+     * Whether to borrow kryo objects from a bounded pool shared by all threads, which is default. When disabled, kryo
+     * objects are kept per thread until the thread dies, which saves pool synchronization but is suitable only for
+     * applications that call codecs from a small fixed set of threads (e.g. only from event loops).
+     */
+    private final boolean poolEnabled;
+
+    /**
+     * Maximum number of free kryo objects kept in the pool in pooled mode. Objects released when pool is full are
+     * discarded.
+     */
+    @Positive
+    private final int poolMaxSize;
+
+    /**
+     * Whether to fail application startup if kryo registrations differ from registrations of a live cluster member of
+     * the same {@link com.dburyak.vertx.eventbus.config.EventBusProperties#getCodecRegistryVersion()}. Enabled by
+     * default: unlike json type ids, registered kryo classes are always written by id and have no fallback to class
+     * names, so such members would decode messages of each other as wrong classes.
+     */
+    private final boolean failOnClusterMismatch;
+
+    /**
+     * Whether to fail application startup if kryo registrations differ from registrations of a live cluster member of
+     * the same registry version.
+     *
+     * @return whether to fail application startup on kryo registrations mismatch with the cluster
+     */
+    public boolean shouldFailOnClusterMismatch() {
+        return failOnClusterMismatch;
+    }
+
     @ConfigurationInject
     public KryoCodecProperties(
             @Bindable(defaultValue = "1024") @Positive int outputBufferInitialSize,
-            @Bindable(defaultValue = "-1") int outputBufferMaxSize) {
+            @Bindable(defaultValue = "-1") int outputBufferMaxSize,
+            @Bindable(defaultValue = "true") boolean zeroCopyDecode,
+            @Bindable(defaultValue = "false") boolean registrationRequired,
+            @Nullable List<String> registeredTypes,
+            @Bindable(defaultValue = "1000") @Positive int registeredTypesIdStart,
+            @Bindable(defaultValue = "true") boolean poolEnabled,
+            @Bindable(defaultValue = "64") @Positive int poolMaxSize,
+            @Bindable(defaultValue = "true") boolean failOnClusterMismatch) {
         this.outputBufferInitialSize = outputBufferInitialSize;
         this.outputBufferMaxSize = outputBufferMaxSize;
+        this.zeroCopyDecode = zeroCopyDecode;
+        this.registrationRequired = registrationRequired;
+        this.registeredTypes = registeredTypes != null ? registeredTypes : List.of();
+        this.registeredTypesIdStart = registeredTypesIdStart;
+        this.poolEnabled = poolEnabled;
+        this.poolMaxSize = poolMaxSize;
+        this.failOnClusterMismatch = failOnClusterMismatch;
     }
 }
@@ -1,39 +1,45 @@
 package com.dburyak.vertx.eventbus.kryo.config;
 
-import com.dburyak.vertx.core.di.VertxThreadScope;
+import com.dburyak.vertx.eventbus.kryo.VertxBufferOutput;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.SerializerFactory;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Prototype;
 import io.micronaut.context.annotation.Requires;
 
 import java.util.List;
 
 /**
- * Factory for Kryo related default implementations beans.
+ * Factory for Kryo related default implementations beans. All of them are prototypes, so they can be created on any
+ * thread, not only on vertx threads, and are not shared between {@link com.dburyak.vertx.eventbus.kryo.KryoPool}
+ * entries.
  */
 @Factory
 @Requires(classes = Kryo.class)
 public class KryoFactory {
 
     /**
-     * Kryo default bean. This is not thread safe object, so we're using vertx thread scope to make sure that each vertx
-     * thread has its own instance of Kryo.
+     * Kryo default bean. This is not thread safe object, so codecs don't inject it, every
+     * {@link com.dburyak.vertx.eventbus.kryo.KryoPool} entry creates its own instance of Kryo instead.
      *
      * @param defaultKryoSerializerFactory default serializer factory
      * @param configurers list of Kryo configurers
+     * @param kryoProps kryo properties
      *
      * @return Kryo instance
      */
     @Bean
-    @VertxThreadScope
+    @Prototype
     @Requires(missingBeans = Kryo.class)
-    public Kryo kryo(SerializerFactory<?> defaultKryoSerializerFactory, List<KryoConfigurer> configurers) {
+    public Kryo kryo(SerializerFactory<?> defaultKryoSerializerFactory, List<KryoConfigurer> configurers,
+            KryoCodecProperties kryoProps) {
         var kryo = new Kryo();
         kryo.setDefaultSerializer(defaultKryoSerializerFactory);
-        kryo.setRegistrationRequired(false);
+        kryo.setRegistrationRequired(kryoProps.isRegistrationRequired());
         for (var configurer : configurers) {
             kryo = configurer.configure(kryo);
         }
@@ -41,40 +47,44 @@ public class KryoFactory {
     }
 
     /**
-     * Kryo Input default bean. This is not thread safe object, so we're using vertx thread scope to make sure that each
-     * vertx thread has its own instance of Kryo Input.
+     * Kryo Input default bean. This is not thread safe object, so every {@link com.dburyak.vertx.eventbus.kryo.KryoPool}
+     * entry creates its own instance of Kryo Input. {@link ByteBufferInput} is used to allow codecs to decode messages
+     * directly from the received netty buffers.
      *
      * @return Kryo Input instance
      */
-    @Bean(preDestroy = "close")
-    @VertxThreadScope
+    @Bean
+    @Prototype
     @Requires(missingBeans = Input.class)
     public Input input() {
-        return new Input();
+        return new ByteBufferInput();
     }
 
     /**
-     * Kryo Output default bean. This is not thread safe object, so we're using vertx thread scope to make sure that
-     * each vertx thread has its own instance of Kryo Output.
+     * Kryo Output default bean. This is not thread safe object, so every
+     * {@link com.dburyak.vertx.eventbus.kryo.KryoPool} entry creates its own instance of Kryo Output.
+     * {@link VertxBufferOutput} is used to serialize messages directly into the outgoing vertx buffers without
+     * intermediate copying.
      *
      * @param kryoProps kryo properties
      *
      * @return Kryo Output instance
      */
-    @Bean(preDestroy = "close")
-    @VertxThreadScope
+    @Bean
+    @Prototype
     @Requires(missingBeans = Output.class)
     public Output output(KryoCodecProperties kryoProps) {
-        return new Output(kryoProps.getOutputBufferInitialSize(), -1);
+        return new VertxBufferOutput(kryoProps.getOutputBufferInitialSize(), kryoProps.getOutputBufferMaxSize());
     }
 
     /**
-     * Kryo SerializerFactory default bean.
+     * Kryo SerializerFactory default bean. Serializer factories may cache serializer configuration, so each Kryo
+     * instance gets its own one.
      *
      * @return Kryo SerializerFactory instance
      */
     @Bean
-    @VertxThreadScope
+    @Prototype
     @Requires(missingBeans = SerializerFactory.class)
     public SerializerFactory<?> defaultKryoSerializerFactory() {
         return new SerializerFactory.FieldSerializerFactory();
@@ -0,0 +1,121 @@
+package com.dburyak.vertx.eventbus.kryo.config;
+
+import com.dburyak.vertx.eventbus.kryo.IdentifiableKryoSerializer;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import jakarta.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Registry of classes registered in every kryo instance with fixed ids. Consists of all
+ * {@link IdentifiableKryoSerializer} beans and classes configured in {@link KryoCodecProperties#getRegisteredTypes()}.
+ * <p>
+ * Registered classes are written as compact ids instead of full class names. Ids must be the same on all cluster
+ * members, {@link #getHash()} of registrations can be used to verify that, see {@link KryoRegistryClusterCheck}.
+ */
+@Singleton
+@Slf4j
+public class KryoRegistry {
+    private final List<Registration> registrations;
+
+    /**
+     * Hash of all registrations (ids, classes and serializer classes). Is the same on all cluster members if their
+     * registrations are the same.
+     */
+    @Getter
+    private final String hash;
+
+    /**
+     * Constructor.
+     *
+     * @param identifiableKryoSerializers serializers with fixed ids
+     * @param kryoProps kryo properties
+     */
+    public KryoRegistry(List<IdentifiableKryoSerializer<?>> identifiableKryoSerializers,
+            KryoCodecProperties kryoProps) {
+        var regs = new ArrayList<Registration>();
+        for (var serializer : identifiableKryoSerializers) {
+            regs.add(new Registration(serializer.getId(), serializer.getType(), serializer.getSerializer()));
+        }
+        var id = kryoProps.getRegisteredTypesIdStart();
+        for (var typeName : kryoProps.getRegisteredTypes()) {
+            try {
+                regs.add(new Registration(id++, Class.forName(typeName), null));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("failed to find kryo registered type: " + typeName, e);
+            }
+        }
+        regs.sort(Comparator.comparingInt(Registration::id));
+        validate(regs);
+        this.registrations = List.copyOf(regs);
+        this.hash = computeHash(registrations);
+        log.debug("kryo registry: numRegistrations={}, hash={}", registrations.size(), hash);
+    }
+
+    /**
+     * Register all the classes in kryo instance.
+     *
+     * @param kryo kryo instance
+     *
+     * @throws IllegalArgumentException if registration id is already taken by kryo default registration of another
+     *         class
+     */
+    public void register(Kryo kryo) {
+        for (var reg : registrations) {
+            var existing = kryo.getRegistration(reg.id());
+            if (existing != null && existing.getType() != reg.type()) {
+                throw new IllegalArgumentException("kryo registration id is already taken: id=" + reg.id()
+                        + ", type=" + reg.type().getName() + ", existing=" + existing.getType().getName());
+            }
+            if (reg.serializer() != null) {
+                kryo.register(reg.type(), reg.serializer(), reg.id());
+            } else {
+                kryo.register(reg.type(), reg.id());
+            }
+        }
+    }
+
+    private static void validate(List<Registration> regs) {
+        var typesById = new HashMap<Integer, Class<?>>();
+        var types = new HashSet<Class<?>>();
+        for (var reg : regs) {
+            var sameId = typesById.putIfAbsent(reg.id(), reg.type());
+            if (sameId != null) {
+                throw new IllegalArgumentException("duplicate kryo registration id: id=" + reg.id()
+                        + ", types=[" + sameId.getName() + ", " + reg.type().getName() + "]");
+            }
+            if (!types.add(reg.type())) {
+                throw new IllegalArgumentException("kryo type is registered more than once: type="
+                        + reg.type().getName());
+            }
+        }
+    }
+
+    private static String computeHash(List<Registration> regs) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var reg : regs) {
+                var serializerName = reg.serializer() != null ? reg.serializer().getClass().getName() : "";
+                var line = reg.id() + ":" + reg.type().getName() + ":" + serializerName + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Registration(int id, Class<?> type, Serializer<?> serializer) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.dburyak.vertx.eventbus.kryo.config;
+
+import com.dburyak.vertx.core.AsyncCloseable;
+import com.dburyak.vertx.core.AsyncInitializable;
+import com.dburyak.vertx.core.di.AppStartup;
+import com.dburyak.vertx.eventbus.ClusterHashCheck;
+import com.dburyak.vertx.eventbus.config.EventBusProperties;
+import io.reactivex.rxjava3.core.Completable;
+import io.vertx.rxjava3.core.Vertx;
+import jakarta.inject.Singleton;
+
+/**
+ * Verifies with {@link ClusterHashCheck} on application startup that kryo registrations of this cluster member are the
+ * same as of the other live cluster members. Mismatch means that the same registration ids denote different classes
+ * on different members, so messages would be decoded as wrong types.
+ * <p>
+ * Registered classes are always written by id, there is no fallback to class names while registrations are not agreed
+ * with the cluster. So mismatch with a member of the same {@link EventBusProperties#getCodecRegistryVersion()} fails
+ * application startup, unless both {@link KryoCodecProperties#shouldFailOnClusterMismatch()} and
+ * {@link EventBusProperties#shouldFailOnCodecError()} are disabled, in which case it is only logged. Members with
+ * different versions may run together during rolling redeployment, as long as classes with changed registrations are
+ * not sent between them.
+ */
+@AppStartup
+@Singleton
+public class KryoRegistryClusterCheck implements AsyncInitializable, AsyncCloseable {
+    private static final String MAP_NAME = "vertx-tools.event-bus.kryo.registry";
+
+    private final ClusterHashCheck check;
+
+    /**
+     * Constructor.
+     *
+     * @param vertx vertx
+     * @param kryoRegistry kryo registry
+     * @param kryoProps kryo properties
+     * @param eventBusProperties event bus properties
+     */
+    public KryoRegistryClusterCheck(Vertx vertx, KryoRegistry kryoRegistry, KryoCodecProperties kryoProps,
+            EventBusProperties eventBusProperties) {
+        check = new ClusterHashCheck(vertx, MAP_NAME, "kryo registry", eventBusProperties.getCodecRegistryVersion(),
+                kryoRegistry.getHash(),
+                kryoProps.shouldFailOnClusterMismatch() || eventBusProperties.shouldFailOnCodecError());
+    }
+
+    @Override
+    public Completable initAsync() {
+        return check.verify();
+    }
+
+    @Override
+    public Completable closeAsync() {
+        return check.close();
+    }
+}
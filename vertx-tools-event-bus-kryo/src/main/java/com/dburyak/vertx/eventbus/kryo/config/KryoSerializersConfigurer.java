@@ -1,22 +1,20 @@
 package com.dburyak.vertx.eventbus.kryo.config;
 
-import com.dburyak.vertx.eventbus.kryo.IdentifiableKryoSerializer;
 import com.esotericsoftware.kryo.Kryo;
 import jakarta.inject.Singleton;
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
-
+/**
+ * Registers all the classes from {@link KryoRegistry} with their fixed ids in every kryo instance.
+ */
 @Singleton
 @RequiredArgsConstructor
 public class KryoSerializersConfigurer implements KryoConfigurer {
-    private final List<IdentifiableKryoSerializer<?>> identifiableKryoSerializers;
+    private final KryoRegistry kryoRegistry;
 
     @Override
     public Kryo configure(Kryo kryo) {
-        for (var reg : identifiableKryoSerializers) {
-            kryo.register(reg.getType(), reg.getSerializer(), reg.getId());
-        }
+        kryoRegistry.register(kryo);
         return kryo;
     }
 }
@@ -0,0 +1,107 @@
+package com.dburyak.vertx.eventbus.kryo
+
+import com.dburyak.vertx.eventbus.kryo.config.KryoCodecProperties
+import com.esotericsoftware.kryo.Kryo
+import com.esotericsoftware.kryo.io.ByteBufferInput
+import com.esotericsoftware.kryo.io.Input
+import com.esotericsoftware.kryo.io.KryoBufferOverflowException
+import com.esotericsoftware.kryo.io.Output
+import io.micronaut.context.ApplicationContext
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.internal.buffer.BufferInternal
+import spock.lang.Specification
+
+class KryoMessageCodecSpec extends Specification {
+
+    def 'encodes and decodes message after existing buffer content, zeroCopyDecode=#zeroCopyDecode'() {
+        given:
+        def codec = codec(zeroCopyDecode, inputFactory)
+        def message = ['one', 'two', [nested: 42]]
+        def prefix = 'prefix'
+        def buffer = Buffer.buffer(prefix)
+
+        when:
+        codec.encodeToWire(buffer, message)
+        def length = buffer.getInt(prefix.length())
+        codec.encodeToWire(buffer, 'second')
+
+        then: 'message is length prefixed'
+        buffer.length() > prefix.length() + Integer.BYTES + length
+
+        when:
+        def decoded = codec.decodeFromWire(prefix.length(), buffer)
+        def decodedSecond = codec.decodeFromWire(prefix.length() + Integer.BYTES + length, buffer)
+
+        then:
+        decoded == message
+        decodedSecond == 'second'
+
+        where:
+        zeroCopyDecode | inputFactory
+        true           | { new ByteBufferInput() }
+        false          | { new ByteBufferInput() }
+        false          | { new Input() }
+    }
+
+    def 'decodes message encoded with plain kryo output'() {
+        given:
+        def codec = codec(true, { new ByteBufferInput() }, { new Output(16, -1) })
+        def buffer = Buffer.buffer('prefix')
+
+        when:
+        codec.encodeToWire(buffer, 'x' * 100)
+
+        then:
+        codec.decodeFromWire('prefix'.length(), buffer) == 'x' * 100
+    }
+
+    def 'encodes and decodes message with #type buffer'() {
+        given:
+        def codec = codec(true, { new ByteBufferInput() })
+        def message = ['x' * 100, [nested: 42]]
+
+        when:
+        codec.encodeToWire(buffer, message)
+
+        then:
+        codec.decodeFromWire(0, buffer) == message
+
+        where:
+        type     | buffer
+        'heap'   | Buffer.buffer()
+        'direct' | BufferInternal.buffer(Unpooled.directBuffer())
+    }
+
+    def 'message bigger than max size fails to encode and next message is encoded correctly'() {
+        given:
+        def codec = codec(true, { new ByteBufferInput() }, { new VertxBufferOutput(16, 64) })
+
+        when:
+        codec.encodeToWire(Buffer.buffer(), 'x' * 100)
+
+        then:
+        thrown(KryoBufferOverflowException)
+
+        when:
+        def buffer = Buffer.buffer()
+        codec.encodeToWire(buffer, 'small')
+
+        then:
+        codec.decodeFromWire(0, buffer) == 'small'
+    }
+
+    private KryoMessageCodecBase<Object, Object> codec(boolean zeroCopyDecode, Closure<Input> inputFactory,
+            Closure<Output> outputFactory = { new VertxBufferOutput(16, -1) }) {
+        def kryoProps = new KryoCodecProperties(16, -1, zeroCopyDecode, false, null, 1000, true, 64, true)
+        def appCtx = Stub(ApplicationContext) {
+            createBean(Kryo) >> { new Kryo(registrationRequired: false) }
+            createBean(Input) >> { inputFactory() }
+            createBean(Output) >> { outputFactory() }
+        }
+        def codec = new LocalAwareKryoUnsafeMessageCodec<Object>()
+        codec.kryoPool = new KryoPool(appCtx, kryoProps)
+        codec.kryoCodecProperties = kryoProps
+        codec
+    }
+}
@@ -0,0 +1,129 @@
+package com.dburyak.vertx.eventbus.kryo
+
+import com.dburyak.vertx.eventbus.kryo.config.KryoCodecProperties
+import com.dburyak.vertx.eventbus.kryo.config.KryoFactory
+import com.esotericsoftware.kryo.Kryo
+import com.esotericsoftware.kryo.io.ByteBufferInput
+import com.esotericsoftware.kryo.io.Input
+import com.esotericsoftware.kryo.io.Output
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Bean
+import io.micronaut.context.annotation.Prototype
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+import static com.dburyak.vertx.eventbus.kryo.KryoPoolMetrics.FREE
+import static com.dburyak.vertx.eventbus.kryo.KryoPoolMetrics.HITS
+import static com.dburyak.vertx.eventbus.kryo.KryoPoolMetrics.IN_USE
+import static com.dburyak.vertx.eventbus.kryo.KryoPoolMetrics.MISSES
+
+class KryoPoolSpec extends Specification {
+
+    def 'kryo bean definitions are not bound to vertx threads'() {
+        expect:
+        KryoFactory.declaredMethods.findAll { it.isAnnotationPresent(Bean) }
+                .every { it.isAnnotationPresent(Prototype) }
+    }
+
+    def 'entries are shared between threads in pooled mode, including non-vertx threads'() {
+        given:
+        def pool = pool(true, 2)
+
+        when:
+        def entry = CompletableFuture.supplyAsync {
+            def e = pool.obtain()
+            pool.free(e)
+            e
+        }.get()
+        def reused = pool.obtain()
+
+        then:
+        reused.is(entry)
+        pool.misses == 1
+        pool.hits == 1
+        pool.inUse == 1
+        pool.free == 0
+
+        cleanup:
+        pool.free(reused)
+    }
+
+    def 'pool keeps at most max size free entries'() {
+        given:
+        def pool = pool(true, 2)
+
+        when:
+        def entries = (1..3).collect { pool.obtain() }
+
+        then:
+        entries.unique(false) { System.identityHashCode(it) }.size() == 3
+        pool.inUse == 3
+        pool.misses == 3
+
+        when:
+        entries.each { pool.free(it) }
+
+        then:
+        pool.inUse == 0
+        pool.free == 2
+    }
+
+    def 'entries are kept per thread in per-thread mode'() {
+        given:
+        def pool = pool(false, 2)
+
+        when:
+        def first = pool.obtain()
+        pool.free(first)
+        def second = pool.obtain()
+        pool.free(second)
+        def otherThread = CompletableFuture.supplyAsync { pool.obtain() }.get()
+
+        then:
+        second.is(first)
+        !otherThread.is(first)
+        pool.misses == 2
+        pool.hits == 1
+        pool.free == 0
+        pool.inUse == 0
+    }
+
+    def 'pool statistics are exported as meters'() {
+        given:
+        def pool = pool(true, 2)
+        def registry = new SimpleMeterRegistry()
+        new KryoPoolMetrics(pool).bindTo(registry)
+
+        when:
+        def first = pool.obtain()
+        pool.free(first)
+        def second = pool.obtain()
+        def third = pool.obtain()
+
+        then:
+        registry.get(HITS).functionCounter().count() == 1
+        registry.get(MISSES).functionCounter().count() == 2
+        registry.get(IN_USE).gauge().value() == 2
+        registry.get(FREE).gauge().value() == 0
+
+        when:
+        pool.free(second)
+        pool.free(third)
+
+        then:
+        registry.get(IN_USE).gauge().value() == 0
+        registry.get(FREE).gauge().value() == 2
+    }
+
+    private KryoPool pool(boolean poolEnabled, int poolMaxSize) {
+        def kryoProps = new KryoCodecProperties(16, -1, true, false, null, 1000, poolEnabled, poolMaxSize, true)
+        def appCtx = Stub(ApplicationContext) {
+            createBean(Kryo) >> { new Kryo(registrationRequired: false) }
+            createBean(Input) >> { new ByteBufferInput() }
+            createBean(Output) >> { new VertxBufferOutput(16, -1) }
+        }
+        new KryoPool(appCtx, kryoProps)
+    }
+}
@@ -0,0 +1,205 @@
+package com.dburyak.vertx.eventbus.kryo
+
+import com.dburyak.vertx.eventbus.kryo.config.KryoCodecProperties
+import com.dburyak.vertx.eventbus.kryo.config.KryoRegistry
+import com.esotericsoftware.kryo.Kryo
+import com.esotericsoftware.kryo.Serializer
+import com.esotericsoftware.kryo.io.Input
+import com.esotericsoftware.kryo.io.Output
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class KryoRegistrySpec extends Specification {
+
+    def 'configured types get ids in configuration order and are written by id'() {
+        given:
+        def registry = registry([], [ArrayList.name, HashMap.name], 2000)
+        def kryo = kryo(false, registry)
+
+        when:
+        def bytes = serialize(kryo, new ArrayList(['a', 'b']))
+
+        then:
+        kryo.getRegistration(2000).type == ArrayList
+        kryo.getRegistration(2001).type == HashMap
+        !new String(bytes, StandardCharsets.ISO_8859_1).contains(ArrayList.name)
+        deserialize(kryo, bytes) == ['a', 'b']
+    }
+
+    def 'identifiable serializers are registered with their ids'() {
+        given:
+        def registry = registry([uuid(500)], [])
+        def kryo = kryo(false, registry)
+        def message = UUID.randomUUID()
+
+        expect:
+        kryo.getRegistration(500).type == UUID
+        kryo.getRegistration(500).serializer instanceof UuidSerializer
+        deserialize(kryo, serialize(kryo, message)) == message
+    }
+
+    def 'conflicting registrations are rejected: #conflict'() {
+        when:
+        registry(serializers, types, 1000)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains(message)
+
+        where:
+        conflict                           | serializers                  | types                            || message
+        'same id of two serializers'       | [uuid(500), bitSet(500)]     | []                               || 'duplicate kryo registration id'
+        'serializer id of configured type' | [uuid(1000)]                 | [ArrayList.name]                 || 'duplicate kryo registration id'
+        'same type registered twice'       | []                           | [ArrayList.name, ArrayList.name] || 'registered more than once'
+        'unknown configured type'          | []                           | ['com.example.Missing']          || 'failed to find kryo registered type'
+    }
+
+    def 'id taken by kryo default registration of another class is rejected'() {
+        given:
+        def registry = registry([uuid(1)], [])
+
+        when:
+        kryo(false, registry)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('kryo registration id is already taken')
+    }
+
+    def 'hash does not depend on serializer beans order'() {
+        given:
+        def first = uuid(500)
+        def second = bitSet(501)
+
+        expect:
+        registry([first, second], [ArrayList.name]).hash == registry([second, first], [ArrayList.name]).hash
+    }
+
+    def 'hash changes with registrations: #change'() {
+        given:
+        def base = registry([uuid(500)], [ArrayList.name, HashMap.name])
+
+        expect:
+        base.hash != changed.hash
+
+        where:
+        change                   | changed
+        'serializer id'          | registry([uuid(501)], [ArrayList.name, HashMap.name])
+        'serializer class'       | registry([identifiable(500, UUID, new OtherUuidSerializer())], [ArrayList.name, HashMap.name])
+        'configured types order' | registry([uuid(500)], [HashMap.name, ArrayList.name])
+        'configured ids start'   | registry([uuid(500)], [ArrayList.name, HashMap.name], 2000)
+        'added type'             | registry([uuid(500)], [ArrayList.name, HashMap.name, LinkedList.name])
+    }
+
+    def 'unregistered class is rejected when registration is required'() {
+        given:
+        def kryo = kryo(true, registry([], [ArrayList.name]))
+
+        when:
+        def bytes = serialize(kryo, new ArrayList(['a']))
+
+        then:
+        deserialize(kryo, bytes) == ['a']
+
+        when:
+        serialize(kryo, new HashMap([a: 'b']))
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('not registered')
+    }
+
+    def 'unregistered class is written with class name when registration is not required'() {
+        given:
+        def kryo = kryo(false, registry([], [ArrayList.name]))
+
+        when:
+        def bytes = serialize(kryo, new HashMap([a: 'b']))
+
+        then:
+        new String(bytes, StandardCharsets.ISO_8859_1).contains(HashMap.name)
+        deserialize(kryo, bytes) == [a: 'b']
+    }
+
+    private static KryoRegistry registry(List<IdentifiableKryoSerializer<?>> serializers, List<String> types,
+            int idStart = 1000) {
+        def kryoProps = new KryoCodecProperties(16, -1, true, false, types, idStart, true, 64, true)
+        new KryoRegistry(serializers, kryoProps)
+    }
+
+    private static Kryo kryo(boolean registrationRequired, KryoRegistry registry) {
+        def kryo = new Kryo(registrationRequired: registrationRequired)
+        registry.register(kryo)
+        kryo
+    }
+
+    private static byte[] serialize(Kryo kryo, Object obj) {
+        def output = new Output(256, -1)
+        kryo.writeClassAndObject(output, obj)
+        output.toBytes()
+    }
+
+    private static Object deserialize(Kryo kryo, byte[] bytes) {
+        kryo.readClassAndObject(new Input(bytes))
+    }
+
+    private static IdentifiableKryoSerializer<UUID> uuid(int id) {
+        identifiable(id, UUID, new UuidSerializer())
+    }
+
+    private static IdentifiableKryoSerializer<BitSet> bitSet(int id) {
+        identifiable(id, BitSet, new BitSetSerializer())
+    }
+
+    private static <T> IdentifiableKryoSerializer<T> identifiable(int id, Class<T> type, Serializer<T> serializer) {
+        new IdentifiableKryoSerializer<T>() {
+            @Override
+            int getId() {
+                id
+            }
+
+            @Override
+            Class<T> getType() {
+                type
+            }
+
+            @Override
+            Serializer<T> getSerializer() {
+                serializer
+            }
+        }
+    }
+
+    static class UuidSerializer extends Serializer<UUID> {
+
+        @Override
+        void write(Kryo kryo, Output output, UUID uuid) {
+            output.writeLong(uuid.mostSignificantBits)
+            output.writeLong(uuid.leastSignificantBits)
+        }
+
+        @Override
+        UUID read(Kryo kryo, Input input, Class<? extends UUID> type) {
+            new UUID(input.readLong(), input.readLong())
+        }
+    }
+
+    static class OtherUuidSerializer extends UuidSerializer {
+    }
+
+    static class BitSetSerializer extends Serializer<BitSet> {
+
+        @Override
+        void write(Kryo kryo, Output output, BitSet bitSet) {
+            def bytes = bitSet.toByteArray()
+            output.writeVarInt(bytes.length, true)
+            output.writeBytes(bytes)
+        }
+
+        @Override
+        BitSet read(Kryo kryo, Input input, Class<? extends BitSet> type) {
+            BitSet.valueOf(input.readBytes(input.readVarInt(true)))
+        }
+    }
+}
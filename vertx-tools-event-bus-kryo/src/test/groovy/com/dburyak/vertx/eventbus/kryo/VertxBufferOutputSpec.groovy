@@ -0,0 +1,89 @@
+package com.dburyak.vertx.eventbus.kryo
+
+import com.esotericsoftware.kryo.Kryo
+import com.esotericsoftware.kryo.io.Input
+import com.esotericsoftware.kryo.io.KryoBufferOverflowException
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.internal.buffer.BufferInternal
+import spock.lang.Specification
+
+class VertxBufferOutputSpec extends Specification {
+    def kryo = new Kryo(registrationRequired: false)
+
+    def 'writes length prefixed message to #type buffer after existing content'() {
+        given:
+        def output = new VertxBufferOutput(16, -1)
+        def message = ['x' * 100, 42L, [nested: 'value']]
+        buffer.appendString('prefix')
+
+        when:
+        output.begin(buffer)
+        kryo.writeClassAndObject(output, message)
+        def length = output.end()
+
+        then:
+        buffer.getString(0, 'prefix'.length()) == 'prefix'
+        buffer.getInt('prefix'.length()) == length
+        buffer.length() == 'prefix'.length() + Integer.BYTES + length
+        read(buffer, 'prefix'.length()) == message
+
+        where:
+        type     | buffer
+        'heap'   | Buffer.buffer()
+        'direct' | BufferInternal.buffer(Unpooled.directBuffer())
+    }
+
+    def 'message bigger than max size fails and next message is written correctly to #type buffer'() {
+        given:
+        def output = new VertxBufferOutput(16, 64)
+
+        when:
+        output.begin(bufferFactory())
+        try {
+            kryo.writeClassAndObject(output, 'x' * 100)
+        } finally {
+            output.end()
+        }
+
+        then:
+        thrown(KryoBufferOverflowException)
+
+        when:
+        def buffer = bufferFactory()
+        output.begin(buffer)
+        kryo.writeClassAndObject(output, 'small')
+        def length = output.end()
+
+        then:
+        buffer.length() == Integer.BYTES + length
+        read(buffer, 0) == 'small'
+
+        where:
+        type     | bufferFactory
+        'heap'   | { Buffer.buffer() }
+        'direct' | { BufferInternal.buffer(Unpooled.directBuffer()) }
+    }
+
+    def 'single write bigger than chunk size is written to direct buffer'() {
+        given:
+        def output = new VertxBufferOutput(4, -1)
+        def buffer = BufferInternal.buffer(Unpooled.directBuffer())
+
+        when:
+        output.begin(buffer)
+        output.writeLong(Long.MAX_VALUE)
+        output.writeString('x' * 10)
+        def length = output.end()
+
+        then:
+        buffer.getInt(0) == length
+        buffer.getLong(Integer.BYTES) == Long.MAX_VALUE
+        new Input(buffer.getBytes(Integer.BYTES + Long.BYTES, buffer.length())).readString() == 'x' * 10
+    }
+
+    private Object read(Buffer buffer, int pos) {
+        def length = buffer.getInt(pos)
+        kryo.readClassAndObject(new Input(buffer.getBytes(pos + Integer.BYTES, pos + Integer.BYTES + length)))
+    }
+}
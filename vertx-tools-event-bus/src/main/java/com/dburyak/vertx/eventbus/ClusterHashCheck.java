@@ -0,0 +1,188 @@
+package com.dburyak.vertx.eventbus;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.vertx.rxjava3.core.Vertx;
+import io.vertx.rxjava3.core.eventbus.MessageConsumer;
+import io.vertx.rxjava3.core.shareddata.AsyncMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Verifies that the hash of a registry of this cluster member (e.g. of message types registered by id) is the same as
+ * of all the other live cluster members. Used by codecs that encode types with ids which must denote the same types on
+ * every member.
+ * <p>
+ * Each member publishes its registry version and hash in the cluster-wide map under its own key with a time-to-live,
+ * and refreshes the entry periodically while alive, so entries of members that left the cluster expire. Registry is
+ * agreed with the cluster when all published hashes are equal. Agreement is re-evaluated on every refresh and right
+ * away when another member joins, and is reported to the agreement listener on every change.
+ * <p>
+ * Registry version is bumped together with registry changes. Hash mismatch with a member of the same version is a
+ * misconfiguration, it fails {@link #verify()} if fail-on-error is enabled, otherwise it is only logged. Mismatch with
+ * members of other versions is expected during rolling redeployment and is tolerated, registry is just not agreed
+ * until members of other versions leave the cluster.
+ */
+@Slf4j
+public class ClusterHashCheck {
+    private static final Duration ENTRY_TTL = Duration.ofSeconds(30);
+    private static final Duration REFRESH_PERIOD = Duration.ofSeconds(10);
+
+    private final Vertx vertx;
+    private final String mapName;
+    private final String registryName;
+    private final String entry;
+    private final String hash;
+    private final int version;
+    private final boolean failOnError;
+    private final Consumer<Boolean> agreementListener;
+    private final String memberKey = UUID.randomUUID().toString();
+    private volatile boolean agreed;
+    private volatile long refreshTimerId = -1;
+    private volatile MessageConsumer<String> joinConsumer;
+
+    /**
+     * Constructor.
+     *
+     * @param vertx vertx
+     * @param mapName name of the cluster-wide map to publish hashes in, is also the address of join notifications
+     * @param registryName name of the registry for logging
+     * @param version registry version
+     * @param hash registry hash
+     * @param failOnError whether to fail verification on hash mismatch with members of the same version
+     * @param agreementListener listener of registry agreement changes, called with {@code true} when all live cluster
+     *         members have the same hash, and with {@code false} otherwise
+     */
+    public ClusterHashCheck(Vertx vertx, String mapName, String registryName, int version, String hash,
+            boolean failOnError, Consumer<Boolean> agreementListener) {
+        this.vertx = vertx;
+        this.mapName = mapName;
+        this.registryName = registryName;
+        this.version = version;
+        this.hash = hash;
+        this.entry = version + ":" + hash;
+        this.failOnError = failOnError;
+        this.agreementListener = agreementListener;
+    }
+
+    /**
+     * Constructor for registries that have no fallback while they are not agreed with the cluster, and rely on failing
+     * verification on mismatch instead.
+     *
+     * @param vertx vertx
+     * @param mapName name of the cluster-wide map to publish hashes in, is also the address of join notifications
+     * @param registryName name of the registry for logging
+     * @param version registry version
+     * @param hash registry hash
+     * @param failOnError whether to fail verification on hash mismatch with members of the same version
+     */
+    public ClusterHashCheck(Vertx vertx, String mapName, String registryName, int version, String hash,
+            boolean failOnError) {
+        this(vertx, mapName, registryName, version, hash, failOnError, agreed -> { });
+    }
+
+    /**
+     * Publish hash of this member and verify it against the other cluster members. Registry of non-clustered vertx is
+     * agreed right away.
+     *
+     * @return completable that fails if hash differs from the hash of a member of the same version and fail-on-error
+     *         is enabled
+     */
+    public Completable verify() {
+        if (!vertx.isClustered()) {
+            setAgreed(true);
+            return Completable.complete();
+        }
+        return vertx.sharedData().<String, String>rxGetClusterWideMap(mapName)
+                .flatMapCompletable(map -> map.rxPut(memberKey, entry, ENTRY_TTL.toMillis())
+                        .andThen(map.rxEntries())
+                        .flatMapCompletable(entries -> {
+                            var sameVersionMismatch = entries.values().stream()
+                                    .filter(e -> versionOf(e) == version && !hashOf(e).equals(hash))
+                                    .findFirst();
+                            if (sameVersionMismatch.isPresent() && failOnError) {
+                                log.error("{} differs from cluster: version={}, hash={}, clusterHash={}",
+                                        registryName, version, hash, hashOf(sameVersionMismatch.get()));
+                                return map.rxRemove(memberKey).ignoreElement()
+                                        .andThen(Completable.error(new IllegalStateException(registryName
+                                                + " differs from cluster: version=" + version + ", hash=" + hash
+                                                + ", clusterHash=" + hashOf(sameVersionMismatch.get()))));
+                            }
+                            sameVersionMismatch.ifPresent(e -> log.warn(
+                                    "{} differs from cluster: version={}, hash={}, clusterHash={}",
+                                    registryName, version, hash, hashOf(e)));
+                            update(entries);
+                            joinConsumer = vertx.eventBus().consumer(mapName, msg -> onJoin(msg.body()));
+                            vertx.eventBus().publish(mapName, entry);
+                            refreshTimerId = vertx.setPeriodic(REFRESH_PERIOD.toMillis(), id -> refresh(map));
+                            log.info("{} published to cluster: version={}, hash={}, agreed={}", registryName,
+                                    version, hash, agreed);
+                            return Completable.complete();
+                        }));
+    }
+
+    /**
+     * Stop refreshing hash of this member and remove it from the cluster-wide map, so the other members don't wait for
+     * it to expire.
+     *
+     * @return completable that completes when hash is removed
+     */
+    public Completable close() {
+        if (!vertx.isClustered() || refreshTimerId < 0) {
+            return Completable.complete();
+        }
+        vertx.cancelTimer(refreshTimerId);
+        refreshTimerId = -1;
+        return joinConsumer.rxUnregister()
+                .andThen(vertx.sharedData().<String, String>rxGetClusterWideMap(mapName))
+                .flatMapMaybe(map -> map.rxRemove(memberKey))
+                .ignoreElement();
+    }
+
+    /**
+     * Whether all live cluster members have the same registry hash.
+     *
+     * @return whether registry is agreed with the cluster
+     */
+    public boolean isAgreed() {
+        return agreed;
+    }
+
+    private void refresh(AsyncMap<String, String> map) {
+        map.rxPut(memberKey, entry, ENTRY_TTL.toMillis())
+                .andThen(map.rxEntries())
+                .subscribe(this::update, err -> log.warn("failed to refresh {} hash in cluster", registryName, err));
+    }
+
+    private void onJoin(String memberEntry) {
+        // don't wait for the next refresh, other member may start receiving ids right after it joined
+        if (!hashOf(memberEntry).equals(hash)) {
+            log.warn("cluster member with different {} joined: version={}, hash={}", registryName,
+                    versionOf(memberEntry), hashOf(memberEntry));
+            setAgreed(false);
+        }
+    }
+
+    private void update(Map<String, String> entries) {
+        setAgreed(entries.values().stream().allMatch(e -> hashOf(e).equals(hash)));
+    }
+
+    private void setAgreed(boolean agreed) {
+        if (this.agreed != agreed) {
+            log.info("{} agreement with cluster changed: agreed={}, hash={}", registryName, agreed, hash);
+            this.agreed = agreed;
+            agreementListener.accept(agreed);
+        }
+    }
+
+    private static int versionOf(String entry) {
+        return Integer.parseInt(entry.substring(0, entry.indexOf(':')));
+    }
+
+    private static String hashOf(String entry) {
+        return entry.substring(entry.indexOf(':') + 1);
+    }
+}
@@ -0,0 +1,225 @@
+package com.dburyak.vertx.eventbus;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.MalformedInputException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.internal.buffer.BufferInternal;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Event bus message codec that compresses messages encoded by another codec when they are sent over the wire. Messages
+ * smaller than the threshold are sent as is. Local messages are not affected, transformation is done by the wrapped
+ * codec.
+ * <p>
+ * Wire format is a flag byte ({@code 0} - not compressed, {@code 1} - compressed), compressed size (int) and
+ * uncompressed size (int), both are zero if not compressed, followed by either the message as encoded by the wrapped
+ * codec, or by the compressed data.
+ * <p>
+ * Wrapped codec encodes directly into the target buffer, and only messages above the threshold are compressed through
+ * a per-thread scratch array and written over the encoded message. So messages below the threshold cost one more
+ * header only. Messages that do not get smaller when compressed are sent as is. Encoded message is read straight from
+ * the backing array of heap target buffers, and is copied to one more per-thread scratch array for direct ones.
+ * <p>
+ * Sizes in the header of received message are verified before decompression: uncompressed size must not exceed the
+ * configured max size, compressed size must fit into the received buffer and must be smaller than uncompressed size,
+ * and compression ratio must not exceed the max ratio of the compression algorithm. Otherwise, decoding fails without
+ * allocating anything.
+ *
+ * @param <S> send type
+ * @param <R> receive type
+ */
+@ToString(onlyExplicitlyIncluded = true)
+@Slf4j
+public class CompressingMessageCodec<S, R> implements MessageCodec<S, R> {
+    private static final byte NOT_COMPRESSED = 0;
+    private static final byte COMPRESSED = 1;
+    private static final int HEADER_SIZE = 1 + 2 * Integer.BYTES;
+    private static final int MAX_RETAINED_SCRATCH_SIZE = 1024 * 1024;
+
+    @ToString.Include
+    private final MessageCodec<S, R> codec;
+
+    @ToString.Include
+    private final Compression compression;
+
+    @ToString.Include
+    private final int threshold;
+
+    @ToString.Include
+    private final int maxSize;
+
+    private final ThreadLocal<Compressor> compressors;
+    private final ThreadLocal<byte[]> compressScratches = new ThreadLocal<>();
+    private final ThreadLocal<byte[]> inputScratches = new ThreadLocal<>();
+    private final ThreadLocal<Decompressor> decompressors;
+    private final AtomicBoolean unsupportedBufferLogged = new AtomicBoolean();
+
+    /**
+     * Constructor.
+     *
+     * @param codec codec to encode messages with before compression
+     * @param compression compression algorithm
+     * @param threshold minimal size in bytes of encoded message to be compressed
+     * @param maxSize max uncompressed size in bytes of received message, bigger messages fail to decode
+     */
+    public CompressingMessageCodec(MessageCodec<S, R> codec, Compression compression, int threshold, int maxSize) {
+        if (compression == Compression.NONE) {
+            throw new IllegalArgumentException("compression algorithm must be specified: codec=" + codec.name());
+        }
+        this.codec = codec;
+        this.compression = compression;
+        this.threshold = threshold;
+        this.maxSize = maxSize;
+        this.compressors = ThreadLocal.withInitial(compression::newCompressor);
+        this.decompressors = ThreadLocal.withInitial(compression::newDecompressor);
+    }
+
+    /**
+     * Static factory method to create compressing message codec.
+     *
+     * @param codec codec to encode messages with before compression
+     * @param compression compression algorithm
+     * @param threshold minimal size in bytes of encoded message to be compressed
+     * @param maxSize max uncompressed size in bytes of received message, bigger messages fail to decode
+     * @param <S> send type
+     * @param <R> receive type
+     *
+     * @return new compressing message codec instance
+     */
+    public static <S, R> CompressingMessageCodec<S, R> of(MessageCodec<S, R> codec, Compression compression,
+            int threshold, int maxSize) {
+        return new CompressingMessageCodec<>(codec, compression, threshold, maxSize);
+    }
+
+    @Override
+    public String name() {
+        return codec.name();
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, S s) {
+        var frameStart = buffer.length();
+        buffer.appendByte(NOT_COMPRESSED);
+        buffer.appendInt(0);
+        buffer.appendInt(0);
+        var dataStart = buffer.length();
+        codec.encodeToWire(buffer, s);
+        var size = buffer.length() - dataStart;
+        if (size < threshold) {
+            return;
+        }
+        if (!(buffer instanceof BufferInternal bufferInternal)) {
+            if (unsupportedBufferLogged.compareAndSet(false, true)) {
+                log.warn("messages written to this buffer type are sent uncompressed: codec={}, bufferType={}",
+                        codec.name(), buffer.getClass().getName());
+            }
+            return;
+        }
+        // underlying netty buffer, not a duplicate from getByteBuf, since its writer index is moved back
+        var byteBuf = bufferInternal.unwrap();
+        byte[] input;
+        int inputOffset;
+        if (byteBuf.hasArray()) {
+            input = byteBuf.array();
+            inputOffset = byteBuf.arrayOffset() + dataStart;
+        } else {
+            input = scratch(inputScratches, size);
+            inputOffset = 0;
+            byteBuf.getBytes(dataStart, input, 0, size);
+        }
+        var compressor = compressors.get();
+        var scratch = scratch(compressScratches, compressor.maxCompressedLength(size));
+        var compressedSize = compressor.compress(input, inputOffset, size, scratch, 0, scratch.length);
+        if (compressedSize >= size) {
+            return;
+        }
+        buffer.setByte(frameStart, COMPRESSED);
+        buffer.setInt(frameStart + 1, compressedSize);
+        buffer.setInt(frameStart + 1 + Integer.BYTES, size);
+        buffer.setBytes(dataStart, scratch, 0, compressedSize);
+        byteBuf.writerIndex(dataStart + compressedSize);
+    }
+
+    @Override
+    public R decodeFromWire(int pos, Buffer buffer) {
+        var p = pos;
+        var flag = buffer.getByte(p);
+        if (flag == NOT_COMPRESSED) {
+            return codec.decodeFromWire(p + HEADER_SIZE, buffer);
+        }
+        if (flag != COMPRESSED) {
+            throw new IllegalArgumentException("unknown compression flag: flag=" + flag + ", codec=" + codec.name());
+        }
+        p++;
+        var compressedSize = buffer.getInt(p);
+        p += Integer.BYTES;
+        var size = buffer.getInt(p);
+        p += Integer.BYTES;
+        verifySizes(compressedSize, size, buffer.length() - p);
+        var decompressed = new byte[size];
+        var decompressor = decompressors.get();
+        var byteBuf = buffer instanceof BufferInternal bufferInternal ? bufferInternal.getByteBuf() : null;
+        int decompressedSize;
+        try {
+            if (byteBuf != null && byteBuf.hasArray()) {
+                decompressedSize = decompressor.decompress(byteBuf.array(), byteBuf.arrayOffset() + p,
+                        compressedSize, decompressed, 0, size);
+            } else {
+                decompressedSize = decompressor.decompress(buffer.getBytes(p, p + compressedSize), 0,
+                        compressedSize, decompressed, 0, size);
+            }
+        } catch (MalformedInputException e) {
+            throw new IllegalArgumentException("corrupted compressed message: compressedSize=" + compressedSize
+                    + ", size=" + size + ", codec=" + codec.name(), e);
+        }
+        if (decompressedSize != size) {
+            throw new IllegalArgumentException("decompressed size differs from header: size=" + size
+                    + ", decompressedSize=" + decompressedSize + ", codec=" + codec.name());
+        }
+        return codec.decodeFromWire(0, Buffer.buffer(decompressed));
+    }
+
+    @Override
+    public R transform(S s) {
+        return codec.transform(s);
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return codec.systemCodecID();
+    }
+
+    // header comes from the wire, so sizes are checked before anything is allocated
+    private void verifySizes(int compressedSize, int size, int available) {
+        if (size <= 0 || size > maxSize) {
+            throw new IllegalArgumentException("invalid uncompressed message size: size=" + size + ", maxSize="
+                    + maxSize + ", codec=" + codec.name());
+        }
+        if (compressedSize <= 0 || compressedSize >= size || compressedSize > available) {
+            throw new IllegalArgumentException("invalid compressed message size: compressedSize=" + compressedSize
+                    + ", size=" + size + ", available=" + available + ", codec=" + codec.name());
+        }
+        if ((long) size > (long) compressedSize * compression.getMaxRatio()) {
+            throw new IllegalArgumentException("invalid compression ratio: compressedSize=" + compressedSize
+                    + ", size=" + size + ", maxRatio=" + compression.getMaxRatio() + ", codec=" + codec.name());
+        }
+    }
+
+    private static byte[] scratch(ThreadLocal<byte[]> scratches, int size) {
+        var scratch = scratches.get();
+        if (scratch != null && scratch.length >= size) {
+            return scratch;
+        }
+        scratch = new byte[size];
+        if (size <= MAX_RETAINED_SCRATCH_SIZE) {
+            // huge messages are rare, so their scratch arrays are not retained by the thread
+            scratches.set(scratch);
+        }
+        return scratch;
+    }
+}
@@ -0,0 +1,71 @@
+package com.dburyak.vertx.eventbus;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+
+import java.util.function.Supplier;
+
+/**
+ * Compression algorithm of event bus messages sent over the wire, see {@link CompressingMessageCodec}. Pure java
+ * implementations are used.
+ */
+public enum Compression {
+
+    /**
+     * Messages are not compressed.
+     */
+    NONE(null, null, 1),
+
+    /**
+     * LZ4 compression. Is very fast, but compresses worse than {@link #ZSTD}.
+     */
+    LZ4(Lz4Compressor::new, Lz4Decompressor::new, 256),
+
+    /**
+     * Zstandard compression. Compresses better than {@link #LZ4}, but is slower.
+     */
+    ZSTD(ZstdCompressor::new, ZstdDecompressor::new, 32 * 1024);
+
+    private final Supplier<Compressor> compressorFactory;
+    private final Supplier<Decompressor> decompressorFactory;
+    private final int maxRatio;
+
+    Compression(Supplier<Compressor> compressorFactory, Supplier<Decompressor> decompressorFactory, int maxRatio) {
+        this.compressorFactory = compressorFactory;
+        this.decompressorFactory = decompressorFactory;
+        this.maxRatio = maxRatio;
+    }
+
+    /**
+     * Create new compressor. Compressors are not guaranteed to be thread safe.
+     *
+     * @return new compressor
+     */
+    public Compressor newCompressor() {
+        return compressorFactory.get();
+    }
+
+    /**
+     * Max ratio of uncompressed to compressed size that this compression format can produce (LZ4 encodes at most
+     * about 255 bytes per input byte, Zstandard - a single repeated byte per block of up to 128kb). Received messages
+     * that claim bigger ratio are corrupted.
+     *
+     * @return max compression ratio
+     */
+    public int getMaxRatio() {
+        return maxRatio;
+    }
+
+    /**
+     * Create new decompressor. Decompressors are not guaranteed to be thread safe.
+     *
+     * @return new decompressor
+     */
+    public Decompressor newDecompressor() {
+        return decompressorFactory.get();
+    }
+}
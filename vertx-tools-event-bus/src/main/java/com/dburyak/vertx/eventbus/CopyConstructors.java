@@ -0,0 +1,56 @@
+package com.dburyak.vertx.eventbus;
+
+import com.dburyak.vertx.core.util.LambdaFactories;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache of copiers based on public copy constructors of message classes. Copy constructor is looked up only once per
+ * class and is invoked via lambda generated by {@link LambdaFactories}, so copying costs the same as a direct
+ * constructor call.
+ */
+@Slf4j
+public final class CopyConstructors {
+    private static final ClassValue<Optional<UnaryOperator<Object>>> COPIERS = new ClassValue<>() {
+        @Override
+        protected Optional<UnaryOperator<Object>> computeValue(Class<?> type) {
+            return Optional.ofNullable(createCopier(type));
+        }
+    };
+
+    private CopyConstructors() {
+    }
+
+    /**
+     * Get copier of the objects of specified class.
+     *
+     * @param type class of objects to copy
+     * @param <T> type of objects to copy
+     *
+     * @return copier that invokes public copy constructor, or empty if class has no public copy constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<UnaryOperator<T>> copierOf(Class<T> type) {
+        return (Optional<UnaryOperator<T>>) (Optional<?>) COPIERS.get(type);
+    }
+
+    private static UnaryOperator<Object> createCopier(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class, type));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            log.debug("no public copy constructor: type={}", type);
+            return null;
+        }
+        return LambdaFactories.unaryOperator(constructor);
+    }
+}
@@ -0,0 +1,19 @@
+package com.dburyak.vertx.eventbus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks event bus message class as deeply immutable, so that it can be delivered locally without copying by
+ * {@link ImmutableMessageCodec}s. Annotated class must be final, all its fields (including inherited ones) must be
+ * final and of deeply immutable types, see {@link ImmutableTypes}. Records don't need this annotation.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface DeeplyImmutable {
+}
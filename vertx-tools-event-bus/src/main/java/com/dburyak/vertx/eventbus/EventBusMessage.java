@@ -0,0 +1,36 @@
+package com.dburyak.vertx.eventbus;
+
+import io.micronaut.core.annotation.Introspected;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks event bus message class, so that specified codec is registered as default codec for it on application
+ * startup. Annotated classes are indexed at compile time by micronaut annotation processor (as bean introspections),
+ * no classpath scanning or reflection is performed at runtime, and no "default-types" list needs to be maintained in
+ * the configuration.
+ * <p>
+ * If codec of the specified class is configured in "vertx.event-bus.codec", the configured instance is registered
+ * (with its compression settings), otherwise the codec bean of the specified class is registered as is. Types listed
+ * explicitly in "default-types" of the configuration take precedence over this annotation.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+@Introspected
+public @interface EventBusMessage {
+
+    /**
+     * Codec to register as default codec for the annotated class. Must be a DI bean.
+     *
+     * @return codec class
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends MessageCodec> codec();
+}
@@ -0,0 +1,12 @@
+package com.dburyak.vertx.eventbus;
+
+/**
+ * Marker of message codecs that deliver messages locally as-is, without copying. Such codecs accept only deeply
+ * immutable messages (see {@link ImmutableTypes}): default types of such codecs are verified when codec is registered
+ * on the event bus, and application fails to start if any of them is not deeply immutable.
+ * <p>
+ * No copy and no wrapper is allocated per message. Visibility of the message contents on the receiver thread is
+ * guaranteed by final fields semantics, since all the fields of deeply immutable message are final.
+ */
+public interface ImmutableMessageCodec {
+}
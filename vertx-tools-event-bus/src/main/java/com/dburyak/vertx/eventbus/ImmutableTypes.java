@@ -0,0 +1,181 @@
+package com.dburyak.vertx.eventbus;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Verification of deep immutability of event bus message types. Type is deeply immutable if it is one of:
+ * <ul>
+ *     <li>primitive, boxed primitive, {@link String}, enum, {@link BigDecimal}, {@link BigInteger}, {@link UUID}
+ *     <li>value-based {@code java.time} type, {@link OptionalInt}, {@link OptionalLong}, {@link OptionalDouble}
+ *     <li>{@link Locale}, {@link Currency}, {@link URI}
+ *     <li>{@link Optional} of deeply immutable type
+ *     <li>record with deeply immutable components
+ *     <li>final class annotated with {@link DeeplyImmutable} with only final fields of deeply immutable types
+ *     <li>sealed type with only deeply immutable permitted subtypes
+ * </ul>
+ * Arrays, collections and maps are not deeply immutable, since their immutability can not be verified by type.
+ * Verification is done only once per class.
+ */
+public final class ImmutableTypes {
+    private static final Set<Class<?>> KNOWN_IMMUTABLE = Set.of(String.class, Boolean.class, Byte.class,
+            Character.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigDecimal.class,
+            BigInteger.class, UUID.class, Instant.class, Duration.class, Period.class, LocalDate.class, LocalTime.class,
+            LocalDateTime.class, OffsetDateTime.class, OffsetTime.class, ZonedDateTime.class, ZoneId.class, Year.class,
+            YearMonth.class, MonthDay.class, ZoneOffset.class, OptionalInt.class, OptionalLong.class,
+            OptionalDouble.class, Locale.class, Currency.class, URI.class);
+    private static final ClassValue<Optional<String>> VIOLATIONS = new ClassValue<>() {
+        @Override
+        protected Optional<String> computeValue(Class<?> type) {
+            return Optional.ofNullable(violation(type, type.getName(), Map.of(), new HashSet<>()));
+        }
+    };
+
+    private ImmutableTypes() {
+    }
+
+    /**
+     * Whether the type is deeply immutable.
+     *
+     * @param type type to check
+     *
+     * @return whether the type is deeply immutable
+     */
+    public static boolean isDeeplyImmutable(Class<?> type) {
+        return VIOLATIONS.get(type).isEmpty();
+    }
+
+    /**
+     * Verify that the type is deeply immutable.
+     *
+     * @param type type to check
+     *
+     * @throws IllegalArgumentException if the type is not deeply immutable
+     */
+    public static void requireDeeplyImmutable(Class<?> type) {
+        var violation = VIOLATIONS.get(type);
+        if (violation.isPresent()) {
+            throw new IllegalArgumentException("type is not deeply immutable: type=" + type.getName()
+                    + ", violation=" + violation.get());
+        }
+    }
+
+    private static String violation(Type type, String path, Map<TypeVariable<?>, Type> typeArgs,
+            Set<Class<?>> inProgress) {
+        if (type instanceof TypeVariable<?> typeVar) {
+            var actualType = typeArgs.get(typeVar);
+            return actualType != null ? violation(actualType, path, Map.of(), inProgress)
+                    : path + ": unresolved type variable " + typeVar.getName();
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            var rawType = (Class<?>) parameterizedType.getRawType();
+            var vars = rawType.getTypeParameters();
+            var actualArgs = parameterizedType.getActualTypeArguments();
+            var resolvedArgs = new HashMap<TypeVariable<?>, Type>();
+            for (var i = 0; i < vars.length; i++) {
+                var arg = actualArgs[i];
+                resolvedArgs.put(vars[i], arg instanceof TypeVariable<?> v && typeArgs.containsKey(v)
+                        ? typeArgs.get(v) : arg);
+            }
+            if (rawType == Optional.class) {
+                return violation(resolvedArgs.get(vars[0]), path + "<>", Map.of(), inProgress);
+            }
+            return classViolation(rawType, path, resolvedArgs, inProgress);
+        }
+        if (type instanceof Class<?> cls) {
+            return classViolation(cls, path, Map.of(), inProgress);
+        }
+        return path + ": type can not be verified " + type.getTypeName();
+    }
+
+    private static String classViolation(Class<?> type, String path, Map<TypeVariable<?>, Type> typeArgs,
+            Set<Class<?>> inProgress) {
+        if (type.isPrimitive() || type.isEnum() || KNOWN_IMMUTABLE.contains(type)) {
+            return null;
+        }
+        if (type.isArray()) {
+            return path + ": arrays are mutable";
+        }
+        if (type == Optional.class) {
+            return path + ": raw optional";
+        }
+        if (!inProgress.add(type)) {
+            // recursive type, it is being verified already
+            return null;
+        }
+        try {
+            if (type.isSealed()) {
+                for (var subtype : type.getPermittedSubclasses()) {
+                    var violation = classViolation(subtype, path + "(" + subtype.getSimpleName() + ")", Map.of(),
+                            inProgress);
+                    if (violation != null) {
+                        return violation;
+                    }
+                }
+                return null;
+            }
+            if (!type.isRecord() && !type.isAnnotationPresent(DeeplyImmutable.class)) {
+                return path + ": type " + type.getName() + " is neither record, nor annotated with @"
+                        + DeeplyImmutable.class.getSimpleName();
+            }
+            if (!Modifier.isFinal(type.getModifiers())) {
+                return path + ": class " + type.getName() + " is not final";
+            }
+            for (var cls = type; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+                for (var field : cls.getDeclaredFields()) {
+                    var violation = fieldViolation(field, path, typeArgs, inProgress);
+                    if (violation != null) {
+                        return violation;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            inProgress.remove(type);
+        }
+    }
+
+    private static String fieldViolation(Field field, String path, Map<TypeVariable<?>, Type> typeArgs,
+            Set<Class<?>> inProgress) {
+        var modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || field.isSynthetic()) {
+            return null;
+        }
+        var fieldPath = path + "." + field.getName();
+        if (!Modifier.isFinal(modifiers)) {
+            return fieldPath + ": field is not final";
+        }
+        return violation(field.getGenericType(), fieldPath, typeArgs, inProgress);
+    }
+}
@@ -1,36 +1,109 @@
 package com.dburyak.vertx.eventbus;
 
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.MessageCodec;
-import io.vertx.core.json.Json;
+import io.vertx.core.internal.buffer.BufferInternal;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.jackson.DatabindCodec;
+import jakarta.inject.Inject;
+import lombok.RequiredArgsConstructor;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Message codec that encodes POJOs as JSON.
+ * <p>
+ * Wire format is type id (varint) of the message, see {@link JsonTypeRegistry}, followed by either the registry tag
+ * (int) of the sender if type is sent by id, or by the type name (prefixed by its varint length) otherwise, followed
+ * by the UTF-8 JSON (prefixed by its int length in bytes). Message sent by id can be decoded only by a member with the
+ * same registry tag, otherwise decoding fails with {@link DecodeException}.
+ * <p>
+ * JSON is written by jackson directly into the target buffer and is parsed directly from the received buffer bytes, no
+ * intermediate strings are created. Jackson readers and writers are resolved once per message type, vertx
+ * {@link DatabindCodec#mapper()} is used, so the JSON is the same as produced by {@link io.vertx.core.json.Json}.
  *
  * @param <S> type of message to send
  * @param <R> type of message to receive
  */
 public abstract class JsonMessageCodec<S, R> implements MessageCodec<S, R> {
+    private JsonTypeRegistry typeRegistry;
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return DatabindCodec.mapper().writerFor(type);
+        }
+    };
+    private final ClassValue<ObjectReader> readers = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return DatabindCodec.mapper().readerFor(type);
+        }
+    };
 
     @Override
     public final void encodeToWire(Buffer buffer, S data) {
-        var className = data.getClass().getCanonicalName();
-        var jsonStr = Json.encode(data);
-        buffer.appendInt(className.length());
-        buffer.appendString(className);
-        buffer.appendInt(jsonStr.length());
-        buffer.appendString(jsonStr);
+        var type = data.getClass();
+        var typeId = typeRegistry.idOf(type);
+        appendVarInt(buffer, typeId);
+        if (typeId != JsonTypeRegistry.NO_ID) {
+            buffer.appendInt(typeRegistry.getTag());
+        } else {
+            var typeName = typeRegistry.nameOf(type);
+            appendVarInt(buffer, typeName.length);
+            buffer.appendBytes(typeName);
+        }
+        var jsonSizePos = buffer.length();
+        buffer.appendInt(0);
+        try {
+            writers.get(type).writeValue(new BufferOutputStream(buffer), data);
+        } catch (IOException e) {
+            throw new EncodeException("failed to encode as JSON: " + e.getMessage(), e);
+        }
+        buffer.setInt(jsonSizePos, buffer.length() - jsonSizePos - Integer.BYTES);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public final R decodeFromWire(int pos, Buffer buffer) {
-        var decodedObjects = readMsgObjectsFromWire(pos, buffer);
-        var dataClass = (Class<R>) decodedObjects.get(0);
-        String jsonStr = (String) decodedObjects.get(1);
-        return Json.decodeValue(jsonStr, dataClass);
+        var p = pos;
+        var typeId = getVarInt(buffer, p);
+        p += varIntSize(typeId);
+        Class<R> dataClass;
+        if (typeId != JsonTypeRegistry.NO_ID) {
+            var tag = buffer.getInt(p);
+            p += Integer.BYTES;
+            if (tag != typeRegistry.getTag()) {
+                // sender has not noticed yet that this member's registry differs, and type name is not sent
+                throw new DecodeException("json message type registry of the sender differs, message sent by type id "
+                        + "can not be decoded: typeId=" + typeId + ", senderTag=" + Integer.toHexString(tag)
+                        + ", tag=" + Integer.toHexString(typeRegistry.getTag()));
+            }
+            dataClass = (Class<R>) typeRegistry.typeOf(typeId);
+        } else {
+            var typeNameSize = getVarInt(buffer, p);
+            p += varIntSize(typeNameSize);
+            dataClass = (Class<R>) typeRegistry.typeOf(buffer.getString(p, p + typeNameSize,
+                    StandardCharsets.UTF_8.name()));
+            p += typeNameSize;
+        }
+        var jsonSize = buffer.getInt(p);
+        p += Integer.BYTES;
+        var reader = readers.get(dataClass);
+        try {
+            var byteBuf = buffer instanceof BufferInternal bufferInternal ? bufferInternal.getByteBuf() : null;
+            if (byteBuf != null && byteBuf.hasArray()) {
+                return reader.readValue(byteBuf.array(), byteBuf.arrayOffset() + p, jsonSize);
+            } else {
+                return reader.readValue(buffer.getBytes(p, p + jsonSize));
+            }
+        } catch (IOException e) {
+            throw new DecodeException("failed to decode JSON: " + e.getMessage(), e);
+        }
     }
 
     @Override
@@ -43,19 +116,58 @@ public abstract class JsonMessageCodec<S, R> implements MessageCodec<S, R> {
         return -1;
     }
 
-    private List<Object> readMsgObjectsFromWire(int pos, Buffer buffer) {
+    /**
+     * Set json message type registry.
+     *
+     * @param typeRegistry json message type registry
+     */
+    @Inject
+    public void setTypeRegistry(JsonTypeRegistry typeRegistry) {
+        this.typeRegistry = typeRegistry;
+    }
+
+    private static void appendVarInt(Buffer buffer, int value) {
+        var v = value;
+        while ((v & ~0x7F) != 0) {
+            buffer.appendByte((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.appendByte((byte) v);
+    }
+
+    private static int getVarInt(Buffer buffer, int pos) {
+        var value = 0;
         var p = pos;
-        var classNameSize = buffer.getInt(p);
-        p += Integer.BYTES;
-        var className = buffer.getString(p, p + classNameSize);
-        p += classNameSize;
-        var jsonStrSize = buffer.getInt(p);
-        p += Integer.BYTES;
-        var jsonStr = buffer.getString(p, p + jsonStrSize);
-        try {
-            return List.of(Class.forName(className), jsonStr);
-        } catch (ClassNotFoundException e) {
-            throw new IllegalArgumentException("unknown type of encoded data: " + className, e);
+        for (var shift = 0; shift < Integer.SIZE; shift += 7) {
+            var b = buffer.getByte(p++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new DecodeException("malformed varint: pos=" + pos);
+    }
+
+    private static int varIntSize(int value) {
+        return value == 0 ? 1 : (Integer.SIZE - Integer.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+    /**
+     * Output stream that appends everything written to the vertx buffer. Jackson buffers output internally, so this
+     * stream receives data in chunks.
+     */
+    @RequiredArgsConstructor
+    private static final class BufferOutputStream extends OutputStream {
+        private final Buffer buffer;
+
+        @Override
+        public void write(int b) {
+            buffer.appendByte((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.appendBytes(b, off, len);
         }
     }
 }
@@ -0,0 +1,204 @@
+package com.dburyak.vertx.eventbus;
+
+import com.dburyak.vertx.eventbus.config.CodecProperties;
+import com.dburyak.vertx.eventbus.config.EventBusProperties;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanIntrospector;
+import jakarta.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Registry of message types for {@link JsonMessageCodec}. Allows to send compact integer type id over the wire instead
+ * of full class name.
+ * <p>
+ * Types registered by id are all "default types" of all configured codecs and all {@link EventBusMessage} annotated
+ * types. Type id is the position of the type in the list of all registered types sorted by name (starting from 1), so
+ * it's the same on all cluster nodes with the same registered types regardless of the configuration order, and is
+ * small enough to be sent as a single byte varint for up to 127 registered types. Different types with the same name
+ * (loaded by different class loaders) can not be registered. Types that are not registered are sent by name, class
+ * lookups by name are cached on first sight.
+ * <p>
+ * Ids are safe only if all cluster members register exactly the same types, {@link #getHash()} of registered types is
+ * verified against the cluster by {@link JsonTypeRegistryClusterCheck}. While ids are not agreed with all live cluster
+ * members (see {@link #setIdsAgreed(boolean)}) all types are sent by name. Messages sent by id carry {@link #getTag()}
+ * of the sender registry, so that a message sent by id to a member that joined with a different registry before the
+ * sender noticed it, fails to decode instead of being decoded as a wrong type.
+ */
+@Singleton
+@Slf4j
+public class JsonTypeRegistry {
+
+    /**
+     * Type id of types that are not registered, such types are sent over the wire by name.
+     */
+    public static final int NO_ID = 0;
+
+    // index is type id
+    private final Class<?>[] typesById;
+    private final Map<Class<?>, Integer> idsByType;
+
+    /**
+     * Hash of all registered types (ids and class names). Is the same on all cluster members if their registered types
+     * are the same.
+     */
+    @Getter
+    private final String hash;
+
+    /**
+     * Short form of {@link #hash} sent with every message that is sent by id.
+     */
+    @Getter
+    private final int tag;
+
+    private volatile boolean idsAgreed;
+    private final ClassValue<Integer> ids = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return idsByType.getOrDefault(type, NO_ID);
+        }
+    };
+    private final ClassValue<byte[]> names = new ClassValue<>() {
+        @Override
+        protected byte[] computeValue(Class<?> type) {
+            return type.getName().getBytes(StandardCharsets.UTF_8);
+        }
+    };
+    private final ConcurrentMap<String, Class<?>> typesByName = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param eventBusProperties event bus properties
+     *
+     * @throws IllegalStateException if different types with the same name are registered
+     */
+    public JsonTypeRegistry(EventBusProperties eventBusProperties) {
+        var configuredTypes = eventBusProperties.getCodecs().stream()
+                .filter(CodecProperties::isEnabled)
+                .flatMap(codecProps -> codecProps.getDefaultTypes().stream())
+                .distinct()
+                .<Class<?>>mapMulti((typeName, types) -> {
+                    try {
+                        types.accept(Class.forName(typeName));
+                    } catch (ClassNotFoundException e) {
+                        log.warn("failed to find json message type, will not register: type={}", typeName);
+                    }
+                });
+        var annotatedTypes = BeanIntrospector.SHARED.findIntrospections(EventBusMessage.class).stream()
+                .<Class<?>>map(BeanIntrospection::getBeanType);
+        List<Class<?>> types = Stream.concat(configuredTypes, annotatedTypes)
+                .distinct()
+                .sorted(Comparator.comparing(Class::getName))
+                .toList();
+        typesById = new Class<?>[types.size() + 1];
+        var ids = new HashMap<Class<?>, Integer>();
+        for (var i = 0; i < types.size(); i++) {
+            var type = types.get(i);
+            if (i > 0 && types.get(i - 1).getName().equals(type.getName())) {
+                throw new IllegalStateException("different json message types with the same name, check class "
+                        + "loaders: type=" + type.getName());
+            }
+            typesById[i + 1] = type;
+            ids.put(type, i + 1);
+        }
+        this.idsByType = Map.copyOf(ids);
+        this.hash = computeHash(types);
+        this.tag = HexFormat.fromHexDigits(hash, 0, 8);
+        log.debug("registered json message types: types={}, hash={}", types, hash);
+    }
+
+    /**
+     * Set whether registered type ids are agreed with all cluster members, so types can be sent by id.
+     *
+     * @param idsAgreed whether type ids are agreed with the cluster
+     */
+    public void setIdsAgreed(boolean idsAgreed) {
+        this.idsAgreed = idsAgreed;
+    }
+
+    /**
+     * Get id of the type.
+     *
+     * @param type message type
+     *
+     * @return id of the type, or {@link #NO_ID} if type is not registered or ids are not agreed with the cluster
+     */
+    public int idOf(Class<?> type) {
+        return idsAgreed ? ids.get(type) : NO_ID;
+    }
+
+    /**
+     * Get UTF-8 encoded name of the type to be sent over the wire. Is cached per type.
+     *
+     * @param type message type
+     *
+     * @return UTF-8 encoded type name
+     */
+    public byte[] nameOf(Class<?> type) {
+        return names.get(type);
+    }
+
+    /**
+     * Get registered type by id.
+     *
+     * @param id type id
+     *
+     * @return registered type
+     *
+     * @throws IllegalArgumentException if type with such id is not registered
+     */
+    public Class<?> typeOf(int id) {
+        if (id <= NO_ID || id >= typesById.length) {
+            throw new IllegalArgumentException("unknown json message type id, check default types of the codecs: id="
+                    + id);
+        }
+        return typesById[id];
+    }
+
+    /**
+     * Get type by its name. Is cached per name.
+     *
+     * @param name type name
+     *
+     * @return type
+     *
+     * @throws IllegalArgumentException if type with such name can not be found
+     */
+    public Class<?> typeOf(String name) {
+        var type = typesByName.get(name);
+        if (type == null) {
+            try {
+                type = Class.forName(name);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalArgumentException("unknown type of encoded data: " + name, e);
+            }
+            typesByName.putIfAbsent(name, type);
+        }
+        return type;
+    }
+
+    private static String computeHash(List<Class<?>> types) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var i = 0; i < types.size(); i++) {
+                digest.update(((i + 1) + ":" + types.get(i).getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dburyak.vertx.eventbus;
+
+import com.dburyak.vertx.core.AsyncCloseable;
+import com.dburyak.vertx.core.AsyncInitializable;
+import com.dburyak.vertx.core.di.AppStartup;
+import com.dburyak.vertx.eventbus.config.EventBusProperties;
+import io.reactivex.rxjava3.core.Completable;
+import io.vertx.rxjava3.core.Vertx;
+import jakarta.inject.Singleton;
+
+/**
+ * Verifies with {@link ClusterHashCheck} that json message types registered by id on this cluster member are the same
+ * as on all the other live cluster members, and allows {@link JsonTypeRegistry} to send types by id only while they
+ * are. Mismatch means that ids sent by one member may be unknown to another one, or even denote a different type
+ * there, so while any member with a different registry is alive, all members send all types by name.
+ * <p>
+ * Mismatch with a member of the same {@link EventBusProperties#getCodecRegistryVersion()} fails application startup if
+ * {@link EventBusProperties#shouldFailOnCodecError()} is enabled.
+ */
+@AppStartup
+@Singleton
+public class JsonTypeRegistryClusterCheck implements AsyncInitializable, AsyncCloseable {
+    private static final String MAP_NAME = "vertx-tools.event-bus.json.registry";
+
+    private final ClusterHashCheck check;
+
+    /**
+     * Constructor.
+     *
+     * @param vertx vertx
+     * @param jsonTypeRegistry json type registry
+     * @param eventBusProperties event bus properties
+     */
+    public JsonTypeRegistryClusterCheck(Vertx vertx, JsonTypeRegistry jsonTypeRegistry,
+            EventBusProperties eventBusProperties) {
+        check = new ClusterHashCheck(vertx, MAP_NAME, "json type registry",
+                eventBusProperties.getCodecRegistryVersion(), jsonTypeRegistry.getHash(),
+                eventBusProperties.shouldFailOnCodecError(), jsonTypeRegistry::setIdsAgreed);
+    }
+
+    @Override
+    public Completable initAsync() {
+        return check.verify();
+    }
+
+    @Override
+    public Completable closeAsync() {
+        return check.close();
+    }
+}
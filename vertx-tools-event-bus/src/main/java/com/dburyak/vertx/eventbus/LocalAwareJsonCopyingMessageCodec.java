@@ -1,13 +1,15 @@
 package com.dburyak.vertx.eventbus;
 
+import io.vertx.core.json.jackson.DatabindCodec;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
 
 /**
  * Json codec that uses vertx json (based on jackson) for sending data over the wire, and copies objects via
- * copy-constructor when sending data locally in the same jvm.
+ * copy-constructor when sending data locally in the same jvm. Objects without public copy constructor are deep-copied
+ * via JSON round trip, which is much slower.
  * Is safe for cases when object sent is mutable and can be modified by sender after receiver received it.
  */
 @Singleton
@@ -17,16 +19,18 @@ public class LocalAwareJsonCopyingMessageCodec<T> extends JsonMessageCodec<T, T>
     @SuppressWarnings("unchecked")
     @Override
     public T transform(T data) {
-        // copy object via copy constructor
-        var dataClass = data.getClass();
+        var dataClass = (Class<T>) data.getClass();
+        var copier = CopyConstructors.copierOf(dataClass);
+        if (copier.isPresent()) {
+            return copier.get().apply(data);
+        }
         try {
-            return (T) dataClass.getDeclaredConstructor(dataClass).newInstance(data);
-        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException e) {
-            log.error("failed to find public copy constructor of data object", e);
-            throw new IllegalArgumentException("data object must implement public copy constructor: " + data, e);
-        } catch (InvocationTargetException e) {
-            log.error("failed to call copy constructor of data object", e);
-            throw new RuntimeException(e);
+            var mapper = DatabindCodec.mapper();
+            return mapper.readValue(mapper.writeValueAsBytes(data), dataClass);
+        } catch (IOException e) {
+            log.error("failed to copy data object via json, it must either implement public copy constructor or be "
+                    + "json serializable: type={}", dataClass, e);
+            throw new IllegalArgumentException("failed to copy data object: " + data, e);
         }
     }
 }
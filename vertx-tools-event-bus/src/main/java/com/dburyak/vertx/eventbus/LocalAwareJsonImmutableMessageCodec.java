@@ -0,0 +1,21 @@
+package com.dburyak.vertx.eventbus;
+
+import jakarta.inject.Singleton;
+
+/**
+ * Json codec that uses vertx json (based on jackson) for sending data over the wire, and passes deeply immutable
+ * objects as-is when sending data locally in the same jvm. Unlike {@link LocalAwareJsonUnsafeMessageCodec}, message
+ * types are verified to be deeply immutable (see {@link ImmutableTypes}): default types on codec registration, and
+ * any other type once on its first local delivery.
+ *
+ * @param <T> type of message to send
+ */
+@Singleton
+public class LocalAwareJsonImmutableMessageCodec<T> extends JsonMessageCodec<T, T> implements ImmutableMessageCodec {
+
+    @Override
+    public T transform(T message) {
+        ImmutableTypes.requireDeeplyImmutable(message.getClass());
+        return message;
+    }
+}
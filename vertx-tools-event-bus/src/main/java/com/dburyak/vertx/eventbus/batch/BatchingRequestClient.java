@@ -0,0 +1,173 @@
+package com.dburyak.vertx.eventbus.batch;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleEmitter;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.rxjava3.core.Context;
+import io.vertx.rxjava3.core.Vertx;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event bus request/reply client that coalesces requests to the same address into batches, for addresses that receive
+ * many small requests (lookups, counters, etc.). Requests issued within a batching window, or up to max batch size,
+ * are sent as a single {@link MessageBatch} message with a single reply, which is demultiplexed back to the individual
+ * requests. Per-message overhead (event bus dispatching, codec invocation, reply handler registration, network frame
+ * of clustered event bus) is paid once per batch. Address must be served by {@link BatchingRequestConsumer}.
+ * <p>
+ * Batching window of zero (default) coalesces all the requests issued during the current vertx context turn, so it
+ * doesn't add any latency. Positive window is rounded up to milliseconds, as vertx timers have millisecond granularity.
+ * <p>
+ * Client is bound to a single vertx context, batches are accumulated on this context without synchronization.
+ * Requests issued on other threads are moved to the client context first, so it's cheaper to create a client per
+ * verticle.
+ *
+ * @param <T> request type
+ * @param <R> reply type
+ */
+public class BatchingRequestClient<T, R> {
+
+    /**
+     * Default max number of requests in a single batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final long NO_TIMER = -1L;
+
+    private final ContextInternal vertxCtx;
+    private final EventBus eb;
+    private final String address;
+    private final int maxBatchSize;
+    private final long windowMs;
+    private final DeliveryOptions deliveryOptions;
+    private final Handler<Void> flushHandler = ignr -> flush();
+    private final Handler<Long> flushTimerHandler = ignr -> flush();
+
+    private List<T> requests;
+    private List<SingleEmitter<R>> emitters;
+    private long flushTimerId = NO_TIMER;
+
+    /**
+     * Constructor. Creates client bound to the current vertx context, or to a new event loop context if called outside
+     * of vertx context, with default batching settings.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address
+     * @param requestCodec codec of request batches
+     * @param replyCodec codec of reply batches
+     */
+    public BatchingRequestClient(Vertx vertx, String address, MessageBatchCodec<T> requestCodec,
+            MessageBatchCodec<R> replyCodec) {
+        this(vertx.getOrCreateContext(), address, requestCodec, replyCodec, DEFAULT_MAX_BATCH_SIZE, Duration.ZERO,
+                new DeliveryOptions());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param vertxCtx vertx context to accumulate batches on
+     * @param address event bus address
+     * @param requestCodec codec of request batches
+     * @param replyCodec codec of reply batches
+     * @param maxBatchSize max number of requests in a single batch, full batch is sent immediately
+     * @param window batching window, zero means the current vertx context turn
+     * @param deliveryOptions delivery options of batch requests (timeout, headers, etc.), codec name is overridden
+     */
+    public BatchingRequestClient(Context vertxCtx, String address, MessageBatchCodec<T> requestCodec,
+            MessageBatchCodec<R> replyCodec, int maxBatchSize, Duration window, DeliveryOptions deliveryOptions) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("max batch size must be positive: maxBatchSize=" + maxBatchSize);
+        }
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("batching window must not be negative: window=" + window);
+        }
+        this.vertxCtx = (ContextInternal) vertxCtx.getDelegate();
+        this.eb = this.vertxCtx.owner().eventBus();
+        this.address = address;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMs = window.isZero() ? 0L : Math.max(1L, window.plusNanos(999_999L).toMillis());
+        this.deliveryOptions = new DeliveryOptions(deliveryOptions).setCodecName(requestCodec.name());
+        requestCodec.registerOn(eb);
+        replyCodec.registerOn(eb);
+    }
+
+    /**
+     * Send request as part of the next batch.
+     *
+     * @param request request
+     *
+     * @return reply, or {@link io.vertx.core.eventbus.ReplyException} if the request or the whole batch failed
+     */
+    public Single<R> request(T request) {
+        return Single.create(emitter -> {
+            if (vertxCtx.inThread()) {
+                add(request, emitter);
+            } else {
+                vertxCtx.runOnContext(ignr -> add(request, emitter));
+            }
+        });
+    }
+
+    private void add(T request, SingleEmitter<R> emitter) {
+        if (requests == null) {
+            requests = new ArrayList<>();
+            emitters = new ArrayList<>();
+            if (windowMs == 0L) {
+                vertxCtx.runOnContext(flushHandler);
+            } else {
+                flushTimerId = vertxCtx.setTimer(windowMs, flushTimerHandler);
+            }
+        }
+        requests.add(request);
+        emitters.add(emitter);
+        if (requests.size() >= maxBatchSize) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (requests == null) {
+            // batch was full and is sent already
+            return;
+        }
+        if (flushTimerId != NO_TIMER) {
+            vertxCtx.owner().cancelTimer(flushTimerId);
+            flushTimerId = NO_TIMER;
+        }
+        var batchEmitters = emitters;
+        var batch = MessageBatch.of(requests);
+        requests = null;
+        emitters = null;
+        eb.<MessageBatch<R>>request(address, batch, deliveryOptions)
+                .onComplete(reply -> complete(batchEmitters, reply));
+    }
+
+    private void complete(List<SingleEmitter<R>> batchEmitters, AsyncResult<Message<MessageBatch<R>>> reply) {
+        if (reply.failed()) {
+            batchEmitters.forEach(emitter -> emitter.tryOnError(reply.cause()));
+            return;
+        }
+        var replies = reply.result().body();
+        if (replies.size() != batchEmitters.size()) {
+            var err = new IllegalStateException("reply batch size mismatch: address=" + address
+                    + ", expected=" + batchEmitters.size() + ", actual=" + replies.size());
+            batchEmitters.forEach(emitter -> emitter.tryOnError(err));
+            return;
+        }
+        for (var i = 0; i < replies.size(); i++) {
+            var failure = replies.failure(i);
+            if (failure != null) {
+                batchEmitters.get(i).tryOnError(failure);
+            } else {
+                batchEmitters.get(i).onSuccess(replies.items().get(i));
+            }
+        }
+    }
+}
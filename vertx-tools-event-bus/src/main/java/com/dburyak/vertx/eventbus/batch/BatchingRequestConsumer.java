@@ -0,0 +1,135 @@
+package com.dburyak.vertx.eventbus.batch;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.functions.Function;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.rxjava3.core.Vertx;
+import io.vertx.rxjava3.core.eventbus.Message;
+import io.vertx.rxjava3.core.eventbus.MessageConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Event bus consumers of batched requests sent by {@link BatchingRequestClient}. Every request batch is replied with a
+ * single reply batch of the same size and order.
+ * <p>
+ * Consumers are registered on the current vertx context, so they can be tracked by verticles as any other consumer
+ * (see {@link com.dburyak.vertx.core.AbstractDiVerticle#trackConsumer(MessageConsumer)}).
+ */
+@Slf4j
+public final class BatchingRequestConsumer {
+
+    /**
+     * Failure code of the requests failed with exceptions other than {@link ReplyException}.
+     */
+    public static final int DEFAULT_FAILURE_CODE = 500;
+
+    private BatchingRequestConsumer() {
+    }
+
+    /**
+     * Register consumer that handles every request of the batch individually. All the requests of the batch are
+     * handled concurrently, batch is replied when all of them are completed. Failure of one request doesn't affect the
+     * others, it is replied as per-item failure.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address
+     * @param requestCodec codec of request batches
+     * @param replyCodec codec of reply batches
+     * @param handler handler of a single request
+     * @param <T> request type
+     * @param <R> reply type
+     *
+     * @return registered consumer
+     */
+    public static <T, R> MessageConsumer<MessageBatch<T>> consumer(Vertx vertx, String address,
+            MessageBatchCodec<T> requestCodec, MessageBatchCodec<R> replyCodec, Function<T, Single<R>> handler) {
+        return register(vertx, address, requestCodec, replyCodec, requests -> {
+            var size = requests.size();
+            var results = new Object[size];
+            var failures = new ReplyException[size];
+            var handled = new ArrayList<Completable>(size);
+            for (var i = 0; i < size; i++) {
+                var index = i;
+                handled.add(Single.defer(() -> handler.apply(requests.get(index)))
+                        .doOnSuccess(result -> results[index] = result)
+                        .ignoreElement()
+                        .onErrorComplete(e -> {
+                            failures[index] = toReplyException(e);
+                            return true;
+                        }));
+            }
+            return Completable.merge(handled).toSingle(() -> replyBatch(results, failures));
+        });
+    }
+
+    /**
+     * Register consumer that handles the whole batch at once, e.g. with a single multi-get query. Handler must return
+     * results in the order of requests. If handler fails, all the requests of the batch fail.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address
+     * @param requestCodec codec of request batches
+     * @param replyCodec codec of reply batches
+     * @param handler handler of the batch of requests
+     * @param <T> request type
+     * @param <R> reply type
+     *
+     * @return registered consumer
+     */
+    public static <T, R> MessageConsumer<MessageBatch<T>> batchConsumer(Vertx vertx, String address,
+            MessageBatchCodec<T> requestCodec, MessageBatchCodec<R> replyCodec,
+            Function<List<T>, Single<List<R>>> handler) {
+        return register(vertx, address, requestCodec, replyCodec, requests -> Single.defer(() ->
+                handler.apply(requests)).map(results -> {
+                    if (results.size() != requests.size()) {
+                        throw new IllegalStateException("batch handler result size mismatch: address=" + address
+                                + ", expected=" + requests.size() + ", actual=" + results.size());
+                    }
+                    return MessageBatch.of(results);
+                }));
+    }
+
+    private static <T, R> MessageConsumer<MessageBatch<T>> register(Vertx vertx, String address,
+            MessageBatchCodec<T> requestCodec, MessageBatchCodec<R> replyCodec,
+            Function<List<T>, Single<MessageBatch<R>>> batchHandler) {
+        var eb = vertx.eventBus();
+        requestCodec.registerOn(eb.getDelegate());
+        replyCodec.registerOn(eb.getDelegate());
+        var replyOptions = new DeliveryOptions().setCodecName(replyCodec.name());
+        return eb.consumer(address, (Message<MessageBatch<T>> msg) -> Single.defer(() ->
+                        batchHandler.apply(msg.body().items()))
+                .subscribe(
+                        replies -> msg.reply(replies, replyOptions),
+                        e -> {
+                            log.error("failed to handle request batch: address={}, size={}", address,
+                                    msg.body().size(), e);
+                            var replyEx = toReplyException(e);
+                            msg.fail(replyEx.failureCode(), replyEx.getMessage());
+                        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> MessageBatch<R> replyBatch(Object[] results, ReplyException[] failures) {
+        var anyFailed = false;
+        for (var failure : failures) {
+            if (failure != null) {
+                anyFailed = true;
+                break;
+            }
+        }
+        return new MessageBatch<>((List<R>) Arrays.asList(results), anyFailed ? Arrays.asList(failures) : null);
+    }
+
+    private static ReplyException toReplyException(Throwable e) {
+        return e instanceof ReplyException replyEx
+                ? replyEx
+                : new ReplyException(ReplyFailure.RECIPIENT_FAILURE, DEFAULT_FAILURE_CODE, e.getMessage());
+    }
+}
@@ -0,0 +1,50 @@
+package com.dburyak.vertx.eventbus.batch;
+
+import io.micronaut.core.annotation.Nullable;
+import io.vertx.core.eventbus.ReplyException;
+
+import java.util.List;
+
+/**
+ * Batch of event bus messages sent as a single event bus message, see {@link BatchingRequestClient} and
+ * {@link BatchingRequestConsumer}. Batch of replies may contain per-item failures.
+ *
+ * @param items batch items, item of a failed reply is null
+ * @param failures per-item failures, same size as items with nulls for successful items, or null if there are no
+ *         failures
+ * @param <T> item type
+ */
+public record MessageBatch<T>(List<T> items, @Nullable List<ReplyException> failures) {
+
+    /**
+     * Static factory method to create batch without failures.
+     *
+     * @param items batch items
+     * @param <T> item type
+     *
+     * @return new message batch
+     */
+    public static <T> MessageBatch<T> of(List<T> items) {
+        return new MessageBatch<>(items, null);
+    }
+
+    /**
+     * Number of items in this batch.
+     *
+     * @return batch size
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Failure of the item with the specified index.
+     *
+     * @param index item index
+     *
+     * @return failure, or null if the item is not failed
+     */
+    public ReplyException failure(int index) {
+        return failures != null ? failures.get(index) : null;
+    }
+}
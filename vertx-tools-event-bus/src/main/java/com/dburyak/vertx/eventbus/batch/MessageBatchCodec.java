@@ -0,0 +1,149 @@
+package com.dburyak.vertx.eventbus.batch;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Codec of {@link MessageBatch}, encodes batch items with the specified item codec. Wire format is: number of items,
+ * then for every item either success marker, item length and item encoded by the item codec, or failure marker,
+ * failure code and failure message. Every item is decoded from its own slice of the received buffer, so item codec
+ * does not need to be self-delimiting. Local delivery transforms every item with the item codec, so batches are as
+ * safe for local delivery as the item codec is.
+ *
+ * @param <T> item type
+ */
+@ToString
+public class MessageBatchCodec<T> implements MessageCodec<MessageBatch<T>, MessageBatch<T>> {
+    private static final byte ITEM_OK = 0;
+    private static final byte ITEM_FAILED = 1;
+    private static final int NO_MESSAGE = -1;
+
+    private final String name;
+    private final MessageCodec<T, T> itemCodec;
+
+    /**
+     * Constructor.
+     *
+     * @param name codec name, must be unique on the event bus
+     * @param itemCodec codec of batch items
+     */
+    public MessageBatchCodec(String name, MessageCodec<T, T> itemCodec) {
+        this.name = name;
+        this.itemCodec = itemCodec;
+    }
+
+    /**
+     * Static factory method to create batch codec.
+     *
+     * @param name codec name, must be unique on the event bus
+     * @param itemCodec codec of batch items
+     * @param <T> item type
+     *
+     * @return new batch codec
+     */
+    public static <T> MessageBatchCodec<T> of(String name, MessageCodec<T, T> itemCodec) {
+        return new MessageBatchCodec<>(name, itemCodec);
+    }
+
+    /**
+     * Register this codec on the event bus, unless codec with the same name is registered already. So that clients and
+     * consumers of the same address can all register their codecs without coordination.
+     *
+     * @param eb event bus
+     */
+    public void registerOn(EventBus eb) {
+        try {
+            eb.registerCodec(this);
+        } catch (IllegalStateException e) {
+            // already registered
+        }
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, MessageBatch<T> batch) {
+        var size = batch.size();
+        buffer.appendInt(size);
+        for (var i = 0; i < size; i++) {
+            var failure = batch.failure(i);
+            if (failure == null) {
+                buffer.appendByte(ITEM_OK);
+                var lengthPos = buffer.length();
+                buffer.appendInt(0);
+                itemCodec.encodeToWire(buffer, batch.items().get(i));
+                buffer.setInt(lengthPos, buffer.length() - lengthPos - Integer.BYTES);
+            } else {
+                buffer.appendByte(ITEM_FAILED);
+                buffer.appendInt(failure.failureCode());
+                var message = failure.getMessage();
+                if (message == null) {
+                    buffer.appendInt(NO_MESSAGE);
+                } else {
+                    var messageBytes = message.getBytes(StandardCharsets.UTF_8);
+                    buffer.appendInt(messageBytes.length);
+                    buffer.appendBytes(messageBytes);
+                }
+            }
+        }
+    }
+
+    @Override
+    public MessageBatch<T> decodeFromWire(int pos, Buffer buffer) {
+        var size = buffer.getInt(pos);
+        pos += Integer.BYTES;
+        var items = new ArrayList<T>(size);
+        ReplyException[] failures = null;
+        for (var i = 0; i < size; i++) {
+            var marker = buffer.getByte(pos++);
+            if (marker == ITEM_OK) {
+                var length = buffer.getInt(pos);
+                pos += Integer.BYTES;
+                items.add(itemCodec.decodeFromWire(0, buffer.slice(pos, pos + length)));
+                pos += length;
+            } else {
+                var failureCode = buffer.getInt(pos);
+                pos += Integer.BYTES;
+                var messageLength = buffer.getInt(pos);
+                pos += Integer.BYTES;
+                String message = null;
+                if (messageLength != NO_MESSAGE) {
+                    message = buffer.getString(pos, pos + messageLength, StandardCharsets.UTF_8.name());
+                    pos += messageLength;
+                }
+                if (failures == null) {
+                    failures = new ReplyException[size];
+                }
+                failures[i] = new ReplyException(ReplyFailure.RECIPIENT_FAILURE, failureCode, message);
+                items.add(null);
+            }
+        }
+        return new MessageBatch<>(items, failures != null ? Arrays.asList(failures) : null);
+    }
+
+    @Override
+    public MessageBatch<T> transform(MessageBatch<T> batch) {
+        var items = new ArrayList<T>(batch.size());
+        for (var item : batch.items()) {
+            items.add(item != null ? itemCodec.transform(item) : null);
+        }
+        return new MessageBatch<>(items, batch.failures());
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
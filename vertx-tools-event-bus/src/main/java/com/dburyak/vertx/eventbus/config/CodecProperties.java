@@ -1,10 +1,14 @@
 package com.dburyak.vertx.eventbus.config;
 
+import com.dburyak.vertx.core.config.Memory;
+import com.dburyak.vertx.eventbus.Compression;
 import io.micronaut.context.annotation.ConfigurationInject;
 import io.micronaut.context.annotation.EachProperty;
 import io.micronaut.context.annotation.Parameter;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.bind.annotation.Bindable;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 
 import java.util.List;
@@ -42,10 +46,28 @@ public class CodecProperties {
     /**
      * Message DTO java classes this codec should convert if it is registered as "default" codec. In other words, list
      * of java classes this codec should be used to convert when no codec name is specified in delivery options, or
-     * delivery options are not specified at all.
+     * delivery options are not specified at all. Empty by default.
      */
     private final List<String> defaultTypes;
 
+    /**
+     * Compression of messages sent over the wire with this codec, see
+     * {@link com.dburyak.vertx.eventbus.CompressingMessageCodec}. Messages are not compressed by default.
+     */
+    private final Compression compression;
+
+    /**
+     * Minimal size of encoded message to be compressed. Smaller messages are sent uncompressed, as compressing them
+     * gives little to no gain. Is used only if {@link #compression} is enabled.
+     */
+    private final Memory compressionThreshold;
+
+    /**
+     * Max uncompressed size of received compressed message. Messages that claim bigger size are rejected without
+     * decompression. Is used only if {@link #compression} is enabled.
+     */
+    private final Memory compressionMaxSize;
+
     /**
      * Constructor.
      *
@@ -57,11 +79,17 @@ public class CodecProperties {
             @Bindable(defaultValue = "true") boolean enabled,
             @NotBlank String type,
             @Bindable(defaultValue = "false") boolean isDefault,
-            List<String> defaultTypes) {
+            @Nullable List<String> defaultTypes,
+            @Bindable(defaultValue = "NONE") @NotNull Compression compression,
+            @Bindable(defaultValue = "1kb") @NotNull Memory compressionThreshold,
+            @Bindable(defaultValue = "64mb") @NotNull Memory compressionMaxSize) {
         this.name = name;
         this.enabled = enabled;
         this.type = type;
         this.isDefault = isDefault;
-        this.defaultTypes = defaultTypes;
+        this.defaultTypes = defaultTypes != null ? defaultTypes : List.of();
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+        this.compressionMaxSize = compressionMaxSize;
     }
 }
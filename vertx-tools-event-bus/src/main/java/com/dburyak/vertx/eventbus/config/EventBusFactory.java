@@ -1,12 +1,20 @@
 package com.dburyak.vertx.eventbus.config;
 
 import com.dburyak.vertx.core.VertxOptionsConfigurer;
+import com.dburyak.vertx.eventbus.CompressingMessageCodec;
+import com.dburyak.vertx.eventbus.Compression;
 import com.dburyak.vertx.eventbus.EventBusConfigurer;
+import com.dburyak.vertx.eventbus.EventBusMessage;
+import com.dburyak.vertx.eventbus.ImmutableMessageCodec;
+import com.dburyak.vertx.eventbus.ImmutableTypes;
 import com.dburyak.vertx.eventbus.NamedMessageCodec;
+import com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.Context;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.exceptions.NoSuchBeanException;
+import io.micronaut.core.beans.BeanIntrospector;
 import io.vertx.core.eventbus.EventBusOptions;
 import io.vertx.core.eventbus.MessageCodec;
 import io.vertx.rxjava3.core.Vertx;
@@ -14,7 +22,12 @@ import io.vertx.rxjava3.core.eventbus.EventBus;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Factory for default {@link EventBus} related beans. It is strongly recommended to not override any of these beans,
@@ -27,10 +40,14 @@ public class EventBusFactory {
     /**
      * Default {@link io.vertx.core.eventbus.EventBus} bean. It is strongly recommended to not override this bean, and
      * instead use {@link EventBusConfigurer} to customize {@link EventBus} instance.
+     * <p>
+     * Registers all the configured codecs, and default codecs for all the {@link EventBusMessage} annotated types.
+     * If event bus metrics are enabled, registered codecs are metered and metrics interceptors are installed.
      *
      * @param appCtx micronaut application context
      * @param vertx vertx instance
      * @param eventBusProperties event bus properties
+     * @param eventBusMetrics event bus metrics, present if enabled
      *
      * @return event bus bean
      */
@@ -38,25 +55,43 @@ public class EventBusFactory {
     @Requires(missingBeans = io.vertx.core.eventbus.EventBus.class)
     @SuppressWarnings({"rawtypes", "unchecked"})
     public io.vertx.core.eventbus.EventBus coreEventBus(ApplicationContext appCtx, Vertx vertx,
-            EventBusProperties eventBusProperties) {
+            EventBusProperties eventBusProperties, Optional<MicrometerEventBusMetrics> eventBusMetrics) {
         var eb = vertx.getDelegate().eventBus();
+        var metrics = eventBusMetrics.orElse(null);
+        var configuredCodecs = new HashMap<Class<?>, ConfiguredCodec>();
+        var disabledCodecTypes = new HashSet<String>();
+        var registeredDefaultTypes = new HashSet<Class<?>>();
         eventBusProperties.getCodecs().forEach(codecProps -> {
             if (!codecProps.isEnabled()) {
+                disabledCodecTypes.add(codecProps.getType());
                 return;
             }
             try {
                 var codecType = Class.forName(codecProps.getType());
                 var codec = (MessageCodec) appCtx.getBean(codecType);
+                // not provably immutable types always fail the startup, regardless of "failOnCodecError"
+                var requiresImmutableTypes = codec instanceof ImmutableMessageCodec;
+                if (codecProps.getCompression() != Compression.NONE) {
+                    codec = CompressingMessageCodec.of(codec, codecProps.getCompression(),
+                            (int) codecProps.getCompressionThreshold().getBytes(),
+                            (int) Math.min(codecProps.getCompressionMaxSize().getBytes(), Integer.MAX_VALUE));
+                }
+                configuredCodecs.putIfAbsent(codecType,
+                        new ConfiguredCodec(codecProps.getName(), codec, requiresImmutableTypes));
                 if (!codecProps.isDefault()) {
-                    var namedCodec = NamedMessageCodec.of(codecProps.getName(), codec);
+                    var namedCodec = namedCodec(codecProps.getName(), codec, metrics);
                     log.info("register eb codec: codec={}", namedCodec);
                     eb.registerCodec(namedCodec);
                 } else if (codecProps.getDefaultTypes().size() == 1) {
                     try {
                         var defaultType = Class.forName(codecProps.getDefaultTypes().get(0));
-                        var namedCodec = NamedMessageCodec.of(codecProps.getName(), codec);
+                        if (requiresImmutableTypes) {
+                            ImmutableTypes.requireDeeplyImmutable(defaultType);
+                        }
+                        var namedCodec = namedCodec(codecProps.getName(), codec, metrics);
                         log.info("register eb default codec: forType={}, codec={}", defaultType, namedCodec);
                         eb.registerDefaultCodec(defaultType, namedCodec);
+                        registeredDefaultTypes.add(defaultType);
                     } catch (ClassNotFoundException e) {
                         var errMsg = "failed to find target class for default codec: codecProps={}";
                         if (eventBusProperties.shouldFailOnCodecError()) {
@@ -71,9 +106,13 @@ public class EventBusFactory {
                         try {
                             var defaultTypeStr = codecProps.getDefaultTypes().get(i);
                             var defaultType = Class.forName(defaultTypeStr);
-                            var namedCodec = NamedMessageCodec.of(codecProps.getName() + "-" + defaultTypeStr, codec);
+                            if (requiresImmutableTypes) {
+                                ImmutableTypes.requireDeeplyImmutable(defaultType);
+                            }
+                            var namedCodec = namedCodec(codecProps.getName() + "-" + defaultTypeStr, codec, metrics);
                             log.info("register eb default codec: forType={}, codec={}", defaultType, namedCodec);
                             eb.registerDefaultCodec(defaultType, namedCodec);
+                            registeredDefaultTypes.add(defaultType);
                         } catch (ClassNotFoundException e) {
                             var errMsg = "failed to find target class for default codec: codecProps={}, codecNum={}";
                             if (eventBusProperties.shouldFailOnCodecError()) {
@@ -95,9 +134,63 @@ public class EventBusFactory {
                 }
             }
         });
+        registerAnnotatedDefaultCodecs(appCtx, eb, eventBusProperties, configuredCodecs, disabledCodecTypes,
+                registeredDefaultTypes, metrics);
+        if (metrics != null) {
+            eb.addOutboundInterceptor(metrics::interceptOutbound);
+            eb.addInboundInterceptor(metrics::interceptInbound);
+        }
         return eb;
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void registerAnnotatedDefaultCodecs(ApplicationContext appCtx, io.vertx.core.eventbus.EventBus eb,
+            EventBusProperties eventBusProperties, Map<Class<?>, ConfiguredCodec> configuredCodecs,
+            Set<String> disabledCodecTypes, Set<Class<?>> registeredDefaultTypes, MicrometerEventBusMetrics metrics) {
+        // introspections are generated at compile time, so no classpath scanning happens here
+        for (var introspection : BeanIntrospector.SHARED.findIntrospections(EventBusMessage.class)) {
+            var messageType = introspection.getBeanType();
+            if (registeredDefaultTypes.contains(messageType)) {
+                log.info("eb default codec is configured explicitly, ignoring annotation: forType={}", messageType);
+                continue;
+            }
+            var codecType = introspection.classValue(EventBusMessage.class, "codec").orElseThrow();
+            var configured = configuredCodecs.get(codecType);
+            if (configured == null && disabledCodecTypes.contains(codecType.getName())) {
+                log.info("eb codec is disabled, not registering default codec: forType={}, codecType={}",
+                        messageType, codecType);
+                continue;
+            }
+            if (configured == null) {
+                try {
+                    var codec = (MessageCodec) appCtx.getBean(codecType);
+                    configured = new ConfiguredCodec(codec.name(), codec, codec instanceof ImmutableMessageCodec);
+                } catch (NoSuchBeanException e) {
+                    var errMsg = "failed to find codec bean for annotated message type: forType={}, codecType={}";
+                    if (eventBusProperties.shouldFailOnCodecError()) {
+                        log.error(errMsg, messageType, codecType);
+                        throw e;
+                    } else {
+                        log.warn(errMsg, messageType, codecType);
+                        continue;
+                    }
+                }
+            }
+            if (configured.requiresImmutableTypes()) {
+                ImmutableTypes.requireDeeplyImmutable(messageType);
+            }
+            var namedCodec = namedCodec(configured.name() + "-" + messageType.getName(), configured.codec(), metrics);
+            log.info("register eb default codec: forType={}, codec={}", messageType, namedCodec);
+            eb.registerDefaultCodec(messageType, namedCodec);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private MessageCodec namedCodec(String name, MessageCodec codec, MicrometerEventBusMetrics metrics) {
+        var namedCodec = NamedMessageCodec.of(name, codec);
+        return metrics != null ? metrics.metered(namedCodec) : namedCodec;
+    }
+
     /**
      * Default rx-fied {@link EventBus} bean.
      *
@@ -134,4 +227,8 @@ public class EventBusFactory {
             return vertxOptions.setEventBusOptions(ebOptions);
         };
     }
+
+    @SuppressWarnings("rawtypes")
+    private record ConfiguredCodec(String name, MessageCodec codec, boolean requiresImmutableTypes) {
+    }
 }
@@ -26,6 +26,14 @@ public class EventBusProperties {
      */
     private final boolean failOnCodecError;
 
+    /**
+     * Version of codec type registries (json message types sent by id, kryo registrations). Must be bumped whenever
+     * registered types change. Registries of cluster members with the same version must be the same, otherwise
+     * application startup fails if {@link #failOnCodecError} is enabled. Members with different versions are allowed
+     * to run together during rolling redeployment.
+     */
+    private final int codecRegistryVersion;
+
     /**
      * Whether to fail application startup process if error happened while loading/registering codec. Setting this
      * option to true allows to fail fast if any codec is misconfigured. Otherwise, such erroneous codec will be
@@ -40,8 +48,10 @@ public class EventBusProperties {
     @ConfigurationInject
     public EventBusProperties(
             List<CodecProperties> codecs,
-            @Bindable(defaultValue = "false") boolean failOnCodecError) {
+            @Bindable(defaultValue = "false") boolean failOnCodecError,
+            @Bindable(defaultValue = "0") int codecRegistryVersion) {
         this.codecs = codecs;
         this.failOnCodecError = failOnCodecError;
+        this.codecRegistryVersion = codecRegistryVersion;
     }
 }
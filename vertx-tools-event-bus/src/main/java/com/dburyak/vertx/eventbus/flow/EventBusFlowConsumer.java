@@ -0,0 +1,268 @@
+package com.dburyak.vertx.eventbus.flow;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.internal.ContextInternal;
+import io.vertx.rxjava3.core.Vertx;
+import io.vertx.rxjava3.core.eventbus.EventBus;
+import io.vertx.rxjava3.core.eventbus.Message;
+import io.vertx.rxjava3.core.eventbus.MessageConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+
+import static com.dburyak.vertx.eventbus.flow.FlowControl.CANCEL;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.COMPLETE;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.CREDIT;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.ERROR;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_CREDITS_ADDRESS;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_DATA_ADDRESS;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_ERROR;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_TYPE;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.OPEN;
+
+/**
+ * Consumer side of flow-controlled event bus streams, see {@link EventBusFlowProducer}. Exposes items sent by all the
+ * producers of the address as a {@link Flowable} with end-to-end backpressure: every producer gets a window of credits
+ * (prefetch), and credits are granted back to the producer only when its items are emitted downstream. So at most
+ * "prefetch" items of every producer are buffered by the consumer, and producers are slowed down to the pace of the
+ * downstream, across verticles and cluster nodes.
+ * <p>
+ * Every subscription registers its own consumer on the address, producers are distributed between subscriptions as
+ * regular event bus consumers are. Stream never completes on its own, as producers come and go: completion or failure
+ * of a producer only ends that producer's part of the stream. Cancellation of the subscription unregisters the consumer
+ * and cancels all of its producers.
+ */
+@Slf4j
+public final class EventBusFlowConsumer {
+
+    /**
+     * Default number of items of every producer buffered by the consumer.
+     */
+    public static final int DEFAULT_PREFETCH = 128;
+
+    private static final DeliveryOptions CREDIT_OPTIONS = new DeliveryOptions().addHeader(HEADER_TYPE, CREDIT);
+    private static final DeliveryOptions CANCEL_OPTIONS = new DeliveryOptions().addHeader(HEADER_TYPE, CANCEL);
+
+    private EventBusFlowConsumer() {
+    }
+
+    /**
+     * Flow-controlled stream of items sent to the address with default prefetch.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address
+     * @param <T> item type
+     *
+     * @return cold flowable, every subscription registers its own consumer on the current vertx context
+     */
+    public static <T> Flowable<T> consume(Vertx vertx, String address) {
+        return consume(vertx, address, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Flow-controlled stream of items sent to the address.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address
+     * @param prefetch number of items of every producer buffered by the consumer
+     * @param <T> item type
+     *
+     * @return cold flowable, every subscription registers its own consumer on the current vertx context
+     */
+    public static <T> Flowable<T> consume(Vertx vertx, String address, int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch must be positive: prefetch=" + prefetch);
+        }
+        return Flowable.fromPublisher(subscriber -> new FlowSubscription<T>(vertx, address, prefetch, subscriber)
+                .start());
+    }
+
+    /**
+     * Subscription state, is accessed on the vertx context of the subscription only.
+     *
+     * @param <T> item type
+     */
+    private static final class FlowSubscription<T> implements Subscription {
+        private final EventBus eb;
+        private final ContextInternal vertxCtx;
+        private final String address;
+        private final int prefetch;
+        private final int creditBatchSize;
+        private final Subscriber<? super T> downstream;
+        private final Queue<Item<T>> queue = new ArrayDeque<>();
+        private final Map<String, Producer> producers = new HashMap<>();
+        private MessageConsumer<Object> openConsumer;
+        private long requested;
+        private boolean draining;
+        private boolean cancelled;
+
+        private FlowSubscription(Vertx vertx, String address, int prefetch, Subscriber<? super T> downstream) {
+            this.eb = vertx.eventBus();
+            this.vertxCtx = (ContextInternal) vertx.getOrCreateContext().getDelegate();
+            this.address = address;
+            this.prefetch = prefetch;
+            // granting credits one by one would double the number of messages
+            this.creditBatchSize = Math.max(1, prefetch / 2);
+            this.downstream = downstream;
+        }
+
+        private void start() {
+            downstream.onSubscribe(this);
+            vertxCtx.runOnContext(ignr -> {
+                if (cancelled) {
+                    return;
+                }
+                openConsumer = eb.consumer(address, this::onOpen);
+                openConsumer.rxCompletion().subscribe(() -> log.debug("flow consumer registered: address={}", address),
+                        e -> {
+                            log.error("failed to register flow consumer: address={}", address, e);
+                            doCancel();
+                            downstream.onError(e);
+                        });
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0L) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("request must be positive: n=" + n));
+                return;
+            }
+            if (vertxCtx.inThread()) {
+                doRequest(n);
+            } else {
+                vertxCtx.runOnContext(ignr -> doRequest(n));
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (vertxCtx.inThread()) {
+                doCancel();
+            } else {
+                vertxCtx.runOnContext(ignr -> doCancel());
+            }
+        }
+
+        private void doRequest(long n) {
+            var total = requested + n;
+            requested = total < 0L ? Long.MAX_VALUE : total;
+            drain();
+        }
+
+        private void doCancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            queue.clear();
+            if (openConsumer != null) {
+                openConsumer.unregister();
+            }
+            producers.values().forEach(producer -> {
+                producer.done = true;
+                producer.dataConsumer.unregister();
+                eb.send(producer.creditsAddress, null, CANCEL_OPTIONS);
+            });
+            producers.clear();
+            log.debug("flow consumer cancelled: address={}", address);
+        }
+
+        private void onOpen(Message<Object> msg) {
+            var creditsAddress = msg.headers().get(HEADER_CREDITS_ADDRESS);
+            if (!OPEN.equals(msg.headers().get(HEADER_TYPE)) || creditsAddress == null) {
+                log.warn("unexpected message on flow address, ignoring: address={}", address);
+                return;
+            }
+            var producer = new Producer(creditsAddress, address + ".flow." + UUID.randomUUID());
+            producer.dataConsumer = eb.consumer(producer.dataAddress, dataMsg -> onProducerMessage(producer, dataMsg));
+            producers.put(producer.dataAddress, producer);
+            producer.dataConsumer.rxCompletion().subscribe(
+                    () -> msg.reply(prefetch, new DeliveryOptions().addHeader(HEADER_DATA_ADDRESS, producer.dataAddress)),
+                    e -> {
+                        log.error("failed to register flow producer: address={}", address, e);
+                        producers.remove(producer.dataAddress);
+                        msg.fail(-1, e.toString());
+                    });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onProducerMessage(Producer producer, Message<Object> msg) {
+            var body = msg.body();
+            if (body != null) {
+                // data items are sent without headers, null items are not allowed by reactive streams
+                queue.offer(new Item<>(producer, (T) body));
+                drain();
+                return;
+            }
+            var type = msg.headers().get(HEADER_TYPE);
+            if (ERROR.equals(type)) {
+                log.warn("flow producer failed: address={}, error={}", address, msg.headers().get(HEADER_ERROR));
+            } else if (!COMPLETE.equals(type)) {
+                log.warn("unexpected flow producer message, ignoring: address={}, type={}", address, type);
+                return;
+            }
+            // all the items of the producer are received already, as messages of one sender are ordered
+            producer.done = true;
+            producer.dataConsumer.unregister();
+            producers.remove(producer.dataAddress);
+        }
+
+        private void drain() {
+            if (draining) {
+                // downstream requested more synchronously from onNext, loop below picks it up
+                return;
+            }
+            draining = true;
+            try {
+                while (requested > 0L && !cancelled) {
+                    var item = queue.poll();
+                    if (item == null) {
+                        break;
+                    }
+                    if (requested != Long.MAX_VALUE) {
+                        requested--;
+                    }
+                    downstream.onNext(item.body);
+                    grantCredit(item.producer);
+                }
+            } finally {
+                draining = false;
+            }
+        }
+
+        private void grantCredit(Producer producer) {
+            if (producer.done) {
+                return;
+            }
+            if (++producer.consumed >= creditBatchSize) {
+                eb.send(producer.creditsAddress, producer.consumed, CREDIT_OPTIONS);
+                producer.consumed = 0;
+            }
+        }
+    }
+
+    private static final class Producer {
+        private final String creditsAddress;
+        private final String dataAddress;
+        private MessageConsumer<Object> dataConsumer;
+        private int consumed;
+        private boolean done;
+
+        private Producer(String creditsAddress, String dataAddress) {
+            this.creditsAddress = creditsAddress;
+            this.dataAddress = dataAddress;
+        }
+    }
+
+    private record Item<T>(Producer producer, T body) {
+    }
+}
@@ -0,0 +1,202 @@
+package com.dburyak.vertx.eventbus.flow;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.CompletableEmitter;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.rxjava3.core.Vertx;
+import io.vertx.rxjava3.core.eventbus.EventBus;
+import io.vertx.rxjava3.core.eventbus.Message;
+import io.vertx.rxjava3.core.eventbus.MessageConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.dburyak.vertx.eventbus.flow.FlowControl.CANCEL;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.COMPLETE;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.CREDIT;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.ERROR;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_CREDITS_ADDRESS;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_DATA_ADDRESS;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_ERROR;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.HEADER_TYPE;
+import static com.dburyak.vertx.eventbus.flow.FlowControl.OPEN;
+
+/**
+ * Producer side of flow-controlled event bus streams, sends items of a {@link Flowable} to the address served by
+ * {@link EventBusFlowConsumer}. Source is requested only as many items as the consumer granted credits for, so fast
+ * producer doesn't flood slow consumer's event bus queue, and backpressure of the consumer propagates to the source.
+ * <p>
+ * Producer stalls, without failing, if the consumer goes away without cancelling the stream (e.g. cluster node
+ * crashed), so use {@link Completable#timeout} where it matters.
+ */
+@Slf4j
+public final class EventBusFlowProducer {
+
+    private EventBusFlowProducer() {
+    }
+
+    /**
+     * Send items of the source to the flow-controlled address.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address served by {@link EventBusFlowConsumer}
+     * @param source items to send
+     * @param <T> item type
+     *
+     * @return completes when all items are sent, or when the consumer cancels the stream; fails if the source fails or
+     *         the stream can not be opened; disposing it cancels the source
+     */
+    public static <T> Completable produce(Vertx vertx, String address, Flowable<T> source) {
+        return produce(vertx, address, source, new DeliveryOptions());
+    }
+
+    /**
+     * Send items of the source to the flow-controlled address.
+     *
+     * @param vertx vertx instance
+     * @param address event bus address served by {@link EventBusFlowConsumer}
+     * @param source items to send
+     * @param deliveryOptions delivery options of the items (codec, headers, etc.), timeout applies to opening the
+     *         stream
+     * @param <T> item type
+     *
+     * @return completes when all items are sent, or when the consumer cancels the stream; fails if the source fails or
+     *         the stream can not be opened; disposing it cancels the source
+     */
+    public static <T> Completable produce(Vertx vertx, String address, Flowable<T> source,
+            DeliveryOptions deliveryOptions) {
+        return Completable.create(emitter -> new Flow<>(vertx.eventBus(), address, source, deliveryOptions, emitter)
+                .open());
+    }
+
+    private static final class Flow<T> implements FlowableSubscriber<T> {
+        private static final DeliveryOptions COMPLETE_OPTIONS = new DeliveryOptions().addHeader(HEADER_TYPE, COMPLETE);
+
+        private final EventBus eb;
+        private final String address;
+        private final String creditsAddress;
+        private final Flowable<T> source;
+        private final DeliveryOptions deliveryOptions;
+        private final CompletableEmitter emitter;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private MessageConsumer<Integer> creditsConsumer;
+        private volatile String dataAddress;
+        private volatile int initialCredits;
+        private volatile Subscription upstream;
+
+        private Flow(EventBus eb, String address, Flowable<T> source, DeliveryOptions deliveryOptions,
+                CompletableEmitter emitter) {
+            this.eb = eb;
+            this.address = address;
+            this.creditsAddress = address + ".flow-credits." + UUID.randomUUID();
+            this.source = source;
+            this.deliveryOptions = deliveryOptions;
+            this.emitter = emitter;
+        }
+
+        private void open() {
+            creditsConsumer = eb.consumer(creditsAddress, this::onControl);
+            emitter.setCancellable(this::dispose);
+            var openOptions = new DeliveryOptions()
+                    .setSendTimeout(deliveryOptions.getSendTimeout())
+                    .addHeader(HEADER_TYPE, OPEN)
+                    .addHeader(HEADER_CREDITS_ADDRESS, creditsAddress);
+            creditsConsumer.rxCompletion()
+                    .andThen(eb.rxRequest(address, null, openOptions))
+                    .subscribe(reply -> {
+                        dataAddress = reply.headers().get(HEADER_DATA_ADDRESS);
+                        initialCredits = (Integer) reply.body();
+                        if (!finished.get()) {
+                            log.debug("flow opened: address={}, dataAddress={}, credits={}", address, dataAddress,
+                                    initialCredits);
+                            source.subscribe(this);
+                        }
+                    }, e -> {
+                        if (finish()) {
+                            log.error("failed to open flow: address={}", address, e);
+                            emitter.tryOnError(e);
+                        }
+                    });
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            upstream = s;
+            if (finished.get()) {
+                s.cancel();
+            } else {
+                s.request(initialCredits);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            eb.send(dataAddress, item, deliveryOptions);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            if (finish()) {
+                eb.send(dataAddress, null, new DeliveryOptions()
+                        .addHeader(HEADER_TYPE, ERROR)
+                        .addHeader(HEADER_ERROR, String.valueOf(e)));
+                emitter.tryOnError(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (finish()) {
+                eb.send(dataAddress, null, COMPLETE_OPTIONS);
+                emitter.onComplete();
+            }
+        }
+
+        private void onControl(Message<Integer> msg) {
+            var type = msg.headers().get(HEADER_TYPE);
+            if (CREDIT.equals(type)) {
+                var s = upstream;
+                if (s != null) {
+                    s.request(msg.body());
+                }
+            } else if (CANCEL.equals(type)) {
+                if (finish()) {
+                    log.debug("flow cancelled by consumer: address={}, dataAddress={}", address, dataAddress);
+                    cancelUpstream();
+                    emitter.onComplete();
+                }
+            } else {
+                log.warn("unexpected flow control message, ignoring: address={}, type={}", address, type);
+            }
+        }
+
+        private void dispose() {
+            if (finish()) {
+                cancelUpstream();
+                var data = dataAddress;
+                if (data != null) {
+                    eb.send(data, null, COMPLETE_OPTIONS);
+                }
+            }
+        }
+
+        private void cancelUpstream() {
+            var s = upstream;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+        private boolean finish() {
+            if (finished.compareAndSet(false, true)) {
+                creditsConsumer.unregister();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.dburyak.vertx.eventbus.flow;
+
+/**
+ * Flow control protocol of {@link EventBusFlowConsumer} and {@link EventBusFlowProducer}.
+ * <ul>
+ *     <li>consumer listens on the public address for {@link #OPEN} requests only
+ *     <li>producer registers private credits address and sends {@link #OPEN} request with it in
+ *     {@link #HEADER_CREDITS_ADDRESS} header
+ *     <li>consumer registers private data address for this producer, and replies with number of initial credits in
+ *     the body and data address in {@link #HEADER_DATA_ADDRESS} header
+ *     <li>producer sends items to the data address without any headers, one item per credit, and finally
+ *     {@link #COMPLETE} or {@link #ERROR} message
+ *     <li>consumer sends {@link #CREDIT} messages with number of credits in the body to the credits address as items
+ *     are consumed downstream, or {@link #CANCEL} message if downstream cancels the stream
+ * </ul>
+ */
+final class FlowControl {
+    static final String HEADER_TYPE = "x-flow-type";
+    static final String HEADER_CREDITS_ADDRESS = "x-flow-credits-address";
+    static final String HEADER_DATA_ADDRESS = "x-flow-data-address";
+    static final String HEADER_ERROR = "x-flow-error";
+
+    static final String OPEN = "open";
+    static final String COMPLETE = "complete";
+    static final String ERROR = "error";
+    static final String CREDIT = "credit";
+    static final String CANCEL = "cancel";
+
+    private FlowControl() {
+    }
+}
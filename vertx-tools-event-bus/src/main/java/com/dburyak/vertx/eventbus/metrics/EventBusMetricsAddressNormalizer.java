@@ -0,0 +1,37 @@
+package com.dburyak.vertx.eventbus.metrics;
+
+/**
+ * Maps event bus addresses to the addresses their metrics are recorded under. Every address gets its own set of
+ * meters, so addresses that are unique per stream, request, etc. must be collapsed into a bounded set of addresses.
+ * <p>
+ * Is called for every sent and received message, so must be cheap. Default implementation is
+ * {@link #UUID_SUFFIX_COLLAPSING}, custom implementation can be provided as a bean.
+ */
+@FunctionalInterface
+public interface EventBusMetricsAddressNormalizer {
+
+    /**
+     * Normalizer that collapses trailing random UUID segment of the address (e.g. {@code orders.flow.<uuid>}) into
+     * {@code *} (e.g. {@code orders.flow.*}). Such addresses are used by
+     * {@link com.dburyak.vertx.eventbus.flow.EventBusFlowProducer} and
+     * {@link com.dburyak.vertx.eventbus.flow.EventBusFlowConsumer} streams.
+     */
+    EventBusMetricsAddressNormalizer UUID_SUFFIX_COLLAPSING = address -> {
+        var uuidStart = address.length() - 36;
+        if (uuidStart < 1 || address.charAt(uuidStart - 1) != '.' || address.charAt(uuidStart + 8) != '-'
+                || address.charAt(uuidStart + 13) != '-' || address.charAt(uuidStart + 18) != '-'
+                || address.charAt(uuidStart + 23) != '-') {
+            return address;
+        }
+        return address.substring(0, uuidStart) + "*";
+    };
+
+    /**
+     * Get address that metrics of the given address are recorded under.
+     *
+     * @param address event bus address
+     *
+     * @return normalized address
+     */
+    String normalize(String address);
+}
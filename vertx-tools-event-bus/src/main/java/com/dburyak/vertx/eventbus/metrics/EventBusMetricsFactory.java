@@ -0,0 +1,64 @@
+package com.dburyak.vertx.eventbus.metrics;
+
+import com.dburyak.vertx.core.VertxConfigurer;
+import com.dburyak.vertx.core.VertxOptionsConfigurer;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.core.spi.metrics.EventBusMetrics;
+import io.vertx.core.spi.metrics.VertxMetrics;
+import jakarta.inject.Singleton;
+
+/**
+ * Factory that installs {@link MicrometerEventBusMetrics} into vertx when event bus metrics are enabled. Interceptors
+ * and codecs metering are installed by {@link com.dburyak.vertx.eventbus.config.EventBusFactory}.
+ */
+@Factory
+public class EventBusMetricsFactory {
+
+    /**
+     * {@link VertxConfigurer} that makes vertx report event bus metrics to {@link MicrometerEventBusMetrics}.
+     *
+     * @param eventBusMetrics event bus metrics
+     *
+     * @return vertx configurer
+     */
+    @Singleton
+    @Requires(bean = EventBusMetricsProperties.class, beanProperty = "enabled", value = "true")
+    public VertxConfigurer eventBusMetricsInstalled(MicrometerEventBusMetrics eventBusMetrics) {
+        return vertxBuilder -> vertxBuilder.withMetrics(vertxOpts -> new VertxMetrics() {
+            @Override
+            public EventBusMetrics<?> createEventBusMetrics() {
+                return eventBusMetrics;
+            }
+        });
+    }
+
+    /**
+     * Default {@link EventBusMetricsAddressNormalizer}, collapses trailing UUID segments of addresses.
+     *
+     * @return event bus metrics address normalizer
+     */
+    @Singleton
+    @Requires(bean = EventBusMetricsProperties.class, beanProperty = "enabled", value = "true")
+    @Requires(missingBeans = EventBusMetricsAddressNormalizer.class)
+    public EventBusMetricsAddressNormalizer uuidSuffixCollapsingAddressNormalizer() {
+        return EventBusMetricsAddressNormalizer.UUID_SUFFIX_COLLAPSING;
+    }
+
+    /**
+     * {@link VertxOptionsConfigurer} that enables vertx metrics, otherwise vertx ignores installed metrics.
+     *
+     * @return vertx options configurer
+     */
+    @Singleton
+    @Requires(bean = EventBusMetricsProperties.class, beanProperty = "enabled", value = "true")
+    public VertxOptionsConfigurer metricsEnabled() {
+        return vertxOpts -> {
+            var metricsOpts = vertxOpts.getMetricsOptions() != null
+                    ? new MetricsOptions(vertxOpts.getMetricsOptions())
+                    : new MetricsOptions();
+            return vertxOpts.setMetricsOptions(metricsOpts.setEnabled(true));
+        };
+    }
+}
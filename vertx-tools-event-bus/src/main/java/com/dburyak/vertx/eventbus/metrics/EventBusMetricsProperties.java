@@ -0,0 +1,38 @@
+package com.dburyak.vertx.eventbus.metrics;
+
+import io.micronaut.context.annotation.ConfigurationInject;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.bind.annotation.Bindable;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Event bus metrics configuration.
+ */
+@ConfigurationProperties("vertx.event-bus.metrics")
+@Getter
+public class EventBusMetricsProperties {
+
+    /**
+     * Whether event bus traffic is measured and exported to micrometer. Disabled by default. Event bus metrics are
+     * collected through vertx metrics SPI, so they can't be used together with other vertx metrics implementations
+     * (e.g. vertx-micrometer-metrics).
+     */
+    private final boolean enabled;
+
+    /**
+     * Client-side percentiles (e.g. 0.5, 0.99) published for request/reply latency and handler execution time timers,
+     * in addition to percentile histogram buckets. None by default.
+     */
+    private final List<Double> percentiles;
+
+    @ConfigurationInject
+    public EventBusMetricsProperties(
+            @Bindable(defaultValue = "false") boolean enabled,
+            @Nullable List<Double> percentiles) {
+        this.enabled = enabled;
+        this.percentiles = percentiles != null ? percentiles : List.of();
+    }
+}
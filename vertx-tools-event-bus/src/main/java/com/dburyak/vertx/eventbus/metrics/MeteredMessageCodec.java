@@ -0,0 +1,52 @@
+package com.dburyak.vertx.eventbus.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import lombok.ToString;
+
+/**
+ * Codec wrapper that records size of every encoded message.
+ *
+ * @param <S> send type
+ * @param <R> receive type
+ */
+@ToString(onlyExplicitlyIncluded = true)
+class MeteredMessageCodec<S, R> implements MessageCodec<S, R> {
+
+    @ToString.Include
+    private final MessageCodec<S, R> codec;
+    private final DistributionSummary encodedSize;
+
+    MeteredMessageCodec(MessageCodec<S, R> codec, DistributionSummary encodedSize) {
+        this.codec = codec;
+        this.encodedSize = encodedSize;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, S s) {
+        var start = buffer.length();
+        codec.encodeToWire(buffer, s);
+        encodedSize.record(buffer.length() - start);
+    }
+
+    @Override
+    public R decodeFromWire(int pos, Buffer buffer) {
+        return codec.decodeFromWire(pos, buffer);
+    }
+
+    @Override
+    public R transform(S s) {
+        return codec.transform(s);
+    }
+
+    @Override
+    public String name() {
+        return codec.name();
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return codec.systemCodecID();
+    }
+}
@@ -0,0 +1,449 @@
+package com.dburyak.vertx.eventbus.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
+import io.micronaut.context.annotation.Requires;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.spi.metrics.EventBusMetrics;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Micrometer implementation of vertx {@link EventBusMetrics} SPI, complemented with event bus interceptors. Records
+ * per-address:
+ * <ul>
+ *     <li>{@value #MESSAGES_SENT} - number of sent messages, by locality (local, remote, or none if there were no
+ *     handlers)
+ *     <li>{@value #MESSAGES_RECEIVED} - number of received messages, by locality
+ *     <li>{@value #MESSAGES_PENDING} - number of messages scheduled for delivery to handlers, but not delivered yet
+ *     <li>{@value #MESSAGES_DISCARDED} - number of messages discarded by handlers
+ *     <li>{@value #BYTES_WRITTEN} and {@value #BYTES_READ} - sizes of messages sent and received over the wire
+ *     <li>{@value #REPLY_FAILURES} - number of reply failures, by failure type (timeouts, no handlers, etc.)
+ *     <li>{@value #REQUEST_LATENCY} - request/reply latency histogram, measured on the requesting side
+ *     <li>{@value #HANDLER_TIME} - execution time of message handlers, by thread. Total time of this timer per event
+ *     loop thread shows which addresses saturate which event loops
+ * </ul>
+ * And {@value #CODEC_ENCODED_SIZE} - sizes of encoded messages per codec, for codecs registered by
+ * {@link com.dburyak.vertx.eventbus.config.EventBusFactory}.
+ * <p>
+ * Reply addresses are unique per request, so they are all recorded as a single {@value #REPLY_ADDRESS} address.
+ * Other addresses are mapped with {@link EventBusMetricsAddressNormalizer}, which must collapse unique addresses (e.g.
+ * per-stream addresses) into a bounded set. Meters of addresses that are not collapsed are removed once the last
+ * handler of the address is unregistered, so that temporary addresses don't accumulate in the meter registry. Events
+ * that race with such removal and hit already removed meters are recorded again to the new meters of the address.
+ */
+@Singleton
+@Requires(bean = EventBusMetricsProperties.class, beanProperty = "enabled", value = "true")
+public class MicrometerEventBusMetrics implements EventBusMetrics<MicrometerEventBusMetrics.HandlerMetric> {
+    public static final String MESSAGES_SENT = "vertx.eventbus.messages.sent";
+    public static final String MESSAGES_RECEIVED = "vertx.eventbus.messages.received";
+    public static final String MESSAGES_PENDING = "vertx.eventbus.messages.pending";
+    public static final String MESSAGES_DISCARDED = "vertx.eventbus.messages.discarded";
+    public static final String BYTES_WRITTEN = "vertx.eventbus.bytes.written";
+    public static final String BYTES_READ = "vertx.eventbus.bytes.read";
+    public static final String REPLY_FAILURES = "vertx.eventbus.replies.failed";
+    public static final String REQUEST_LATENCY = "vertx.eventbus.request.latency";
+    public static final String HANDLER_TIME = "vertx.eventbus.handler.time";
+    public static final String CODEC_ENCODED_SIZE = "vertx.eventbus.codec.encoded.size";
+
+    /**
+     * Address all the reply addresses are recorded as.
+     */
+    public static final String REPLY_ADDRESS = "__vertx.reply";
+
+    private static final String REPLY_ADDRESS_PREFIX = REPLY_ADDRESS + ".";
+    private static final String METRICS_PREFIX = "vertx.eventbus.";
+    private static final String VIRTUAL_THREAD = "virtual";
+
+    private final MeterRegistry meterRegistry;
+    private final EventBusMetricsAddressNormalizer addressNormalizer;
+    private final double[] percentiles;
+    private final ConcurrentMap<String, AddressMeters> addressMeters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param meterRegistry meter registry
+     * @param addressNormalizer address normalizer
+     * @param properties event bus metrics properties
+     */
+    public MicrometerEventBusMetrics(MeterRegistry meterRegistry, EventBusMetricsAddressNormalizer addressNormalizer,
+            EventBusMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.addressNormalizer = addressNormalizer;
+        this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Wrap codec so that sizes of encoded messages are recorded.
+     *
+     * @param codec codec to wrap
+     * @param <S> send type
+     * @param <R> receive type
+     *
+     * @return metered codec
+     */
+    public <S, R> MessageCodec<S, R> metered(MessageCodec<S, R> codec) {
+        var encodedSize = DistributionSummary.builder(CODEC_ENCODED_SIZE)
+                .description("Size of messages encoded by event bus codec")
+                .baseUnit("bytes")
+                .tag("codec", codec.name())
+                .register(meterRegistry);
+        return new MeteredMessageCodec<>(codec, encodedSize);
+    }
+
+    /**
+     * Outbound event bus interceptor, starts measuring request/reply latency.
+     *
+     * @param ctx delivery context
+     * @param <T> message body type
+     */
+    public <T> void interceptOutbound(DeliveryContext<T> ctx) {
+        var msg = ctx.message();
+        var replyAddress = msg.replyAddress();
+        if (ctx.send() && replyAddress != null) {
+            pendingRequests.put(replyAddress, new PendingRequest(msg.address(), System.nanoTime()));
+        }
+        ctx.next();
+    }
+
+    /**
+     * Inbound event bus interceptor, records request/reply latency and execution time of message handlers.
+     *
+     * @param ctx delivery context
+     * @param <T> message body type
+     */
+    public <T> void interceptInbound(DeliveryContext<T> ctx) {
+        var address = ctx.message().address();
+        if (address.startsWith(REPLY_ADDRESS_PREFIX)) {
+            var request = pendingRequests.remove(address);
+            if (request != null) {
+                var latency = System.nanoTime() - request.startedAt;
+                record(request.address,
+                        meters -> recorded(meters.requestLatency(), timer -> timer.record(latency, NANOSECONDS)));
+            }
+            ctx.next();
+            return;
+        }
+        var thread = Thread.currentThread();
+        AddressMeters meters;
+        Timer handlerTime;
+        do {
+            meters = meters(address);
+            handlerTime = meters.handlerTime(thread);
+        } while (handlerTime == null || meters.removed);
+        var startedAt = System.nanoTime();
+        try {
+            ctx.next();
+        } finally {
+            // if the handler unregistered itself and its address meters were removed, the sample is dropped rather than
+            // resurrecting meters of an address without handlers
+            handlerTime.record(System.nanoTime() - startedAt, NANOSECONDS);
+        }
+    }
+
+    @Override
+    public HandlerMetric handlerRegistered(String address) {
+        var meteredAddress = meteredAddress(address);
+        var meters = addressMeters.compute(meteredAddress, (addr, existing) -> {
+            var addrMeters = existing != null ? existing : new AddressMeters(addr);
+            addrMeters.handlers++;
+            return addrMeters;
+        });
+        return new HandlerMetric(address, meters);
+    }
+
+    @Override
+    public void handlerUnregistered(HandlerMetric handler) {
+        if (handler.address.startsWith(REPLY_ADDRESS_PREFIX)) {
+            // reply timed out, or the reply was received
+            pendingRequests.remove(handler.address);
+        }
+        var meteredAddress = handler.meters.address;
+        var removable = meteredAddress.equals(handler.address);
+        addressMeters.computeIfPresent(meteredAddress, (addr, meters) -> {
+            if (--meters.handlers > 0 || !removable) {
+                return meters;
+            }
+            // address may be temporary, don't keep its meters forever
+            meters.remove();
+            return null;
+        });
+    }
+
+    @Override
+    public void scheduleMessage(HandlerMetric handler, boolean local) {
+        handler.meters.pending.increment();
+    }
+
+    @Override
+    public void discardMessage(HandlerMetric handler, boolean local, Message<?> msg) {
+        handler.meters.pending.decrement();
+        record(handler.address, meters -> recorded(meters.discarded(), Counter::increment));
+    }
+
+    @Override
+    public void messageDelivered(HandlerMetric handler, boolean local) {
+        handler.meters.pending.decrement();
+    }
+
+    @Override
+    public void messageSent(String address, boolean publish, boolean local, boolean remote) {
+        if (!local && !remote) {
+            record(address, meters -> recorded(meters.sentNone(), Counter::increment));
+            return;
+        }
+        AddressMeters meters;
+        do {
+            meters = meters(address);
+            if (local) {
+                meters.sentLocal.increment();
+            }
+            if (remote) {
+                meters.sentRemote.increment();
+            }
+        } while (meters.removed);
+    }
+
+    @Override
+    public void messageReceived(String address, boolean publish, boolean local, int handlers) {
+        AddressMeters meters;
+        do {
+            meters = meters(address);
+            (local ? meters.receivedLocal : meters.receivedRemote).increment();
+        } while (meters.removed);
+    }
+
+    @Override
+    public void messageWritten(String address, int numberOfBytes) {
+        record(address, meters -> recorded(meters.bytesWritten(), s -> s.record(numberOfBytes)));
+    }
+
+    @Override
+    public void messageRead(String address, int numberOfBytes) {
+        record(address, meters -> recorded(meters.bytesRead(), s -> s.record(numberOfBytes)));
+    }
+
+    @Override
+    public void replyFailure(String address, ReplyFailure failure) {
+        record(address, meters -> recorded(meters.replyFailure(failure), Counter::increment));
+    }
+
+    private String meteredAddress(String address) {
+        return address.startsWith(REPLY_ADDRESS_PREFIX) ? REPLY_ADDRESS : addressNormalizer.normalize(address);
+    }
+
+    private AddressMeters meters(String address) {
+        var meteredAddress = meteredAddress(address);
+        while (true) {
+            var meters = addressMeters.get(meteredAddress);
+            if (meters == null) {
+                meters = addressMeters.computeIfAbsent(meteredAddress, AddressMeters::new);
+            }
+            if (!meters.removed) {
+                return meters;
+            }
+            // meters are being removed from the map right now
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Record event to meters of the address. Meters of the address may be removed concurrently by unregistration of its
+     * last handler, then the event is recorded again to the new meters of the address.
+     *
+     * @param address event bus address
+     * @param recorder records event to the address meters, returns false if meters were already removed
+     */
+    private void record(String address, Predicate<AddressMeters> recorder) {
+        AddressMeters meters;
+        do {
+            meters = meters(address);
+        } while (!recorder.test(meters) || meters.removed);
+    }
+
+    private static <M> boolean recorded(M meter, Consumer<M> recording) {
+        if (meter == null) {
+            return false;
+        }
+        recording.accept(meter);
+        return true;
+    }
+
+    /**
+     * Metric of a single registered event bus handler.
+     */
+    public static final class HandlerMetric {
+        private final String address;
+        private final AddressMeters meters;
+
+        private HandlerMetric(String address, AddressMeters meters) {
+            this.address = address;
+            this.meters = meters;
+        }
+    }
+
+    private record PendingRequest(String address, long startedAt) {
+    }
+
+    /**
+     * Meters of a single address. Meters of rare events are looked up in the registry on every event, meters with
+     * histograms are created lazily, since most of the addresses never need them (e.g. are never requested or never
+     * sent over the wire). Concurrent lazy creation is harmless, registry returns the same meter. Number of registered
+     * handlers is guarded by the address meters map.
+     * <p>
+     * Lazy registration and removal of meters are mutually exclusive, so no meter is registered again after removal:
+     * lazy getters return null once meters are removed.
+     */
+    private final class AddressMeters {
+        private final String address;
+        private final Counter sentLocal;
+        private final Counter sentRemote;
+        private final Counter receivedLocal;
+        private final Counter receivedRemote;
+        private final LongAdder pending = new LongAdder();
+        private int handlers;
+        private volatile boolean removed;
+        private final ConcurrentMap<String, Timer> handlerTimes = new ConcurrentHashMap<>();
+        private volatile DistributionSummary bytesWritten;
+        private volatile DistributionSummary bytesRead;
+        private volatile Timer requestLatency;
+
+        private AddressMeters(String address) {
+            this.address = address;
+            sentLocal = sentCounter("local");
+            sentRemote = sentCounter("remote");
+            receivedLocal = receivedCounter("local");
+            receivedRemote = receivedCounter("remote");
+            Gauge.builder(MESSAGES_PENDING, pending, LongAdder::sum)
+                    .description("Number of messages scheduled for delivery to event bus handlers")
+                    .tag("address", address)
+                    .register(meterRegistry);
+        }
+
+        private Timer handlerTime(Thread thread) {
+            var threadName = thread.isVirtual() ? VIRTUAL_THREAD : thread.getName();
+            var timer = handlerTimes.get(threadName);
+            if (timer != null) {
+                return timer;
+            }
+            return registerIfLive(() -> handlerTimes.computeIfAbsent(threadName, ignr -> Timer.builder(HANDLER_TIME)
+                    .description("Execution time of event bus message handlers")
+                    .tag("address", address)
+                    .tag("thread", threadName)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(percentiles)
+                    .register(meterRegistry)));
+        }
+
+        private Timer requestLatency() {
+            var timer = requestLatency;
+            if (timer == null) {
+                timer = registerIfLive(() -> Timer.builder(REQUEST_LATENCY)
+                        .description("Event bus request/reply latency")
+                        .tag("address", address)
+                        .publishPercentileHistogram()
+                        .publishPercentiles(percentiles)
+                        .register(meterRegistry));
+                requestLatency = timer;
+            }
+            return timer;
+        }
+
+        private DistributionSummary bytesWritten() {
+            var summary = bytesWritten;
+            if (summary == null) {
+                summary = registerIfLive(() -> bytesSummary(BYTES_WRITTEN,
+                        "Size of event bus messages sent over the wire"));
+                bytesWritten = summary;
+            }
+            return summary;
+        }
+
+        private DistributionSummary bytesRead() {
+            var summary = bytesRead;
+            if (summary == null) {
+                summary = registerIfLive(() -> bytesSummary(BYTES_READ,
+                        "Size of event bus messages received over the wire"));
+                bytesRead = summary;
+            }
+            return summary;
+        }
+
+        private Counter discarded() {
+            return registerIfLive(() -> Counter.builder(MESSAGES_DISCARDED)
+                    .description("Number of messages discarded by event bus handlers")
+                    .tag("address", address)
+                    .register(meterRegistry));
+        }
+
+        private Counter replyFailure(ReplyFailure failure) {
+            return registerIfLive(() -> Counter.builder(REPLY_FAILURES)
+                    .description("Number of event bus reply failures")
+                    .tag("address", address)
+                    .tag("failure", failure.name())
+                    .register(meterRegistry));
+        }
+
+        private Counter sentNone() {
+            return registerIfLive(() -> sentCounter("none"));
+        }
+
+        private Counter sentCounter(String locality) {
+            return Counter.builder(MESSAGES_SENT)
+                    .description("Number of messages sent over the event bus")
+                    .tag("address", address)
+                    .tag("locality", locality)
+                    .register(meterRegistry);
+        }
+
+        private synchronized <M> M registerIfLive(Supplier<M> registration) {
+            return removed ? null : registration.get();
+        }
+
+        /**
+         * Remove all the meters of the address from the registry. Is called by the address meters map under the lock
+         * of the address entry.
+         */
+        private synchronized void remove() {
+            removed = true;
+            Search.in(meterRegistry)
+                    .name(name -> name.startsWith(METRICS_PREFIX))
+                    .tag("address", address)
+                    .meters()
+                    .forEach(meterRegistry::remove);
+        }
+
+        private Counter receivedCounter(String locality) {
+            return Counter.builder(MESSAGES_RECEIVED)
+                    .description("Number of messages received from the event bus")
+                    .tag("address", address)
+                    .tag("locality", locality)
+                    .register(meterRegistry);
+        }
+
+        private DistributionSummary bytesSummary(String name, String description) {
+            return DistributionSummary.builder(name)
+                    .description(description)
+                    .baseUnit("bytes")
+                    .tag("address", address)
+                    .register(meterRegistry);
+        }
+    }
+}
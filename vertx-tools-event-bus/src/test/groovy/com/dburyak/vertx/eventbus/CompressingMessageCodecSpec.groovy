@@ -0,0 +1,122 @@
+package com.dburyak.vertx.eventbus
+
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.eventbus.MessageCodec
+import io.vertx.core.internal.buffer.BufferInternal
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class CompressingMessageCodecSpec extends Specification {
+    static final int HEADER_SIZE = 1 + 2 * Integer.BYTES
+
+    def 'message below threshold is sent uncompressed'() {
+        given:
+        def codec = CompressingMessageCodec.of(new StringCodec(), Compression.LZ4, 1024, 1024 * 1024)
+        def buffer = Buffer.buffer('prefix')
+
+        when:
+        codec.encodeToWire(buffer, 'small')
+
+        then:
+        buffer.getByte('prefix'.length()) == 0 as byte
+        buffer.length() == 'prefix'.length() + HEADER_SIZE + Integer.BYTES + 'small'.length()
+        codec.decodeFromWire('prefix'.length(), buffer) == 'small'
+    }
+
+    def 'message above threshold is compressed with #compression into #type buffer'() {
+        given:
+        def codec = CompressingMessageCodec.of(new StringCodec(), compression, 64, 1024 * 1024)
+        def message = 'compressible ' * 100
+        buffer.appendString('prefix')
+
+        when:
+        codec.encodeToWire(buffer, message)
+        def firstLength = buffer.length() - 'prefix'.length()
+        codec.encodeToWire(buffer, 'second ' * 100)
+
+        then:
+        buffer.getByte('prefix'.length()) == 1 as byte
+        firstLength < message.length()
+        codec.decodeFromWire('prefix'.length(), buffer) == message
+        codec.decodeFromWire('prefix'.length() + firstLength, buffer) == 'second ' * 100
+
+        where:
+        compression      | type     | buffer
+        Compression.LZ4  | 'heap'   | Buffer.buffer()
+        Compression.LZ4  | 'direct' | BufferInternal.buffer(Unpooled.directBuffer())
+        Compression.ZSTD | 'heap'   | Buffer.buffer()
+        Compression.ZSTD | 'direct' | BufferInternal.buffer(Unpooled.directBuffer())
+    }
+
+    def 'message that does not get smaller is sent uncompressed'() {
+        given:
+        def codec = CompressingMessageCodec.of(new StringCodec(), Compression.LZ4, 16, 1024 * 1024)
+        def message = (0..<64).collect { (char) (32 + new Random(it).nextInt(90)) }.join()
+        def buffer = Buffer.buffer()
+
+        when:
+        codec.encodeToWire(buffer, message)
+
+        then:
+        buffer.getByte(0) == 0 as byte
+        codec.decodeFromWire(0, buffer) == message
+    }
+
+    def 'message with corrupted header fails to decode: #corruption'() {
+        given:
+        def codec = CompressingMessageCodec.of(new StringCodec(), Compression.LZ4, 64, 2048)
+        def buffer = Buffer.buffer()
+        codec.encodeToWire(buffer, 'compressible ' * 100)
+        def compressedSize = buffer.getInt(1)
+        corrupt(buffer, compressedSize)
+
+        when:
+        codec.decodeFromWire(0, buffer)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        corruption                          | corrupt
+        'unknown flag'                      | { Buffer b, int c -> b.setByte(0, 7 as byte) }
+        'size above max size'               | { Buffer b, int c -> b.setInt(5, 4096) }
+        'negative size'                     | { Buffer b, int c -> b.setInt(5, -1) }
+        'compressed size beyond buffer'     | { Buffer b, int c -> b.setInt(1, c + 1) }
+        'compressed size not below size'    | { Buffer b, int c -> b.setInt(5, c) }
+        'ratio above lz4 max ratio'         | { Buffer b, int c -> b.setInt(1, 1); b.setInt(5, 2000) }
+        'size differs from decompressed'    | { Buffer b, int c -> b.setInt(5, b.getInt(5) - 1) }
+    }
+
+    static class StringCodec implements MessageCodec<String, String> {
+
+        @Override
+        void encodeToWire(Buffer buffer, String s) {
+            def bytes = s.getBytes(StandardCharsets.UTF_8)
+            buffer.appendInt(bytes.length)
+            buffer.appendBytes(bytes)
+        }
+
+        @Override
+        String decodeFromWire(int pos, Buffer buffer) {
+            def length = buffer.getInt(pos)
+            buffer.getString(pos + Integer.BYTES, pos + Integer.BYTES + length)
+        }
+
+        @Override
+        String transform(String s) {
+            s
+        }
+
+        @Override
+        String name() {
+            'string'
+        }
+
+        @Override
+        byte systemCodecID() {
+            -1
+        }
+    }
+}
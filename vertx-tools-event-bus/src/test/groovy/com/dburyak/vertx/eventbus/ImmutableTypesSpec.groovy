@@ -0,0 +1,111 @@
+package com.dburyak.vertx.eventbus
+
+import spock.lang.Specification
+
+import Duration
+import Instant
+import OffsetDateTime
+import ZoneId
+import ZoneOffset
+
+class ImmutableTypesSpec extends Specification {
+
+    def 'record with list component is rejected'() {
+        when:
+        ImmutableTypes.requireDeeplyImmutable(WithList)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('WithList.items: type java.util.List is neither record')
+    }
+
+    def 'non-final deeply immutable annotated class is rejected'() {
+        when:
+        ImmutableTypes.requireDeeplyImmutable(NonFinal)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('is not final')
+    }
+
+    def 'class with non-final inherited field is rejected'() {
+        when:
+        ImmutableTypes.requireDeeplyImmutable(WithMutableBase)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('mutableField: field is not final')
+    }
+
+    def 'generic record with type variable resolved to immutable type is accepted'() {
+        expect:
+        ImmutableTypes.isDeeplyImmutable(BoxHolder)
+        !ImmutableTypes.isDeeplyImmutable(Box)
+        !ImmutableTypes.isDeeplyImmutable(ListBoxHolder)
+    }
+
+    def 'record with jdk value type component is accepted: #type.simpleName'() {
+        expect:
+        ImmutableTypes.isDeeplyImmutable(type)
+
+        where:
+        type << [WithZoneOffset, WithZoneId, WithTime, WithOptionals, WithLocale]
+    }
+
+    def 'recursive record is accepted'() {
+        expect:
+        ImmutableTypes.isDeeplyImmutable(Node)
+    }
+
+    def 'sealed hierarchy with mutable permitted subtype is rejected'() {
+        when:
+        ImmutableTypes.requireDeeplyImmutable(Shape)
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('(Square)')
+        ImmutableTypes.isDeeplyImmutable(Circle)
+    }
+
+    static record WithList(String name, List<String> items) {}
+
+    @DeeplyImmutable
+    static class NonFinal {
+        final String name = 'name'
+    }
+
+    static class MutableBase {
+        String mutableField
+    }
+
+    @DeeplyImmutable
+    static final class WithMutableBase extends MutableBase {
+        final String name = 'name'
+    }
+
+    static record WithZoneOffset(ZoneOffset offset) {}
+
+    static record WithZoneId(ZoneId zone) {}
+
+    static record WithTime(Instant instant, Duration duration, OffsetDateTime dateTime) {}
+
+    static record WithOptionals(OptionalInt count, OptionalLong size, OptionalDouble ratio, Optional<UUID> id) {}
+
+    static record WithLocale(Locale locale, Currency currency, URI uri) {}
+
+    static record Box<T>(T value) {}
+
+    static record BoxHolder(Box<String> box) {}
+
+    static record ListBoxHolder(Box<List<String>> box) {}
+
+    static record Node(String value, Optional<Node> next) {}
+
+    static sealed interface Shape permits Circle, Square {}
+
+    static record Circle(double radius) implements Shape {}
+
+    static final class Square implements Shape {
+        int side
+    }
+}
@@ -0,0 +1,166 @@
+package com.dburyak.vertx.eventbus
+
+import com.dburyak.vertx.core.config.Memory
+import com.dburyak.vertx.eventbus.config.CodecProperties
+import com.dburyak.vertx.eventbus.config.EventBusProperties
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.internal.buffer.BufferInternal
+import io.vertx.core.json.DecodeException
+import spock.lang.Specification
+
+class JsonMessageCodecSpec extends Specification {
+    def registry = typeRegistry(RegisteredJsonMessage)
+    def codec = jsonCodec(registry)
+
+    def 'registered type is sent by id once ids are agreed'() {
+        given:
+        registry.idsAgreed = true
+        def message = new RegisteredJsonMessage('text', 42)
+        def buffer = Buffer.buffer()
+
+        when:
+        codec.encodeToWire(buffer, message)
+
+        then: 'single byte id and registry tag are sent instead of type name'
+        buffer.getByte(0) == registry.idOf(RegisteredJsonMessage) as byte
+        buffer.getInt(1) == registry.tag
+        codec.decodeFromWire(0, buffer) == message
+    }
+
+    def 'registered type is sent by name while ids are not agreed'() {
+        given:
+        def message = new RegisteredJsonMessage('text', 42)
+        def buffer = Buffer.buffer()
+
+        when:
+        codec.encodeToWire(buffer, message)
+
+        then:
+        registry.idOf(RegisteredJsonMessage) == JsonTypeRegistry.NO_ID
+        buffer.getByte(0) == JsonTypeRegistry.NO_ID as byte
+        codec.decodeFromWire(0, buffer) == message
+    }
+
+    def 'unregistered type is sent by name with compact length'() {
+        given:
+        registry.idsAgreed = true
+        def message = new UnregisteredJsonMessage('text')
+        def typeName = UnregisteredJsonMessage.name
+        def buffer = Buffer.buffer()
+
+        when:
+        codec.encodeToWire(buffer, message)
+        def jsonSize = buffer.getInt(2 + typeName.length())
+
+        then: 'id and name length take a byte each'
+        buffer.getByte(0) == JsonTypeRegistry.NO_ID as byte
+        buffer.getByte(1) == typeName.length() as byte
+        buffer.getString(2, 2 + typeName.length()) == typeName
+        buffer.length() == 2 + typeName.length() + Integer.BYTES + jsonSize
+        codec.decodeFromWire(0, buffer) == message
+    }
+
+    def 'message sent by id by member with different registry fails to decode'() {
+        given:
+        def otherRegistry = typeRegistry(UnregisteredJsonMessage, RegisteredJsonMessage)
+        otherRegistry.idsAgreed = true
+        def buffer = Buffer.buffer()
+        jsonCodec(otherRegistry).encodeToWire(buffer, new RegisteredJsonMessage('text', 42))
+
+        when:
+        codec.decodeFromWire(0, buffer)
+
+        then:
+        def e = thrown(DecodeException)
+        e.message.contains('registry of the sender differs')
+    }
+
+    def 'message sent by name is decoded by member with different registry'() {
+        given:
+        def otherRegistry = typeRegistry(UnregisteredJsonMessage, RegisteredJsonMessage)
+        def buffer = Buffer.buffer()
+        jsonCodec(otherRegistry).encodeToWire(buffer, new RegisteredJsonMessage('text', 42))
+
+        expect:
+        codec.decodeFromWire(0, buffer) == new RegisteredJsonMessage('text', 42)
+    }
+
+    def 'ids are dense and do not depend on configuration order'() {
+        given:
+        def first = typeRegistry(RegisteredJsonMessage, UnregisteredJsonMessage)
+        def second = typeRegistry(UnregisteredJsonMessage, RegisteredJsonMessage)
+        [first, second].each { it.idsAgreed = true }
+
+        expect:
+        first.hash == second.hash
+        first.tag == second.tag
+        first.idOf(RegisteredJsonMessage) == second.idOf(RegisteredJsonMessage)
+        first.idOf(UnregisteredJsonMessage) == second.idOf(UnregisteredJsonMessage)
+        first.idOf(RegisteredJsonMessage) < first.idOf(UnregisteredJsonMessage)
+        first.typeOf(first.idOf(UnregisteredJsonMessage)) == UnregisteredJsonMessage
+        first.hash != registry.hash
+    }
+
+    def 'consecutive messages with multi-byte characters are encoded after existing content of #type buffer'() {
+        given:
+        registry.idsAgreed = idsAgreed
+        def first = new RegisteredJsonMessage('\u043F\u0440\u0438\u0432\u0456\u0442 \u2603 \uD83D\uDE00', 1)
+        def second = new UnregisteredJsonMessage('\u00FCn\u00EFc\u00F6d\u00E9 \u20AC')
+        buffer.appendString('prefix')
+
+        when:
+        codec.encodeToWire(buffer, first)
+        def secondPos = buffer.length()
+        codec.encodeToWire(buffer, second)
+
+        then:
+        buffer.getString(0, 'prefix'.length()) == 'prefix'
+        codec.decodeFromWire('prefix'.length(), buffer) == first
+        codec.decodeFromWire(secondPos, buffer) == second
+
+        where:
+        type     | idsAgreed | buffer
+        'heap'   | true      | Buffer.buffer()
+        'heap'   | false     | Buffer.buffer()
+        'direct' | true      | BufferInternal.buffer(Unpooled.directBuffer())
+        'direct' | false     | BufferInternal.buffer(Unpooled.directBuffer())
+    }
+
+    def 'json size is the size in bytes, not in chars'() {
+        given:
+        def message = new UnregisteredJsonMessage('\u20AC' * 10)
+        def typeName = UnregisteredJsonMessage.name
+        def buffer = Buffer.buffer()
+
+        when:
+        codec.encodeToWire(buffer, message)
+        def jsonPos = 2 + typeName.length()
+        def jsonSize = buffer.getInt(jsonPos)
+
+        then:
+        jsonSize == buffer.length() - jsonPos - Integer.BYTES
+        buffer.getString(jsonPos + Integer.BYTES, buffer.length(), 'UTF-8') == '{"text":"' + '\u20AC' * 10 + '"}'
+        jsonSize > buffer.getString(jsonPos + Integer.BYTES, buffer.length(), 'UTF-8').length()
+    }
+
+    def 'unknown id is rejected'() {
+        when:
+        registry.typeOf(1000)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static JsonTypeRegistry typeRegistry(Class<?>... types) {
+        def codecProps = new CodecProperties('json', true, LocalAwareJsonUnsafeMessageCodec.name, true,
+                types*.name, Compression.NONE, Memory.ofKb(1), Memory.ofMb(64))
+        new JsonTypeRegistry(new EventBusProperties([codecProps], false, 0))
+    }
+
+    private static JsonMessageCodec<Object, Object> jsonCodec(JsonTypeRegistry registry) {
+        def codec = new LocalAwareJsonUnsafeMessageCodec<Object>()
+        codec.typeRegistry = registry
+        codec
+    }
+}
@@ -0,0 +1,112 @@
+package com.dburyak.vertx.eventbus.batch
+
+import io.reactivex.rxjava3.core.Single
+import io.vertx.core.eventbus.DeliveryOptions
+import io.vertx.core.eventbus.ReplyException
+import io.vertx.core.eventbus.impl.codecs.StringMessageCodec
+import io.vertx.rxjava3.core.Vertx
+import io.vertx.rxjava3.core.eventbus.Message
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+
+import static io.vertx.core.eventbus.ReplyFailure.RECIPIENT_FAILURE
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class BatchingRequestClientSpec extends Specification {
+    static final String ADDRESS = 'test.batch'
+
+    def vertx = Vertx.vertx()
+    def requestCodec = MessageBatchCodec.of('test-batch-request', new StringMessageCodec())
+    def replyCodec = MessageBatchCodec.of('test-batch-reply', new StringMessageCodec())
+    def batchSizes = new CopyOnWriteArrayList<Integer>()
+
+    def cleanup() {
+        vertx.rxClose().blockingAwait()
+    }
+
+    def 'sends full batch right away when max batch size is reached'() {
+        given:
+        BatchingRequestConsumer.batchConsumer(vertx, ADDRESS, requestCodec, replyCodec, { List<String> requests ->
+            batchSizes << requests.size()
+            Single.just(requests.collect { it.toUpperCase() })
+        }).rxCompletion().blockingAwait()
+        def client = new BatchingRequestClient<String, String>(vertx.getOrCreateContext(), ADDRESS, requestCodec,
+                replyCodec, 3, Duration.ofSeconds(30), new DeliveryOptions())
+
+        when:
+        def replies = requestAll(client, ['a', 'b', 'c'])
+
+        then:
+        replies == ['A', 'B', 'C']
+        batchSizes == [3]
+    }
+
+    def 'replies per-item failures to individual requests'() {
+        given:
+        BatchingRequestConsumer.consumer(vertx, ADDRESS, requestCodec, replyCodec, { String request ->
+            request == 'bad' ? Single.error(new ReplyException(RECIPIENT_FAILURE, 400, 'bad request'))
+                    : Single.just(request.toUpperCase())
+        }).rxCompletion().blockingAwait()
+        def client = new BatchingRequestClient<String, String>(vertx.getOrCreateContext(), ADDRESS, requestCodec,
+                replyCodec, 2, Duration.ofSeconds(30), new DeliveryOptions())
+
+        when:
+        def good = client.request('good').cache()
+        def bad = client.request('bad').cache()
+        good.subscribe({}, {})
+        bad.subscribe({}, {})
+
+        then:
+        good.timeout(5, SECONDS).blockingGet() == 'GOOD'
+
+        when:
+        bad.timeout(5, SECONDS).blockingGet()
+
+        then:
+        def e = thrown(ReplyException)
+        e.failureCode() == 400
+        e.message == 'bad request'
+    }
+
+    def 'fails all requests of the batch on reply batch size mismatch'() {
+        given:
+        def client = new BatchingRequestClient<String, String>(vertx.getOrCreateContext(), ADDRESS, requestCodec,
+                replyCodec, 2, Duration.ofSeconds(30), new DeliveryOptions())
+        vertx.eventBus().consumer(ADDRESS) { Message<MessageBatch<String>> msg ->
+            msg.reply(MessageBatch.of(['only-one']), new DeliveryOptions().setCodecName(replyCodec.name()))
+        }.rxCompletion().blockingAwait()
+
+        when:
+        requestAll(client, ['a', 'b'])
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.contains('reply batch size mismatch')
+    }
+
+    def 'fails all requests of the batch if batch handler result size mismatches'() {
+        given:
+        BatchingRequestConsumer.batchConsumer(vertx, ADDRESS, requestCodec, replyCodec, { List<String> requests ->
+            Single.just(['only-one'])
+        }).rxCompletion().blockingAwait()
+        def client = new BatchingRequestClient<String, String>(vertx.getOrCreateContext(), ADDRESS, requestCodec,
+                replyCodec, 2, Duration.ofSeconds(30), new DeliveryOptions())
+
+        when:
+        requestAll(client, ['a', 'b'])
+
+        then:
+        def e = thrown(ReplyException)
+        e.failureCode() == BatchingRequestConsumer.DEFAULT_FAILURE_CODE
+        e.message.contains('batch handler result size mismatch')
+    }
+
+    private static List<String> requestAll(BatchingRequestClient<String, String> client, List<String> requests) {
+        Single.concatEager(requests.collect { client.request(it) })
+                .toList()
+                .timeout(5, SECONDS)
+                .blockingGet()
+    }
+}
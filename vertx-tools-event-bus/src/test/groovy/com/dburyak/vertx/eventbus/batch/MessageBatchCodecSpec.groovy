@@ -0,0 +1,63 @@
+package com.dburyak.vertx.eventbus.batch
+
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.eventbus.ReplyException
+import io.vertx.core.eventbus.impl.codecs.StringMessageCodec
+import spock.lang.Specification
+
+import static io.vertx.core.eventbus.ReplyFailure.RECIPIENT_FAILURE
+
+class MessageBatchCodecSpec extends Specification {
+
+    def codec = MessageBatchCodec.of('test-batch', new StringMessageCodec())
+
+    def 'encodes and decodes batch with mixed ok and failed items'() {
+        given:
+        def batch = new MessageBatch<String>(['one', null, 'three', null, ''],
+                [null, new ReplyException(RECIPIENT_FAILURE, 404, 'not found'), null,
+                 new ReplyException(RECIPIENT_FAILURE, 500, null), null])
+        def prefix = 'prefix'
+        def buffer = Buffer.buffer(prefix)
+
+        when:
+        codec.encodeToWire(buffer, batch)
+        def decoded = codec.decodeFromWire(prefix.length(), buffer)
+
+        then:
+        decoded.size() == 5
+        decoded.items() == ['one', null, 'three', null, '']
+        decoded.failure(0) == null
+        decoded.failure(1).failureCode() == 404
+        decoded.failure(1).message == 'not found'
+        decoded.failure(2) == null
+        decoded.failure(3).failureCode() == 500
+        decoded.failure(3).message == null
+        decoded.failure(4) == null
+    }
+
+    def 'encodes and decodes batch without failures'() {
+        given:
+        def buffer = Buffer.buffer()
+
+        when:
+        codec.encodeToWire(buffer, MessageBatch.of(['one', 'two']))
+        def decoded = codec.decodeFromWire(0, buffer)
+
+        then:
+        decoded.items() == ['one', 'two']
+        decoded.failures() == null
+    }
+
+    def 'transforms every item with item codec'() {
+        given:
+        def failure = new ReplyException(RECIPIENT_FAILURE, 500, 'failed')
+        def batch = new MessageBatch<String>(['one', null], [null, failure])
+
+        when:
+        def transformed = codec.transform(batch)
+
+        then:
+        transformed.items() == ['one', null]
+        transformed.failures() == [null, failure]
+    }
+}
@@ -0,0 +1,117 @@
+package com.dburyak.vertx.eventbus.config
+
+import com.dburyak.vertx.core.config.Memory
+import com.dburyak.vertx.eventbus.Compression
+import io.micronaut.context.ApplicationContext
+import io.vertx.rxjava3.core.Vertx
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class EventBusFactorySpec extends Specification {
+    static final String ADDRESS = 'test.annotated'
+
+    def vertx = Vertx.vertx()
+    def conditions = new PollingConditions(timeout: 5)
+    def appCtx = Stub(ApplicationContext) {
+        getBean(MarkingMessageCodec) >> new MarkingMessageCodec('annotation')
+        getBean(OtherMarkingMessageCodec) >> new OtherMarkingMessageCodec('yaml')
+        getBean(ImmutableMarkingMessageCodec) >> new ImmutableMarkingMessageCodec('immutable')
+    }
+    def disabledImmutableCodec = codecProps('immutable', ImmutableMarkingMessageCodec, false, false, null)
+
+    def cleanup() {
+        vertx.rxClose().blockingAwait()
+    }
+
+    def 'codec bean from annotation is registered as default codec of annotated type'() {
+        when:
+        def eb = eventBus([disabledImmutableCodec])
+
+        then:
+        deliveredMark(eb) == 'annotation'
+    }
+
+    def 'default type listed in configuration takes precedence over annotation'() {
+        given:
+        def yamlCodec = codecProps('yaml', OtherMarkingMessageCodec, true, true, [AnnotatedMessage.name])
+
+        when:
+        def eb = eventBus([yamlCodec, disabledImmutableCodec])
+
+        then:
+        deliveredMark(eb) == 'yaml'
+    }
+
+    def 'default codec is not registered for annotated type if its codec is disabled'() {
+        given:
+        def eb = eventBus([disabledImmutableCodec])
+
+        when:
+        eb.send(ADDRESS, new MutableImmutableCodecMessage())
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains('No message codec')
+    }
+
+    def 'mutable type annotated with immutable codec fails startup'() {
+        when:
+        eventBus([])
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains(MutableImmutableCodecMessage.name)
+    }
+
+    def 'mutable default type of immutable codec listed in configuration fails startup: #defaultTypes'() {
+        given:
+        def codec = codecProps('immutable', ImmutableMarkingMessageCodec, true, true, defaultTypes)
+
+        when:
+        eventBus([codec])
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message.contains(StringBuilder.name)
+
+        where:
+        defaultTypes << [
+                [StringBuilder.name],
+                [ImmutableMessage.name, StringBuilder.name],
+        ]
+    }
+
+    def 'default codec without default types is accepted'() {
+        given:
+        def codec = codecProps('yaml', OtherMarkingMessageCodec, true, true, null)
+
+        when:
+        def eb = eventBus([codec, disabledImmutableCodec])
+
+        then:
+        codec.defaultTypes == []
+        deliveredMark(eb) == 'annotation'
+    }
+
+    private io.vertx.core.eventbus.EventBus eventBus(List<CodecProperties> codecs) {
+        new EventBusFactory().coreEventBus(appCtx, vertx, new EventBusProperties(codecs, false, 0), Optional.empty())
+    }
+
+    private String deliveredMark(io.vertx.core.eventbus.EventBus eb) {
+        def received = new CopyOnWriteArrayList<AnnotatedMessage>()
+        eb.<AnnotatedMessage> consumer(ADDRESS) { received << it.body() }
+        eb.send(ADDRESS, new AnnotatedMessage('sent'))
+        conditions.eventually {
+            assert received.size() == 1
+        }
+        received[0].mark
+    }
+
+    private static CodecProperties codecProps(String name, Class<?> type, boolean enabled, boolean isDefault,
+            List<String> defaultTypes) {
+        new CodecProperties(name, enabled, type.name, isDefault, defaultTypes, Compression.NONE, Memory.ofKb(1),
+                Memory.ofMb(64))
+    }
+}
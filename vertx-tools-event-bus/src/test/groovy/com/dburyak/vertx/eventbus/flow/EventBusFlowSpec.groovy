@@ -0,0 +1,117 @@
+package com.dburyak.vertx.eventbus.flow
+
+import io.reactivex.rxjava3.core.Flowable
+import io.vertx.core.eventbus.ReplyException
+import io.vertx.rxjava3.core.Vertx
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+import static io.vertx.core.eventbus.ReplyFailure.NO_HANDLERS
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class EventBusFlowSpec extends Specification {
+    static final String ADDRESS = 'test.flow'
+    static final int PREFETCH = 8
+
+    def vertx = Vertx.vertx()
+    def conditions = new PollingConditions(timeout: 5)
+    def emitted = new AtomicInteger()
+    def sourceCancelled = new AtomicBoolean()
+    def source = Flowable.range(0, 1_000_000)
+            .doOnNext { emitted.incrementAndGet() }
+            .doOnCancel { sourceCancelled.set(true) }
+
+    def cleanup() {
+        vertx.rxClose().blockingAwait()
+    }
+
+    def 'producer emits only within credits granted by slow consumer'() {
+        given:
+        def consumer = EventBusFlowConsumer.<Integer> consume(vertx, ADDRESS, PREFETCH).test(0)
+
+        when:
+        def producer = produce().test()
+
+        then:
+        conditions.eventually {
+            assert emitted.get() == PREFETCH
+        }
+
+        when: 'nothing is requested downstream'
+        MILLISECONDS.sleep(200)
+
+        then: 'producer does not exceed the initial credits'
+        emitted.get() == PREFETCH
+        consumer.values().isEmpty()
+
+        when:
+        consumer.request(PREFETCH.intdiv(2))
+
+        then: 'producer resumes once credits are granted back'
+        conditions.eventually {
+            assert consumer.values() == (0..<PREFETCH.intdiv(2)).toList()
+            assert emitted.get() == PREFETCH + PREFETCH.intdiv(2)
+        }
+
+        when:
+        MILLISECONDS.sleep(200)
+
+        then: 'producer never has more than prefetch items outstanding'
+        emitted.get() - consumer.values().size() == PREFETCH
+        producer.assertNotComplete()
+    }
+
+    def 'all items of finite source are delivered and producer completes'() {
+        given:
+        def consumer = EventBusFlowConsumer.<Integer> consume(vertx, ADDRESS, PREFETCH).test()
+
+        when:
+        def producer = produce(source.take(100)).test()
+
+        then:
+        producer.await(5, SECONDS)
+        producer.assertComplete()
+        conditions.eventually {
+            assert consumer.values() == (0..<100).toList()
+        }
+        consumer.assertNotComplete()
+    }
+
+    def 'cancelling consumer completes producer and cancels its source'() {
+        given:
+        def consumer = EventBusFlowConsumer.<Integer> consume(vertx, ADDRESS, PREFETCH).test(0)
+        def producer = produce().test()
+        conditions.eventually {
+            assert emitted.get() == PREFETCH
+        }
+
+        when:
+        consumer.cancel()
+
+        then:
+        producer.await(5, SECONDS)
+        producer.assertComplete()
+        sourceCancelled.get()
+    }
+
+    def 'producer fails if there is no consumer'() {
+        when:
+        EventBusFlowProducer.produce(vertx, ADDRESS, source).blockingAwait(5, SECONDS)
+
+        then:
+        def e = thrown(ReplyException)
+        e.failureType() == NO_HANDLERS
+        !sourceCancelled.get()
+        emitted.get() == 0
+    }
+
+    private produce(Flowable<Integer> items = source) {
+        // consumer is registered asynchronously, so the stream is opened as soon as it is there
+        EventBusFlowProducer.produce(vertx, ADDRESS, items)
+                .retry(1_000) { it instanceof ReplyException && it.failureType() == NO_HANDLERS }
+    }
+}
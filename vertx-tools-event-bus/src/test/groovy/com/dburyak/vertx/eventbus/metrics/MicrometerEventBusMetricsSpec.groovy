@@ -0,0 +1,200 @@
+package com.dburyak.vertx.eventbus.metrics
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.vertx.core.eventbus.DeliveryContext
+import io.vertx.core.eventbus.Message
+import io.vertx.core.eventbus.ReplyFailure
+import spock.lang.Specification
+
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.atomic.AtomicBoolean
+
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.BYTES_WRITTEN
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.HANDLER_TIME
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.MESSAGES_DISCARDED
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.MESSAGES_SENT
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.REPLY_ADDRESS
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.REPLY_FAILURES
+import static com.dburyak.vertx.eventbus.metrics.MicrometerEventBusMetrics.REQUEST_LATENCY
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+
+class MicrometerEventBusMetricsSpec extends Specification {
+    def registry = new SimpleMeterRegistry()
+    def metrics = new MicrometerEventBusMetrics(registry, EventBusMetricsAddressNormalizer.UUID_SUFFIX_COLLAPSING,
+            new EventBusMetricsProperties(true, null))
+
+    def 'meters of address are removed when its last handler is unregistered'() {
+        given:
+        def first = metrics.handlerRegistered('tmp.address')
+        def second = metrics.handlerRegistered('tmp.address')
+        metrics.messageSent('tmp.address', false, true, false)
+
+        when:
+        metrics.handlerUnregistered(first)
+
+        then:
+        registry.find(MESSAGES_SENT).tag('address', 'tmp.address').counters()
+
+        when:
+        metrics.handlerUnregistered(second)
+
+        then:
+        !registry.find(MESSAGES_SENT).tag('address', 'tmp.address').counters()
+    }
+
+    def 'unique per-stream addresses are recorded under collapsed address'() {
+        given:
+        def addresses = (1..3).collect { "orders.flow.${UUID.randomUUID()}".toString() }
+        def handlers = addresses.collect { metrics.handlerRegistered(it) }
+
+        when:
+        addresses.each { metrics.messageSent(it, false, true, false) }
+
+        then:
+        registry.find(MESSAGES_SENT).tag('address', 'orders.flow.*').tag('locality', 'local').counter().count() == 3
+        !registry.meters.any { it.id.getTag('address')?.contains('-') }
+
+        when:
+        handlers.each { metrics.handlerUnregistered(it) }
+
+        then: 'collapsed address meters are kept'
+        registry.find(MESSAGES_SENT).tag('address', 'orders.flow.*').counters()
+    }
+
+    def 'only trailing uuid segment of address is collapsed: #address'() {
+        expect:
+        EventBusMetricsAddressNormalizer.UUID_SUFFIX_COLLAPSING.normalize(address) == normalized
+
+        where:
+        address                                                    | normalized
+        'orders'                                                   | 'orders'
+        'orders.flow-credits.0f8fad5b-d9cb-469f-a165-70867728950e' | 'orders.flow-credits.*'
+        '0f8fad5b-d9cb-469f-a165-70867728950e'                     | '0f8fad5b-d9cb-469f-a165-70867728950e'
+        'orders.0f8fad5b_d9cb_469f_a165_70867728950e'              | 'orders.0f8fad5b_d9cb_469f_a165_70867728950e'
+    }
+
+    def 'interceptors record request latency under requested address'() {
+        given:
+        def replyAddress = "${REPLY_ADDRESS}.42".toString()
+        def request = deliveryContext('orders', replyAddress, true)
+        def reply = deliveryContext(replyAddress, null, true)
+
+        when:
+        metrics.interceptOutbound(request)
+        Thread.sleep(10)
+        metrics.interceptInbound(reply)
+
+        then:
+        1 * request.next()
+        1 * reply.next()
+        def latency = registry.find(REQUEST_LATENCY).tag('address', 'orders').timer()
+        latency.count() == 1
+        latency.totalTime(MILLISECONDS) >= 10
+
+        when: 'duplicate reply is not recorded'
+        metrics.interceptInbound(reply)
+
+        then:
+        latency.count() == 1
+        !registry.find(REQUEST_LATENCY).tag('address', REPLY_ADDRESS).timer()
+    }
+
+    def 'published message does not start request latency measurement'() {
+        given:
+        def replyAddress = "${REPLY_ADDRESS}.42".toString()
+
+        when:
+        metrics.interceptOutbound(deliveryContext('orders', replyAddress, false))
+        metrics.interceptInbound(deliveryContext(replyAddress, null, true))
+
+        then:
+        !registry.find(REQUEST_LATENCY).timer()
+    }
+
+    def 'inbound interceptor records handler time by thread'() {
+        given:
+        def ctx = deliveryContext('orders', null, true)
+
+        when:
+        metrics.interceptInbound(ctx)
+
+        then:
+        1 * ctx.next() >> { Thread.sleep(10) }
+        def handlerTime = registry.find(HANDLER_TIME).tag('address', 'orders')
+                .tag('thread', Thread.currentThread().name).timer()
+        handlerTime.count() == 1
+        handlerTime.totalTime(MILLISECONDS) >= 10
+    }
+
+    def 'reply failures are recorded by failure type'() {
+        when:
+        metrics.replyFailure('orders', ReplyFailure.TIMEOUT)
+        metrics.replyFailure('orders', ReplyFailure.TIMEOUT)
+        metrics.replyFailure('orders', ReplyFailure.NO_HANDLERS)
+
+        then:
+        registry.find(REPLY_FAILURES).tag('address', 'orders').tag('failure', 'TIMEOUT').counter().count() == 2
+        registry.find(REPLY_FAILURES).tag('address', 'orders').tag('failure', 'NO_HANDLERS').counter().count() == 1
+    }
+
+    def 'removed address meters are not registered again by stale references'() {
+        given:
+        def handler = metrics.handlerRegistered('tmp.address')
+        def staleMeters = metrics.addressMeters['tmp.address']
+
+        when:
+        metrics.handlerUnregistered(handler)
+
+        then:
+        staleMeters.removed
+        staleMeters.bytesWritten() == null
+        staleMeters.discarded() == null
+        !registry.find(BYTES_WRITTEN).tag('address', 'tmp.address').meters()
+
+        when: 'event of stale handler is recorded to the new meters of the address'
+        metrics.discardMessage(handler, true, null)
+
+        then:
+        registry.find(MESSAGES_DISCARDED).tag('address', 'tmp.address').counter().count() == 1
+        !metrics.addressMeters['tmp.address'].is(staleMeters)
+    }
+
+    def 'meters of address do not leak when events race with removal'() {
+        given:
+        def address = 'tmp.address'
+        def stop = new AtomicBoolean()
+        def start = new CyclicBarrier(5)
+        def senders = (1..4).collect {
+            Thread.start {
+                start.await()
+                while (!stop.get()) {
+                    metrics.messageSent(address, false, false, true)
+                    metrics.messageWritten(address, 16)
+                    metrics.replyFailure(address, ReplyFailure.TIMEOUT)
+                }
+            }
+        }
+
+        when:
+        start.await()
+        10_000.times { metrics.handlerUnregistered(metrics.handlerRegistered(address)) }
+        stop.set(true)
+        senders*.join()
+        metrics.handlerUnregistered(metrics.handlerRegistered(address))
+
+        then:
+        !registry.meters.any { it.id.getTag('address') == address }
+        !metrics.addressMeters.containsKey(address)
+    }
+
+    private DeliveryContext deliveryContext(String addr, String replyAddr, boolean isSend) {
+        def msg = Stub(Message) {
+            address() >> addr
+            replyAddress() >> replyAddr
+        }
+        Mock(DeliveryContext) {
+            message() >> msg
+            send() >> isSend
+        }
+    }
+}
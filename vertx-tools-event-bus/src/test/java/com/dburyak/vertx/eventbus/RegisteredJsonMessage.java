@@ -0,0 +1,4 @@
+package com.dburyak.vertx.eventbus;
+
+public record RegisteredJsonMessage(String text, int number) {
+}
@@ -0,0 +1,4 @@
+package com.dburyak.vertx.eventbus;
+
+public record UnregisteredJsonMessage(String text) {
+}
@@ -0,0 +1,16 @@
+package com.dburyak.vertx.eventbus.config;
+
+import com.dburyak.vertx.eventbus.EventBusMessage;
+
+@EventBusMessage(codec = MarkingMessageCodec.class)
+public class AnnotatedMessage {
+    private final String mark;
+
+    public AnnotatedMessage(String mark) {
+        this.mark = mark;
+    }
+
+    public String getMark() {
+        return mark;
+    }
+}
@@ -0,0 +1,10 @@
+package com.dburyak.vertx.eventbus.config;
+
+import com.dburyak.vertx.eventbus.ImmutableMessageCodec;
+
+public class ImmutableMarkingMessageCodec extends MarkingMessageCodec implements ImmutableMessageCodec {
+
+    public ImmutableMarkingMessageCodec(String mark) {
+        super(mark);
+    }
+}
@@ -0,0 +1,6 @@
+package com.dburyak.vertx.eventbus.config;
+
+import java.time.ZoneOffset;
+
+public record ImmutableMessage(String value, ZoneOffset offset) {
+}
@@ -0,0 +1,37 @@
+package com.dburyak.vertx.eventbus.config;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+public class MarkingMessageCodec implements MessageCodec<Object, Object> {
+    private final String mark;
+
+    public MarkingMessageCodec(String mark) {
+        this.mark = mark;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, Object message) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object decodeFromWire(int pos, Buffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object transform(Object message) {
+        return new AnnotatedMessage(mark);
+    }
+
+    @Override
+    public String name() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
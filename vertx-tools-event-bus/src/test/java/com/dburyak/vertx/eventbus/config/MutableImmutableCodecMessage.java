@@ -0,0 +1,16 @@
+package com.dburyak.vertx.eventbus.config;
+
+import com.dburyak.vertx.eventbus.EventBusMessage;
+
+@EventBusMessage(codec = ImmutableMarkingMessageCodec.class)
+public class MutableImmutableCodecMessage {
+    private String value;
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
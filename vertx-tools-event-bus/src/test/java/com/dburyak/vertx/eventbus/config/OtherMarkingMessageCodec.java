@@ -0,0 +1,8 @@
+package com.dburyak.vertx.eventbus.config;
+
+public class OtherMarkingMessageCodec extends MarkingMessageCodec {
+
+    public OtherMarkingMessageCodec(String mark) {
+        super(mark);
+    }
+}